@@ -0,0 +1,49 @@
+#!/bin/bash
+
+set -e
+
+# Mesure le temps de démarrage de l'API (jusqu'à ce que /api/v1/users/health réponde 200),
+# pour l'image standard puis pour l'image en démarrage rapide (AOT + CDS).
+# Usage : ./scripts/measure-startup.sh [nombre de redémarrages par image]
+
+RUNS=${1:-3}
+HEALTH_URL="http://localhost:8081/api/v1/users/health"
+SERVICE="client-api"
+
+echo "⏱️ Mesure du temps de démarrage - Client API"
+
+if ! command -v docker-compose &> /dev/null; then
+    echo "❌ Docker Compose n'est pas installé"
+    exit 1
+fi
+
+docker-compose up -d postgres
+
+measure() {
+    local fast_startup=$1
+    echo ""
+    echo "🐳 Construction de l'image (FAST_STARTUP=$fast_startup)..."
+    FAST_STARTUP=$fast_startup docker-compose build "$SERVICE" > /dev/null
+
+    local total=0
+    for run in $(seq 1 "$RUNS"); do
+        docker-compose stop "$SERVICE" > /dev/null 2>&1 || true
+        local start
+        start=$(date +%s%N)
+        docker-compose up -d "$SERVICE" > /dev/null 2>&1
+        until [ "$(curl -s -o /dev/null -w "%{http_code}" "$HEALTH_URL")" = "200" ]; do
+            if [ $(( ($(date +%s%N) - start) / 1000000000 )) -gt 180 ]; then
+                echo "❌ L'API n'a pas démarré en 180 s"
+                exit 1
+            fi
+            sleep 0.1
+        done
+        local elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+        total=$(( total + elapsed ))
+        echo "  Démarrage $run : ${elapsed} ms"
+    done
+    echo "✅ FAST_STARTUP=$fast_startup : moyenne $(( total / RUNS )) ms sur $RUNS démarrages"
+}
+
+measure false
+measure true
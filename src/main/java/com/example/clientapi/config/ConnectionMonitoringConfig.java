@@ -0,0 +1,38 @@
+package com.example.clientapi.config;
+
+import com.example.clientapi.monitoring.ConnectionLifecycleMonitor;
+import com.example.clientapi.monitoring.ConnectionTrackingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enveloppe chaque pool Hikari (pool unique, ou primaire et réplica) pour suivre
+ * l'attente et la détention des connexions.
+ */
+@Configuration
+public class ConnectionMonitoringConfig {
+
+    /**
+     * Déclaré static : un BeanPostProcessor doit être créé avant les autres beans.
+     */
+    @Bean
+    public static BeanPostProcessor connectionTrackingPostProcessor(
+            ObjectProvider<ConnectionLifecycleMonitor> monitorProvider,
+            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikariDataSource) {
+                    String poolName = hikariDataSource.getPoolName() != null ? hikariDataSource.getPoolName() : beanName;
+                    return new ConnectionTrackingDataSource(hikariDataSource, poolName, monitorProvider,
+                            meterRegistryProvider.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
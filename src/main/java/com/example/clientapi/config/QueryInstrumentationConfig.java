@@ -0,0 +1,55 @@
+package com.example.clientapi.config;
+
+import com.example.clientapi.monitoring.QueryInstrumentation;
+import com.example.clientapi.monitoring.QueryStatementInspector;
+import com.example.clientapi.monitoring.QueryTimingSessionListener;
+import com.example.clientapi.monitoring.RepositoryMethodInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Branche l'instrumentation des requêtes : intercepteur sur les méthodes des repositories
+ * Spring Data, inspecteur de requêtes et écouteur de session Hibernate.
+ */
+@Configuration
+public class QueryInstrumentationConfig {
+
+    /**
+     * Ajoute {@link RepositoryMethodInterceptor} au proxy de chaque repository.
+     * Déclaré static : un BeanPostProcessor doit être créé avant les autres beans.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryInstrumentationPostProcessor(
+            ObjectProvider<QueryInstrumentation> instrumentationProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new RepositoryMethodInterceptor(
+                                            repositoryInformation.getRepositoryInterface().getSimpleName(),
+                                            instrumentationProvider))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Un inspecteur déjà configuré (par exemple dans un test) reste prioritaire.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer queryInstrumentationHibernateCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new QueryStatementInspector());
+            properties.putIfAbsent(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                    QueryTimingSessionListener.class.getName());
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.clientapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mémorise les utilisateurs ayant récemment écrit en base.
+ *
+ * Pendant la fenêtre configurée, leurs lectures sont servies par la base primaire afin
+ * qu'ils voient immédiatement leurs propres modifications malgré le retard de réplication.
+ * Une seconde fenêtre, plus longue, couvre le retard du modèle de lecture en mémoire sur le flux
+ * de modifications : les lectures qu'il sert repassent par la base pendant sa durée.
+ *
+ * Les écritures sont mémorisées dans l'instance qui les a traitées. Avec plusieurs instances,
+ * la garantie suppose un routage collant : le répartiteur de charge doit envoyer les requêtes
+ * d'un même utilisateur (même sujet de token) vers la même instance pendant la fenêtre.
+ */
+@Component
+public class RecentWriteTracker {
+
+    // Au-delà de cette taille, les entrées expirées sont purgées lors d'un nouvel enregistrement
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final long readModelWindowNanos;
+    // Conservation des entrées : la plus longue des deux fenêtres
+    private final long retentionNanos;
+
+    public RecentWriteTracker(@Value("${app.datasource.replica.read-your-writes-window:5s}") Duration window,
+                              @Value("${app.users.read-model.read-your-writes-window:10s}")
+                              Duration readModelWindow) {
+        this.windowNanos = window.toNanos();
+        this.readModelWindowNanos = readModelWindow.toNanos();
+        this.retentionNanos = Math.max(windowNanos, readModelWindowNanos);
+    }
+
+    /**
+     * Enregistre une écriture pour l'utilisateur donné.
+     */
+    public void markWrite(String subject) {
+        if (subject == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        lastWrites.put(subject, now);
+        if (lastWrites.size() > SWEEP_THRESHOLD) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt > retentionNanos);
+        }
+    }
+
+    /**
+     * Enregistre une écriture pour l'utilisateur donné à la validation de la transaction courante,
+     * et seulement si elle est validée.
+     */
+    public void markWriteAfterCommit(String subject) {
+        if (subject == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markWrite(subject);
+            }
+        });
+    }
+
+    /**
+     * Indique si l'utilisateur donné a écrit pendant la fenêtre configurée.
+     */
+    public boolean hasRecentlyWritten(String subject) {
+        return hasWrittenWithin(subject, windowNanos);
+    }
+
+    /**
+     * Indique si l'utilisateur donné a écrit pendant la fenêtre du modèle de lecture en mémoire :
+     * sa modification n'y est peut-être pas encore visible.
+     */
+    public boolean hasWrittenWithinReadModelLag(String subject) {
+        return hasWrittenWithin(subject, readModelWindowNanos);
+    }
+
+    private boolean hasWrittenWithin(String subject, long window) {
+        if (subject == null) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(subject);
+        if (writtenAt == null) {
+            return false;
+        }
+        long age = System.nanoTime() - writtenAt;
+        if (age > retentionNanos) {
+            lastWrites.remove(subject, writtenAt);
+            return false;
+        }
+        return age <= window;
+    }
+
+    /**
+     * Utilisateur authentifié de la requête courante, ou {@code null} pour un appel anonyme.
+     */
+    public static String currentSubject() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.clientapi.config;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sonde périodique du réplica : s'il est injoignable ou trop en retard,
+ * les lectures sont renvoyées vers la base primaire jusqu'au prochain sondage réussi.
+ */
+public class ReplicaHealthProbe {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaHealthProbe.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    // Retard de rejeu du réplica PostgreSQL, en secondes (0 si la base n'est pas un réplica).
+    // Un réplica qui a rejoué tout le WAL reçu est à jour : sans écriture sur la primaire,
+    // l'horodatage de la dernière transaction rejouée vieillit sans qu'il y ait de retard.
+    private static final String REPLICATION_LAG_QUERY =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource replicaDataSource;
+    private final Duration maxLag;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private volatile boolean healthy = true;
+
+    public ReplicaHealthProbe(DataSource replicaDataSource, Duration interval, Duration maxLag) {
+        this.replicaDataSource = replicaDataSource;
+        this.maxLag = maxLag;
+        scheduler.scheduleWithFixedDelay(this::probe, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Sonde du réplica initialisée. Intervalle: {}, Retard maximal: {}", interval, maxLag);
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Vérifie la disponibilité et le retard du réplica.
+     */
+    public void probe() {
+        boolean nowHealthy;
+        try (Connection connection = replicaDataSource.getConnection()) {
+            nowHealthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS) && isLagAcceptable(connection);
+        } catch (Exception ex) {
+            logger.debug("Échec du sondage du réplica: {}", ex.getMessage());
+            nowHealthy = false;
+        }
+
+        if (nowHealthy != healthy) {
+            if (nowHealthy) {
+                logger.info("Réplica de nouveau disponible : reprise des lectures sur le réplica");
+            } else {
+                logger.warn("Réplica indisponible ou en retard : lectures redirigées vers la base primaire");
+            }
+        }
+        healthy = nowHealthy;
+    }
+
+    private boolean isLagAcceptable(Connection connection) throws Exception {
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return true;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(REPLICATION_LAG_QUERY)) {
+            double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+            if (lagSeconds * 1000 > maxLag.toMillis()) {
+                logger.debug("Retard du réplica trop important: {} s", lagSeconds);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
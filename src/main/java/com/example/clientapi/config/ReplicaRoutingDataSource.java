@@ -0,0 +1,40 @@
+package com.example.clientapi.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource qui dirige les transactions en lecture seule vers le réplica et le reste vers la primaire.
+ *
+ * La primaire est utilisée pour une lecture si l'utilisateur courant vient d'écrire
+ * ou si le réplica est signalé indisponible. Doit être enveloppée dans un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} : la connexion
+ * n'est alors choisie qu'à la première requête, une fois le caractère read-only de la transaction connu.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final RecentWriteTracker recentWriteTracker;
+    private final ReplicaHealthProbe replicaHealthProbe;
+
+    public ReplicaRoutingDataSource(RecentWriteTracker recentWriteTracker, ReplicaHealthProbe replicaHealthProbe) {
+        this.recentWriteTracker = recentWriteTracker;
+        this.replicaHealthProbe = replicaHealthProbe;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String subject = RecentWriteTracker.currentSubject();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Une transaction en écriture validée place l'utilisateur dans la fenêtre de lecture sur la primaire
+            recentWriteTracker.markWriteAfterCommit(subject);
+            return Route.PRIMARY;
+        }
+        if (recentWriteTracker.hasRecentlyWritten(subject) || !replicaHealthProbe.isHealthy()) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.clientapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées ({@code @Scheduled}), comme le relais de l'outbox.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,66 @@
+package com.example.clientapi.config;
+
+import com.example.clientapi.monitoring.SchemaStartupMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+
+/**
+ * Mesure le temps de démarrage consacré au schéma : les migrations Liquibase et la construction
+ * de l'EntityManagerFactory (dont la validation du schéma) s'exécutent pendant l'initialisation
+ * de leur bean, entre les deux rappels du BeanPostProcessor.
+ */
+@Configuration
+public class SchemaStartupConfig {
+
+    /**
+     * Déclaré static : requis par le BeanPostProcessor, créé avant les autres beans.
+     */
+    @Bean
+    public static SchemaStartupMonitor schemaStartupMonitor(ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                                            ObjectProvider<DataSource> dataSourceProvider) {
+        return new SchemaStartupMonitor(meterRegistryProvider, dataSourceProvider);
+    }
+
+    /**
+     * Déclaré static : un BeanPostProcessor doit être créé avant les autres beans.
+     */
+    @Bean
+    public static BeanPostProcessor schemaStartupTimingPostProcessor(SchemaStartupMonitor monitor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                String phase = phase(bean);
+                if (phase != null) {
+                    monitor.started(phase);
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                String phase = phase(bean);
+                if (phase != null) {
+                    monitor.finished(phase);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static String phase(Object bean) {
+        if (bean instanceof SpringLiquibase) {
+            return SchemaStartupMonitor.MIGRATIONS_PHASE;
+        }
+        if (bean instanceof AbstractEntityManagerFactoryBean) {
+            return SchemaStartupMonitor.JPA_PHASE;
+        }
+        return null;
+    }
+}
@@ -81,6 +81,9 @@ public class SecurityConfig {
                         // Documentation Swagger
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
 
+                        // Requêtes lentes (formes SQL) : réservé aux admins
+                        .requestMatchers("/actuator/slowqueries/**").hasRole("ADMIN")
+
                         // Actuator (monitoring) - accessible sans auth en dev
                         .requestMatchers("/actuator/**").permitAll()
 
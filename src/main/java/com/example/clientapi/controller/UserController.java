@@ -1,11 +1,31 @@
 package com.example.clientapi.controller;
 
+import com.example.clientapi.dto.BatchGetRequestDto;
+import com.example.clientapi.dto.BatchGetResponseDto;
+import com.example.clientapi.dto.BulkUserFilterDto;
+import com.example.clientapi.dto.ExportFormat;
+import com.example.clientapi.dto.GeoStatsDto;
+import com.example.clientapi.dto.RegistrationGranularity;
+import com.example.clientapi.dto.RegistrationStatsDto;
+import com.example.clientapi.dto.SegmentQueryDto;
+import com.example.clientapi.dto.SegmentQueryResultDto;
 import com.example.clientapi.dto.UserDto;
 import com.example.clientapi.dto.CreateUserDto;
 import com.example.clientapi.dto.UpdateUserDto;
+import com.example.clientapi.dto.UserChangesDto;
+import com.example.clientapi.dto.UserFilterDto;
+import com.example.clientapi.entity.User;
 import com.example.clientapi.entity.UserStatus;
 import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.readmodel.UserSegmentIndex;
+import com.example.clientapi.service.UserBatchService;
+import com.example.clientapi.service.UserBulkService;
+import com.example.clientapi.service.UserChangeFeedService;
+import com.example.clientapi.service.UserExportService;
+import com.example.clientapi.service.UserRegistrationStatsService;
 import com.example.clientapi.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,17 +34,24 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -39,10 +66,26 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserBulkService userBulkService;
+    private final UserBatchService userBatchService;
+    private final UserChangeFeedService userChangeFeedService;
+    private final UserRegistrationStatsService registrationStatsService;
+    private final ObjectProvider<UserSegmentIndex> segmentIndexProvider;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserExportService userExportService,
+                          UserBulkService userBulkService, UserBatchService userBatchService,
+                          UserChangeFeedService userChangeFeedService,
+                          UserRegistrationStatsService registrationStatsService,
+                          ObjectProvider<UserSegmentIndex> segmentIndexProvider) {
         this.userService = userService;
+        this.userExportService = userExportService;
+        this.userBulkService = userBulkService;
+        this.userBatchService = userBatchService;
+        this.userChangeFeedService = userChangeFeedService;
+        this.registrationStatsService = registrationStatsService;
+        this.segmentIndexProvider = segmentIndexProvider;
     }
 
     /**
@@ -71,11 +114,18 @@ public class UserController {
      * Récupère un utilisateur par son ID (le user lui-même ou admin).
      */
     @GetMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @userService.isOwner(#id, authentication.name)")
+    @PreAuthorize("hasRole('ADMIN') or @userSecurity.isOwner(#id, authentication)")
     @Operation(summary = "Récupérer un utilisateur par ID")
-    public ResponseEntity<UserDto> getUserById(@Parameter(description = "ID de l'utilisateur") @PathVariable Long id) {
+    public ResponseEntity<UserDto> getUserById(@Parameter(description = "ID de l'utilisateur") @PathVariable Long id,
+                                               Authentication authentication) {
         logger.debug("Requête de récupération de l'utilisateur avec l'ID: {}", id);
 
+        // Le propriétaire a déjà été chargé par le filtre JWT : inutile de relire la base
+        if (authentication != null && authentication.getPrincipal() instanceof User principal
+                && id.equals(principal.getId())) {
+            return ResponseEntity.ok(userService.getAuthenticatedUser(principal));
+        }
+
         UserDto user = userService.getUserById(id);
         return ResponseEntity.ok(user);
     }
@@ -93,6 +143,25 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    /**
+     * Récupère plusieurs utilisateurs par identifiants et/ou emails en une seule requête.
+     *
+     * Un non-admin ne peut obtenir que son propre compte : les autres clés sont rapportées introuvables.
+     */
+    @PostMapping("/batch-get")
+    @Operation(summary = "Récupérer plusieurs utilisateurs",
+            description = "Résout une liste d'identifiants et/ou d'emails, et retourne les clés introuvables")
+    public ResponseEntity<BatchGetResponseDto> batchGetUsers(@RequestBody BatchGetRequestDto request,
+                                                             Authentication authentication) {
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN"));
+        Long requesterId = authentication.getPrincipal() instanceof User principal ? principal.getId() : null;
+
+        BatchGetResponseDto response = userBatchService.batchGet(request, requesterId, authentication.getName(),
+                isAdmin);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Récupère tous les utilisateurs (admin uniquement).
      */
@@ -133,11 +202,58 @@ public class UserController {
         return ResponseEntity.ok(admins);
     }
 
+    /**
+     * Exporte les utilisateurs en flux continu, au format NDJSON ou CSV (admin uniquement).
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Exporter les utilisateurs",
+            description = "Export en flux continu (NDJSON ou CSV), filtrable par statut, rôle et ville, compressible en gzip")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Format d'export") @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @Parameter(description = "Statut de l'utilisateur") @RequestParam(required = false) UserStatus status,
+            @Parameter(description = "Rôle de l'utilisateur") @RequestParam(required = false) UserRole role,
+            @Parameter(description = "Ville") @RequestParam(required = false) String city,
+            @Parameter(description = "Compression gzip") @RequestParam(defaultValue = "false") boolean gzip) {
+
+        logger.info("Requête d'export des utilisateurs. Format: {}, Gzip: {}", format, gzip);
+
+        StreamingResponseBody body = outputStream ->
+                userExportService.exportUsers(format, status, role, city, gzip, outputStream);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users-export." + format.getExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Flux de modifications des utilisateurs depuis un curseur (admin uniquement).
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Lire les modifications des utilisateurs depuis un curseur",
+            description = "Créations, mises à jour et suppressions par lots ; renvoyer nextCursor au prochain appel")
+    public ResponseEntity<UserChangesDto> getUserChanges(
+            @Parameter(description = "Curseur retourné par l'appel précédent (absent pour repartir du début)")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Nombre maximal de modifications") @RequestParam(required = false) Integer limit) {
+
+        logger.debug("Requête du flux de modifications depuis le curseur: {}", since);
+
+        UserChangesDto changes = userChangeFeedService.getChanges(since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
     /**
      * Met à jour un utilisateur (le user lui-même ou admin).
      */
     @PutMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @userService.isOwner(#id, authentication.name)")
+    @PreAuthorize("hasRole('ADMIN') or @userSecurity.isOwner(#id, authentication)")
     @Operation(summary = "Mettre à jour un utilisateur")
     public ResponseEntity<UserDto> updateUser(
             @Parameter(description = "ID de l'utilisateur") @PathVariable Long id,
@@ -161,6 +277,46 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    /**
+     * Met à jour partiellement un utilisateur via JSON Merge Patch (le user lui-même ou admin).
+     *
+     * Répond 204 sans corps, sauf si l'en-tête {@code Prefer: return=representation} est fourni.
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or @userSecurity.isOwner(#id, authentication)")
+    @Operation(summary = "Mettre à jour partiellement un utilisateur",
+            description = "JSON Merge Patch (RFC 7396) : seuls les attributs fournis sont écrits, null efface l'attribut")
+    public ResponseEntity<UserDto> patchUser(
+            @Parameter(description = "ID de l'utilisateur") @PathVariable Long id,
+            @RequestBody JsonNode mergePatch,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
+
+        logger.info("Requête de merge patch de l'utilisateur avec l'ID: {}", id);
+
+        // Restriction : seuls les admins peuvent changer le rôle ou le statut
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream()
+                .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN"));
+
+        if (!isAdmin && mergePatch instanceof ObjectNode patch) {
+            boolean stripped = patch.remove("role") != null;
+            stripped |= patch.remove("status") != null;
+            if (stripped) {
+                logger.warn("Tentative de modification de rôle ou de statut par un non-admin refusée pour l'utilisateur ID: {}", id);
+            }
+        }
+
+        userService.patchUser(id, mergePatch);
+
+        logger.info("Utilisateur mis à jour partiellement avec succès. ID: {}", id);
+        if (prefer != null && prefer.contains("return=representation")) {
+            return ResponseEntity.ok()
+                    .header("Preference-Applied", "return=representation")
+                    .body(userService.getUserById(id));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Supprime un utilisateur (admin uniquement).
      */
@@ -224,6 +380,24 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Filtre les utilisateurs par statut, rôle, ville, pays, préfixe de code postal,
+     * entreprise et période de création (admin uniquement).
+     */
+    @GetMapping("/filter")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Filtrer les utilisateurs",
+            description = "Seuls les critères fournis sont appliqués ; dates au format ISO (yyyy-MM-ddTHH:mm:ss)")
+    public ResponseEntity<Page<UserDto>> filterUsers(
+            @ParameterObject UserFilterDto filter,
+            @PageableDefault(size = 20, sort = "lastName") Pageable pageable) {
+
+        logger.debug("Requête de filtrage des utilisateurs");
+
+        Page<UserDto> users = userService.filterUsers(filter, pageable);
+        return ResponseEntity.ok(users);
+    }
+
     /**
      * Active un utilisateur (admin uniquement).
      */
@@ -272,6 +446,46 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    /**
+     * Change le statut d'un ensemble d'utilisateurs (admin uniquement).
+     */
+    @PatchMapping("/bulk/status/{status}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Changer le statut d'utilisateurs en masse",
+            description = "Sélection par liste d'identifiants ou par critères (statut, rôle, ville)")
+    public ResponseEntity<Map<String, Object>> bulkUpdateStatus(
+            @Parameter(description = "Nouveau statut") @PathVariable UserStatus status,
+            @Valid @RequestBody BulkUserFilterDto filter,
+            Authentication authentication) {
+
+        logger.info("Requête de changement de statut en masse vers: {}", status);
+
+        // L'administrateur à l'origine de la requête n'est jamais modifié par sa propre mise à jour en masse
+        Long requesterId = authentication.getPrincipal() instanceof User principal ? principal.getId() : null;
+        Map<String, Object> result = userBulkService.updateStatus(filter, status, requesterId);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Change le rôle d'un ensemble d'utilisateurs (admin uniquement).
+     */
+    @PatchMapping("/bulk/role/{role}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Changer le rôle d'utilisateurs en masse",
+            description = "Sélection par liste d'identifiants ou par critères (statut, rôle, ville)")
+    public ResponseEntity<Map<String, Object>> bulkUpdateRole(
+            @Parameter(description = "Nouveau rôle") @PathVariable UserRole role,
+            @Valid @RequestBody BulkUserFilterDto filter,
+            Authentication authentication) {
+
+        logger.info("Requête de changement de rôle en masse vers: {}", role);
+
+        // L'administrateur à l'origine de la requête n'est jamais modifié par sa propre mise à jour en masse
+        Long requesterId = authentication.getPrincipal() instanceof User principal ? principal.getId() : null;
+        Map<String, Object> result = userBulkService.updateRole(filter, role, requesterId);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Récupère les statistiques des utilisateurs (admin uniquement).
      */
@@ -293,6 +507,86 @@ public class UserController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Répartition géographique des utilisateurs (admin uniquement).
+     */
+    @GetMapping("/stats/geo")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Répartition géographique des utilisateurs",
+            description = "Nombre d'utilisateurs par pays, par ville et par préfixe de code postal (département)")
+    public ResponseEntity<GeoStatsDto> getGeoStats(
+            @Parameter(description = "Statut de l'utilisateur") @RequestParam(required = false) UserStatus status,
+            @Parameter(description = "Rôle de l'utilisateur") @RequestParam(required = false) UserRole role) {
+
+        logger.debug("Requête de répartition géographique. Statut: {}, Rôle: {}", status, role);
+
+        GeoStatsDto stats = userService.getGeoStats(status, role);
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Série temporelle des inscriptions (admin uniquement).
+     */
+    @GetMapping("/stats/registrations")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Inscriptions par jour, semaine ou mois",
+            description = "Lue dans les compteurs quotidiens d'inscriptions, filtrable par rôle et statut")
+    public ResponseEntity<RegistrationStatsDto> getRegistrationStats(
+            @Parameter(description = "Premier jour (inclus)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Dernier jour (inclus)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Granularité") @RequestParam(defaultValue = "DAY") RegistrationGranularity granularity,
+            @Parameter(description = "Rôle de l'utilisateur") @RequestParam(required = false) UserRole role,
+            @Parameter(description = "Statut à l'inscription") @RequestParam(required = false) UserStatus status) {
+
+        logger.debug("Requête de la série des inscriptions du {} au {} par {}", from, to, granularity);
+
+        RegistrationStatsDto stats = registrationStatsService.getRegistrations(from, to, granularity, role, status);
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Reconstruit les compteurs quotidiens d'inscriptions à partir des utilisateurs existants (admin uniquement),
+     * après un chargement de données fait hors de l'application.
+     */
+    @PostMapping("/stats/registrations/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reconstruire les compteurs d'inscriptions",
+            description = "Recalcule user_registration_daily depuis la table users ; " +
+                    "les inscriptions d'utilisateurs supprimés depuis sont perdues")
+    public ResponseEntity<Map<String, Object>> rebuildRegistrationStats() {
+        logger.info("Requête de reconstruction des compteurs d'inscriptions");
+
+        int buckets = registrationStatsService.rebuild();
+        return ResponseEntity.ok(Map.of("buckets", buckets));
+    }
+
+    /**
+     * Évalue une expression de segment d'audience (admin uniquement).
+     */
+    @PostMapping("/segments/query")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Évaluer un segment d'audience",
+            description = "Expression and/or/not sur statut, rôle, ville, pays, mois de création et entreprise, " +
+                    "évaluée en mémoire sur des bitmaps compressés : nombre d'utilisateurs et page d'identifiants")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Segment évalué"),
+            @ApiResponse(responseCode = "400", description = "Expression invalide"),
+            @ApiResponse(responseCode = "503", description = "Index des segments désactivé ou en cours de chargement")
+    })
+    public ResponseEntity<SegmentQueryResultDto> querySegment(@Valid @RequestBody SegmentQueryDto query) {
+        UserSegmentIndex segmentIndex = segmentIndexProvider.getIfAvailable();
+        if (segmentIndex == null || !segmentIndex.isReady()) {
+            logger.warn("Requête de segment refusée : index des segments indisponible");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        SegmentQueryResultDto result = segmentIndex.query(query);
+        logger.debug("Segment évalué: {} utilisateurs en {} µs", result.getCount(), result.getEvaluationMicros());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Profil de l'utilisateur connecté.
      */
@@ -301,24 +595,11 @@ public class UserController {
     public ResponseEntity<UserDto> getCurrentUserProfile(Authentication authentication) {
         logger.debug("Requête de récupération du profil pour l'utilisateur: {}", authentication.getName());
 
+        if (authentication.getPrincipal() instanceof User principal) {
+            return ResponseEntity.ok(userService.getAuthenticatedUser(principal));
+        }
+
         UserDto user = userService.getUserByEmail(authentication.getName());
         return ResponseEntity.ok(user);
     }
-
-    /**
-     * Health check endpoint (public).
-     */
-    @GetMapping("/health")
-    @Operation(summary = "Health check")
-    public ResponseEntity<Map<String, Object>> healthCheck() {
-        logger.debug("Health check du service utilisateurs");
-
-        Map<String, Object> health = new HashMap<>();
-        health.put("status", "UP");
-        health.put("service", "user-api");
-        health.put("timestamp", java.time.LocalDateTime.now());
-        health.put("version", "1.0");
-
-        return ResponseEntity.ok(health);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.clientapi.dto;
+
+import java.util.List;
+
+/**
+ * DTO de requête de récupération groupée d'utilisateurs par identifiants et/ou emails.
+ */
+public class BatchGetRequestDto {
+
+    private List<Long> ids;
+    private List<String> emails;
+
+    // Constructeurs
+    public BatchGetRequestDto() {}
+
+    // Getters et Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public List<String> getEmails() { return emails; }
+    public void setEmails(List<String> emails) { this.emails = emails; }
+}
@@ -0,0 +1,34 @@
+package com.example.clientapi.dto;
+
+import java.util.List;
+
+/**
+ * DTO de réponse d'une récupération groupée : utilisateurs trouvés et clés introuvables.
+ *
+ * Une clé que l'appelant n'est pas autorisé à consulter est rapportée comme introuvable.
+ */
+public class BatchGetResponseDto {
+
+    private List<UserDto> users;
+    private List<Long> missingIds;
+    private List<String> missingEmails;
+
+    // Constructeurs
+    public BatchGetResponseDto() {}
+
+    public BatchGetResponseDto(List<UserDto> users, List<Long> missingIds, List<String> missingEmails) {
+        this.users = users;
+        this.missingIds = missingIds;
+        this.missingEmails = missingEmails;
+    }
+
+    // Getters et Setters
+    public List<UserDto> getUsers() { return users; }
+    public void setUsers(List<UserDto> users) { this.users = users; }
+
+    public List<Long> getMissingIds() { return missingIds; }
+    public void setMissingIds(List<Long> missingIds) { this.missingIds = missingIds; }
+
+    public List<String> getMissingEmails() { return missingEmails; }
+    public void setMissingEmails(List<String> missingEmails) { this.missingEmails = missingEmails; }
+}
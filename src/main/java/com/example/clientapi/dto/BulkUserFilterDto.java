@@ -0,0 +1,49 @@
+package com.example.clientapi.dto;
+
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO de sélection des utilisateurs visés par une mise à jour en masse.
+ *
+ * Soit une liste d'identifiants, soit des critères (statut, rôle, ville) doivent être fournis.
+ */
+public class BulkUserFilterDto {
+
+    @Size(max = 10000, message = "La liste d'identifiants ne peut pas dépasser 10000 éléments")
+    private List<Long> ids;
+
+    private UserStatus status;
+    private UserRole role;
+
+    @Size(max = 50, message = "La ville ne peut pas dépasser 50 caractères")
+    private String city;
+
+    // Constructeurs
+    public BulkUserFilterDto() {}
+
+    // Getters et Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public UserStatus getStatus() { return status; }
+    public void setStatus(UserStatus status) { this.status = status; }
+
+    public UserRole getRole() { return role; }
+    public void setRole(UserRole role) { this.role = role; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    // Méthodes utilitaires
+    public boolean hasIds() {
+        return ids != null && !ids.isEmpty();
+    }
+
+    public boolean hasCriteria() {
+        return status != null || role != null || (city != null && !city.isBlank());
+    }
+}
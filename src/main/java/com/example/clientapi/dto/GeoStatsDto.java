@@ -0,0 +1,39 @@
+package com.example.clientapi.dto;
+
+import java.util.Map;
+
+/**
+ * Répartition géographique des utilisateurs : nombre par pays, par ville et par préfixe
+ * de code postal (département pour la France), chaque répartition triée par nombre décroissant.
+ */
+public class GeoStatsDto {
+
+    private long total;
+    private Map<String, Long> byCountry;
+    private Map<String, Long> byCity;
+    private Map<String, Long> byPostalCodePrefix;
+
+    // Constructeurs
+    public GeoStatsDto() {}
+
+    public GeoStatsDto(long total, Map<String, Long> byCountry, Map<String, Long> byCity,
+                       Map<String, Long> byPostalCodePrefix) {
+        this.total = total;
+        this.byCountry = byCountry;
+        this.byCity = byCity;
+        this.byPostalCodePrefix = byPostalCodePrefix;
+    }
+
+    // Getters et Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public Map<String, Long> getByCountry() { return byCountry; }
+    public void setByCountry(Map<String, Long> byCountry) { this.byCountry = byCountry; }
+
+    public Map<String, Long> getByCity() { return byCity; }
+    public void setByCity(Map<String, Long> byCity) { this.byCity = byCity; }
+
+    public Map<String, Long> getByPostalCodePrefix() { return byPostalCodePrefix; }
+    public void setByPostalCodePrefix(Map<String, Long> byPostalCodePrefix) { this.byPostalCodePrefix = byPostalCodePrefix; }
+}
@@ -0,0 +1,27 @@
+package com.example.clientapi.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Nombre d'inscriptions d'une période (jour, semaine ou mois).
+ */
+public class RegistrationBucketDto {
+
+    private LocalDate periodStart;
+    private long registrations;
+
+    // Constructeurs
+    public RegistrationBucketDto() {}
+
+    public RegistrationBucketDto(LocalDate periodStart, long registrations) {
+        this.periodStart = periodStart;
+        this.registrations = registrations;
+    }
+
+    // Getters et Setters
+    public LocalDate getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+
+    public long getRegistrations() { return registrations; }
+    public void setRegistrations(long registrations) { this.registrations = registrations; }
+}
@@ -0,0 +1,36 @@
+package com.example.clientapi.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Granularités de la série temporelle des inscriptions.
+ */
+public enum RegistrationGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * Premier jour de la période contenant le jour donné (semaine ISO, commençant le lundi).
+     */
+    public LocalDate periodStart(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Premier jour de la période suivante.
+     */
+    public LocalDate next(LocalDate periodStart) {
+        return switch (this) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+}
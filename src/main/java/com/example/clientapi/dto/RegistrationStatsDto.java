@@ -0,0 +1,45 @@
+package com.example.clientapi.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Série temporelle des inscriptions sur une période, une entrée par jour, semaine ou mois
+ * (périodes sans inscription incluses).
+ */
+public class RegistrationStatsDto {
+
+    private LocalDate from;
+    private LocalDate to;
+    private RegistrationGranularity granularity;
+    private long total;
+    private List<RegistrationBucketDto> buckets;
+
+    // Constructeurs
+    public RegistrationStatsDto() {}
+
+    public RegistrationStatsDto(LocalDate from, LocalDate to, RegistrationGranularity granularity,
+                                long total, List<RegistrationBucketDto> buckets) {
+        this.from = from;
+        this.to = to;
+        this.granularity = granularity;
+        this.total = total;
+        this.buckets = buckets;
+    }
+
+    // Getters et Setters
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public RegistrationGranularity getGranularity() { return granularity; }
+    public void setGranularity(RegistrationGranularity granularity) { this.granularity = granularity; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public List<RegistrationBucketDto> getBuckets() { return buckets; }
+    public void setBuckets(List<RegistrationBucketDto> buckets) { this.buckets = buckets; }
+}
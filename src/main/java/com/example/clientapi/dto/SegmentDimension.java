@@ -0,0 +1,51 @@
+package com.example.clientapi.dto;
+
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Dimensions indexées par le moteur de segments, avec la forme canonique de leurs valeurs.
+ */
+public enum SegmentDimension {
+
+    STATUS,
+    ROLE,
+    // Ville en minuscules, comme le filtre par ville
+    CITY,
+    COUNTRY,
+    // Mois de création au format AAAA-MM
+    CREATED_MONTH,
+    // "true" si le nom d'entreprise est renseigné
+    HAS_COMPANY;
+
+    /**
+     * Forme canonique d'une valeur fournie dans une requête.
+     *
+     * @throws IllegalArgumentException si la valeur n'est pas valide pour la dimension
+     */
+    public String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Valeur vide pour la dimension " + this);
+        }
+        String trimmed = value.trim();
+        try {
+            return switch (this) {
+                case STATUS -> UserStatus.valueOf(trimmed.toUpperCase(Locale.ROOT)).name();
+                case ROLE -> UserRole.valueOf(trimmed.toUpperCase(Locale.ROOT)).name();
+                case CITY -> trimmed.toLowerCase(Locale.ROOT);
+                case COUNTRY -> trimmed;
+                case CREATED_MONTH -> YearMonth.parse(trimmed).toString();
+                case HAS_COMPANY -> switch (trimmed.toLowerCase(Locale.ROOT)) {
+                    case "true", "false" -> trimmed.toLowerCase(Locale.ROOT);
+                    default -> throw new IllegalArgumentException("Valeur booléenne attendue");
+                };
+            };
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Valeur invalide pour la dimension " + this + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.clientapi.dto;
+
+import java.util.List;
+
+/**
+ * Expression booléenne sur les segments d'utilisateurs.
+ *
+ * Exactement une forme doit être renseignée :
+ * - {@code and} / {@code or} : intersection / union des sous-expressions ;
+ * - {@code not} : complément de la sous-expression parmi tous les utilisateurs ;
+ * - {@code dimension} avec {@code values} (union des valeurs) ou, pour CREATED_MONTH,
+ *   une plage de mois {@code from} / {@code to} incluse (AAAA-MM).
+ */
+public class SegmentExpressionDto {
+
+    private List<SegmentExpressionDto> and;
+    private List<SegmentExpressionDto> or;
+    private SegmentExpressionDto not;
+    private SegmentDimension dimension;
+    private List<String> values;
+    private String from;
+    private String to;
+
+    // Constructeurs
+    public SegmentExpressionDto() {}
+
+    // Getters et Setters
+    public List<SegmentExpressionDto> getAnd() { return and; }
+    public void setAnd(List<SegmentExpressionDto> and) { this.and = and; }
+
+    public List<SegmentExpressionDto> getOr() { return or; }
+    public void setOr(List<SegmentExpressionDto> or) { this.or = or; }
+
+    public SegmentExpressionDto getNot() { return not; }
+    public void setNot(SegmentExpressionDto not) { this.not = not; }
+
+    public SegmentDimension getDimension() { return dimension; }
+    public void setDimension(SegmentDimension dimension) { this.dimension = dimension; }
+
+    public List<String> getValues() { return values; }
+    public void setValues(List<String> values) { this.values = values; }
+
+    public String getFrom() { return from; }
+    public void setFrom(String from) { this.from = from; }
+
+    public String getTo() { return to; }
+    public void setTo(String to) { this.to = to; }
+}
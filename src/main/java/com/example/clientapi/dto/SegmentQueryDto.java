@@ -0,0 +1,40 @@
+package com.example.clientapi.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO de requête du moteur de segments : expression à évaluer et, si demandés,
+ * page d'identifiants à retourner (par identifiant croissant).
+ */
+public class SegmentQueryDto {
+
+    @NotNull(message = "L'expression est obligatoire")
+    private SegmentExpressionDto expression;
+
+    private boolean includeIds;
+
+    @Min(value = 0, message = "Le numéro de page doit être positif")
+    private int page = 0;
+
+    @Min(value = 1, message = "La taille de page doit être au moins 1")
+    @Max(value = 10000, message = "La taille de page ne peut pas dépasser 10000")
+    private int size = 1000;
+
+    // Constructeurs
+    public SegmentQueryDto() {}
+
+    // Getters et Setters
+    public SegmentExpressionDto getExpression() { return expression; }
+    public void setExpression(SegmentExpressionDto expression) { this.expression = expression; }
+
+    public boolean isIncludeIds() { return includeIds; }
+    public void setIncludeIds(boolean includeIds) { this.includeIds = includeIds; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
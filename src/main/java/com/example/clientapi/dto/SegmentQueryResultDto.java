@@ -0,0 +1,43 @@
+package com.example.clientapi.dto;
+
+import java.util.List;
+
+/**
+ * DTO de réponse du moteur de segments.
+ */
+public class SegmentQueryResultDto {
+
+    private long count;
+    // Identifiants de la page demandée, null si non demandés
+    private List<Long> ids;
+    private int page;
+    private int size;
+    private long evaluationMicros;
+
+    // Constructeurs
+    public SegmentQueryResultDto() {}
+
+    public SegmentQueryResultDto(long count, List<Long> ids, int page, int size, long evaluationMicros) {
+        this.count = count;
+        this.ids = ids;
+        this.page = page;
+        this.size = size;
+        this.evaluationMicros = evaluationMicros;
+    }
+
+    // Getters et Setters
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getEvaluationMicros() { return evaluationMicros; }
+    public void setEvaluationMicros(long evaluationMicros) { this.evaluationMicros = evaluationMicros; }
+}
@@ -0,0 +1,53 @@
+package com.example.clientapi.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modification d'un utilisateur publiée dans le flux de modifications.
+ *
+ * Une création ou une mise à jour porte l'état courant de l'utilisateur ;
+ * une suppression ne porte que son identifiant.
+ */
+public class UserChangeDto {
+
+    public enum ChangeType {
+        UPSERT,
+        DELETE
+    }
+
+    private ChangeType type;
+    private Long id;
+    private LocalDateTime changedAt;
+    private UserDto user;
+
+    // Constructeurs
+    public UserChangeDto() {}
+
+    public UserChangeDto(ChangeType type, Long id, LocalDateTime changedAt, UserDto user) {
+        this.type = type;
+        this.id = id;
+        this.changedAt = changedAt;
+        this.user = user;
+    }
+
+    public static UserChangeDto upsert(UserDto user) {
+        return new UserChangeDto(ChangeType.UPSERT, user.getId(), user.getUpdatedAt(), user);
+    }
+
+    public static UserChangeDto delete(Long id, LocalDateTime deletedAt) {
+        return new UserChangeDto(ChangeType.DELETE, id, deletedAt, null);
+    }
+
+    // Getters et Setters
+    public ChangeType getType() { return type; }
+    public void setType(ChangeType type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+
+    public UserDto getUser() { return user; }
+    public void setUser(UserDto user) { this.user = user; }
+}
@@ -0,0 +1,35 @@
+package com.example.clientapi.dto;
+
+import java.util.List;
+
+/**
+ * Lot du flux de modifications des utilisateurs.
+ *
+ * {@code nextCursor} est à renvoyer tel quel au prochain appel ; {@code hasMore} indique
+ * que d'autres modifications sont déjà disponibles sans attendre.
+ */
+public class UserChangesDto {
+
+    private List<UserChangeDto> changes;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Constructeurs
+    public UserChangesDto() {}
+
+    public UserChangesDto(List<UserChangeDto> changes, String nextCursor, boolean hasMore) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters et Setters
+    public List<UserChangeDto> getChanges() { return changes; }
+    public void setChanges(List<UserChangeDto> changes) { this.changes = changes; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -1,5 +1,6 @@
 package com.example.clientapi.dto;
 
+import com.example.clientapi.entity.User;
 import com.example.clientapi.entity.UserStatus;
 import com.example.clientapi.entity.UserRole;
 import com.fasterxml.jackson.annotation.JsonFormat;
@@ -32,6 +33,38 @@ public class UserDto {
     // Constructeurs
     public UserDto() {}
 
+    /**
+     * Constructeur utilisé par les projections JPQL ({@code SELECT new ...}).
+     */
+    public UserDto(Long id, String firstName, String lastName, String email, String phone,
+                   String address, String city, String postalCode, String country,
+                   UserStatus status, UserRole role, String companyName,
+                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phone = phone;
+        this.address = address;
+        this.city = city;
+        this.postalCode = postalCode;
+        this.country = country;
+        this.status = status;
+        this.role = role;
+        this.companyName = companyName;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Conversion d'une entité en DTO de réponse, sans le mot de passe.
+     */
+    public static UserDto from(User user) {
+        return new UserDto(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getPhone(), user.getAddress(), user.getCity(), user.getPostalCode(), user.getCountry(),
+                user.getStatus(), user.getRole(), user.getCompanyName(), user.getCreatedAt(), user.getUpdatedAt());
+    }
+
     // Getters et Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
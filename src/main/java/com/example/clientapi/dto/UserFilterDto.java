@@ -0,0 +1,56 @@
+package com.example.clientapi.dto;
+
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO des critères de filtrage des utilisateurs, lus depuis les paramètres de requête.
+ *
+ * Seuls les critères renseignés sont traduits en prédicats SQL.
+ */
+public class UserFilterDto {
+
+    private UserStatus status;
+    private UserRole role;
+    private String city;
+    private String country;
+    private String postalCodePrefix;
+    private String companyName;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    // Constructeurs
+    public UserFilterDto() {}
+
+    // Getters et Setters
+    public UserStatus getStatus() { return status; }
+    public void setStatus(UserStatus status) { this.status = status; }
+
+    public UserRole getRole() { return role; }
+    public void setRole(UserRole role) { this.role = role; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+
+    public String getPostalCodePrefix() { return postalCodePrefix; }
+    public void setPostalCodePrefix(String postalCodePrefix) { this.postalCodePrefix = postalCodePrefix; }
+
+    public String getCompanyName() { return companyName; }
+    public void setCompanyName(String companyName) { this.companyName = companyName; }
+
+    public LocalDateTime getCreatedFrom() { return createdFrom; }
+    public void setCreatedFrom(LocalDateTime createdFrom) { this.createdFrom = createdFrom; }
+
+    public LocalDateTime getCreatedTo() { return createdTo; }
+    public void setCreatedTo(LocalDateTime createdTo) { this.createdTo = createdTo; }
+}
@@ -0,0 +1,141 @@
+package com.example.clientapi.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Événement du cycle de vie d'un utilisateur, écrit dans la même transaction que la modification
+ * puis publié de manière asynchrone par le relais de l'outbox.
+ *
+ * L'identifiant, croissant, fixe l'ordre de publication des événements d'un même utilisateur.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_published_at", columnList = "published_at"),
+        @Index(name = "idx_outbox_events_aggregate_pending", columnList = "aggregate_id, id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private UserEventType eventType;
+
+    @Column(name = "payload", nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // Noms des puits ayant reçu l'événement, séparés par des virgules
+    @Column(name = "delivered_sinks", length = 200)
+    private String deliveredSinks;
+
+    // Constructeurs
+    public OutboxEvent() {}
+
+    public OutboxEvent(Long aggregateId, UserEventType eventType, String payload, LocalDateTime createdAt) {
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Marque l'événement comme publié sur tous les puits.
+     */
+    public void markPublished(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+        this.lastError = null;
+    }
+
+    /**
+     * Enregistre un échec de publication et la date de la prochaine tentative.
+     */
+    public void markFailed(String error, LocalDateTime nextAttemptAt) {
+        this.attempts++;
+        this.nextAttemptAt = nextAttemptAt;
+        this.lastError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    /**
+     * Réserve l'événement jusqu'à la date donnée : il n'est plus sélectionné par un autre passage
+     * du relais pendant sa publication. Ne compte pas comme une tentative.
+     */
+    public void claim(LocalDateTime leaseUntil) {
+        this.nextAttemptAt = leaseUntil;
+    }
+
+    /**
+     * Enregistre la livraison de l'événement au puits donné.
+     */
+    public void markDelivered(String sinkName) {
+        if (!isDeliveredTo(sinkName)) {
+            this.deliveredSinks = deliveredSinks == null ? sinkName : deliveredSinks + "," + sinkName;
+        }
+    }
+
+    /**
+     * Indique si l'événement a déjà été livré au puits donné.
+     */
+    public boolean isDeliveredTo(String sinkName) {
+        return deliveredSinks != null && Arrays.asList(deliveredSinks.split(",")).contains(sinkName);
+    }
+
+    /**
+     * Indique si l'événement a été livré à chacun des puits donnés.
+     */
+    public boolean isDeliveredToAll(Collection<String> sinkNames) {
+        return sinkNames.stream().allMatch(this::isDeliveredTo);
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public Long getAggregateId() { return aggregateId; }
+
+    public UserEventType getEventType() { return eventType; }
+
+    public String getPayload() { return payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public int getAttempts() { return attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+
+    public String getLastError() { return lastError; }
+
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+
+    public String getDeliveredSinks() { return deliveredSinks; }
+}
@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -13,19 +18,50 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 
 /**
  * Entité représentant un utilisateur avec authentification.
+ *
+ * Les mises à jour ne réécrivent que les colonnes modifiées (@DynamicUpdate).
+ * Le schéma de production est géré par les migrations Liquibase (db/changelog), qui ajoutent
+ * aussi les index fonctionnels impossibles à déclarer ici (lower(email), lower(city), préfixe de code postal).
  */
 @Entity
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Table(name = "users", indexes = {
-        @Index(name = "idx_user_email", columnList = "email"),
-        @Index(name = "idx_user_status", columnList = "status"),
-        @Index(name = "idx_user_role", columnList = "role")
+        @Index(name = "idx_users_status_last_name_id", columnList = "status, last_name, id"),
+        @Index(name = "idx_users_role_last_name_id", columnList = "role, last_name, id"),
+        @Index(name = "idx_user_country", columnList = "country"),
+        @Index(name = "idx_user_company_name", columnList = "company_name"),
+        @Index(name = "idx_user_created_at", columnList = "created_at"),
+        @Index(name = "idx_users_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_users_geo", columnList = "status, role, country, city, postal_code")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = User.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email"),
+        @UniqueConstraint(name = User.EMAIL_NORMALIZED_UNIQUE_CONSTRAINT, columnNames = "email_normalized")
 })
 public class User implements UserDetails {
 
+    /**
+     * Contrainte garantissant l'unicité de l'email, sur laquelle s'appuient les mises à jour.
+     */
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_users_email";
+
+    /**
+     * Contrainte garantissant l'unicité de l'email normalisé : Foo@x.fr et foo@x.fr sont le même compte.
+     */
+    public static final String EMAIL_NORMALIZED_UNIQUE_CONSTRAINT = "uk_users_email_normalized";
+
+    /**
+     * Régions du cache de second niveau (bornées dans application.conf).
+     */
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-natural-id";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -40,12 +76,17 @@ public class User implements UserDetails {
     @Size(max = 50, message = "Le nom ne peut pas dépasser 50 caractères")
     private String lastName;
 
-    @Column(name = "email", nullable = false, unique = true, length = 100)
+    @Column(name = "email", nullable = false, length = 100)
     @NotBlank(message = "L'email est obligatoire")
     @Email(message = "L'email doit être valide")
     @Size(max = 100, message = "L'email ne peut pas dépasser 100 caractères")
     private String email;
 
+    // Forme canonique de l'email, utilisée pour toutes les recherches par email (identifiant naturel mis en cache)
+    @NaturalId(mutable = true)
+    @Column(name = "email_normalized", nullable = false, length = 100)
+    private String emailNormalized;
+
     @Column(name = "password", nullable = false)
     @NotBlank(message = "Le mot de passe est obligatoire")
     private String password;
@@ -96,11 +137,24 @@ public class User implements UserDetails {
     public User(String firstName, String lastName, String email, String password, UserRole role) {
         this.firstName = firstName;
         this.lastName = lastName;
-        this.email = email;
+        setEmail(email);
         this.password = password;
         this.role = role;
     }
 
+    /**
+     * Forme canonique d'un email : sans espaces superflus et en minuscules.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeEmailColumn() {
+        this.emailNormalized = normalizeEmail(email);
+    }
+
     // Implémentation UserDetails pour Spring Security
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -148,7 +202,12 @@ public class User implements UserDetails {
     public void setLastName(String lastName) { this.lastName = lastName; }
 
     public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailNormalized = normalizeEmail(email);
+    }
+
+    public String getEmailNormalized() { return emailNormalized; }
 
     public void setPassword(String password) { this.password = password; }
 
@@ -0,0 +1,12 @@
+package com.example.clientapi.entity;
+
+/**
+ * Types d'événements du cycle de vie d'un utilisateur publiés via l'outbox.
+ */
+public enum UserEventType {
+    USER_CREATED,
+    USER_UPDATED,
+    USER_DELETED,
+    USER_STATUS_CHANGED,
+    USER_ROLE_CHANGED
+}
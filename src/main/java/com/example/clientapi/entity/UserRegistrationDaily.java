@@ -0,0 +1,36 @@
+package com.example.clientapi.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+/**
+ * Nombre d'inscriptions d'un jour pour un rôle et un statut donnés.
+ *
+ * Table d'agrégats alimentée à chaque création d'utilisateur : l'historique des inscriptions
+ * se lit sans parcourir la table users. Les suppressions ne décomptent pas les inscriptions passées.
+ */
+@Entity
+@Table(name = "user_registration_daily")
+public class UserRegistrationDaily {
+
+    @EmbeddedId
+    private UserRegistrationDailyId id;
+
+    @Column(name = "registrations", nullable = false)
+    private long registrations;
+
+    // Constructeurs
+    public UserRegistrationDaily() {}
+
+    public UserRegistrationDaily(UserRegistrationDailyId id, long registrations) {
+        this.id = id;
+        this.registrations = registrations;
+    }
+
+    // Getters
+    public UserRegistrationDailyId getId() { return id; }
+
+    public long getRegistrations() { return registrations; }
+}
@@ -0,0 +1,56 @@
+package com.example.clientapi.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Clé d'un compteur quotidien d'inscriptions : jour, rôle et statut à l'inscription.
+ */
+@Embeddable
+public class UserRegistrationDailyId implements Serializable {
+
+    @Column(name = "registration_day", nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false, length = 20)
+    private UserRole role;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private UserStatus status;
+
+    // Constructeurs
+    public UserRegistrationDailyId() {}
+
+    public UserRegistrationDailyId(LocalDate day, UserRole role, UserStatus status) {
+        this.day = day;
+        this.role = role;
+        this.status = status;
+    }
+
+    // Getters
+    public LocalDate getDay() { return day; }
+
+    public UserRole getRole() { return role; }
+
+    public UserStatus getStatus() { return status; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserRegistrationDailyId other)) return false;
+        return Objects.equals(day, other.day) && role == other.role && status == other.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, role, status);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.clientapi.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Trace de la suppression d'un utilisateur, publiée dans le flux de modifications
+ * pour que les services qui répliquent les clients suppriment leur copie.
+ */
+@Entity
+@Table(name = "user_tombstones", indexes = {
+        @Index(name = "idx_user_tombstones_deleted_at_user_id", columnList = "deleted_at, user_id")
+})
+public class UserTombstone implements Persistable<Long> {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Identifiant attribué par l'application : évite le SELECT préalable d'un merge
+    @Transient
+    private boolean isNew = true;
+
+    // Constructeurs
+    public UserTombstone() {}
+
+    public UserTombstone(Long userId, LocalDateTime deletedAt) {
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public Long getId() { return userId; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    // Getters
+    public Long getUserId() { return userId; }
+
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+}
@@ -0,0 +1,106 @@
+package com.example.clientapi.health;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Répond à {@code GET /api/v1/users/health} (public) depuis l'instantané de {@link HealthSnapshotProber}.
+ *
+ * Premier filtre de la chaîne : la sonde n'entre ni dans Spring Security ni dans Spring MVC,
+ * n'accède pas à la base et ne sérialise rien, tous les corps de réponse étant précalculés.
+ * Réponses :
+ * <ul>
+ *     <li>503 OUT_OF_SERVICE tant que l'instance n'accepte pas de trafic (préchauffage en cours) ;</li>
+ *     <li>503 DOWN si l'instantané est périmé (sonde bloquée, par exemple en attente d'une connexion) ;</li>
+ *     <li>sinon l'instantané : 200 (UP, DEGRADED) ou 503 (DOWN).</li>
+ * </ul>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class HealthProbeFilter extends OncePerRequestFilter {
+
+    static final String HEALTH_PATH = "/api/v1/users/health";
+
+    private static final String CONTENT_TYPE = "application/json";
+
+    private final HealthSnapshotProber prober;
+    private final long staleAfterNanos;
+    private final byte[] outOfServiceBody;
+    private final byte[] staleBody;
+
+    private volatile boolean acceptingTraffic;
+
+    @Autowired
+    public HealthProbeFilter(HealthSnapshotProber prober, ObjectMapper objectMapper,
+                             @Value("${app.health.stale-after:5s}") Duration staleAfter)
+            throws JsonProcessingException {
+        this.prober = prober;
+        this.staleAfterNanos = staleAfter.toNanos();
+        this.outOfServiceBody = objectMapper.writeValueAsBytes(body("OUT_OF_SERVICE", null));
+        this.staleBody = objectMapper.writeValueAsBytes(
+                body(HealthSnapshotProber.DOWN, "Aucun sondage de santé abouti depuis " + staleAfter));
+    }
+
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        acceptingTraffic = event.getState() == ReadinessState.ACCEPTING_TRAFFIC;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HEALTH_PATH.equals(request.getRequestURI())
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws IOException {
+        HealthSnapshot snapshot = prober.snapshot();
+        if (!acceptingTraffic) {
+            write(request, response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, outOfServiceBody);
+        } else if (snapshot == null || System.nanoTime() - snapshot.takenAtNanos() > staleAfterNanos) {
+            write(request, response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, staleBody);
+        } else {
+            write(request, response, snapshot.httpStatus(), snapshot.body());
+        }
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response, int status, byte[] body)
+            throws IOException {
+        response.setStatus(status);
+        response.setContentType(CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-store");
+        response.setContentLength(body.length);
+        if (!"HEAD".equals(request.getMethod())) {
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private static Map<String, Object> body(String status, String reason) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status);
+        body.put("service", "user-api");
+        body.put("version", "1.0");
+        if (reason != null) {
+            body.put("reason", reason);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.clientapi.health;
+
+import java.util.Map;
+
+/**
+ * État de santé calculé par {@link HealthSnapshotProber}, avec sa réponse HTTP déjà sérialisée.
+ *
+ * @param status       état global : pire état des composants
+ * @param httpStatus   code HTTP de la réponse (503 si un composant est DOWN)
+ * @param body         corps JSON de la réponse publique (état global seul), à ne pas modifier
+ * @param takenAtNanos instant du sondage (System.nanoTime)
+ * @param components   état et détails de chaque composant, par nom
+ */
+public record HealthSnapshot(String status, int httpStatus, byte[] body, long takenAtNanos,
+                             Map<String, Map<String, Object>> components) {
+}
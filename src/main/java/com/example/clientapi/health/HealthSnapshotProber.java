@@ -0,0 +1,286 @@
+package com.example.clientapi.health;
+
+import com.example.clientapi.readmodel.InMemoryUserView;
+import com.example.clientapi.readmodel.UserReadModel;
+import com.example.clientapi.readmodel.UserSegmentIndex;
+import com.example.clientapi.service.TokenBlacklistService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sonde de santé en tâche de fond : base de données, pool de connexions, liste noire des tokens
+ * et caches sont vérifiés à cadence fixe, et le résultat est publié sous forme d'instantané
+ * dont la réponse JSON est sérialisée une fois pour toutes.
+ *
+ * Les sondes des répartiteurs de charge ({@link HealthProbeFilter}) et l'actuator
+ * ({@link SnapshotHealthIndicator}) lisent cet instantané sans accéder à la base. La réponse
+ * publique ne contient que l'état global : le détail des composants (pool, liste noire, caches,
+ * erreur de la base) n'est exposé que par l'actuator, aux administrateurs.
+ */
+@Component
+public class HealthSnapshotProber {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthSnapshotProber.class);
+
+    public static final String UP = "UP";
+    public static final String DEGRADED = "DEGRADED";
+    public static final String DOWN = "DOWN";
+
+    private final DataSource dataSource;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<UserReadModel> readModelProvider;
+    private final ObjectProvider<UserSegmentIndex> segmentIndexProvider;
+    private final ObjectMapper objectMapper;
+    private final Duration interval;
+    private final long dbLatencyWarningNanos;
+    private final int queryTimeoutSeconds;
+    private final int poolExhaustedProbes;
+    private final int blacklistWarningSize;
+    private final Timer dbLatencyTimer;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "health-prober");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile HealthSnapshot snapshot;
+
+    // État du thread de sondage
+    private HikariDataSource pool;
+    private int consecutiveExhaustedProbes;
+    private long lastCacheHits;
+    private long lastCacheMisses;
+    private boolean databaseFailing;
+
+    @Autowired
+    public HealthSnapshotProber(DataSource dataSource, TokenBlacklistService tokenBlacklistService,
+                                EntityManagerFactory entityManagerFactory,
+                                ObjectProvider<UserReadModel> readModelProvider,
+                                ObjectProvider<UserSegmentIndex> segmentIndexProvider,
+                                ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${app.health.probe-interval:1s}") Duration interval,
+                                @Value("${app.health.db-latency-warning:200ms}") Duration dbLatencyWarning,
+                                @Value("${app.health.db-query-timeout:2s}") Duration dbQueryTimeout,
+                                @Value("${app.health.pool-exhausted-probes:3}") int poolExhaustedProbes,
+                                @Value("${app.health.blacklist-warning-size:100000}") int blacklistWarningSize) {
+        this.dataSource = dataSource;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.entityManagerFactory = entityManagerFactory;
+        this.readModelProvider = readModelProvider;
+        this.segmentIndexProvider = segmentIndexProvider;
+        this.objectMapper = objectMapper;
+        this.interval = interval;
+        this.dbLatencyWarningNanos = dbLatencyWarning.toNanos();
+        this.queryTimeoutSeconds = (int) Math.max(1, dbQueryTimeout.toSeconds());
+        this.poolExhaustedProbes = poolExhaustedProbes;
+        this.blacklistWarningSize = blacklistWarningSize;
+        this.dbLatencyTimer = Timer.builder("health.probe.db.latency")
+                .description("Latence du sondage de la base (obtention d'une connexion et SELECT 1)")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Premier sondage synchrone, pour qu'un instantané existe dès l'ouverture au trafic.
+     */
+    @PostConstruct
+    public void start() {
+        try {
+            // Pool Hikari de la base primaire, derrière le suivi des connexions et le routage éventuel
+            pool = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException ex) {
+            logger.warn("Pool Hikari introuvable, état du pool non surveillé: {}", ex.getMessage());
+        }
+        probe();
+        scheduler.scheduleWithFixedDelay(this::probe, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Sonde de santé initialisée. Intervalle: {}", interval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Dernier instantané, {@code null} avant le premier sondage.
+     */
+    public HealthSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Sonde tous les composants et publie le nouvel instantané.
+     */
+    public void probe() {
+        try {
+            Map<String, Map<String, Object>> components = new LinkedHashMap<>();
+            // Le pool est observé avant que la sonde n'emprunte sa propre connexion
+            components.put("pool", probePool());
+            components.put("db", probeDatabase());
+            components.put("blacklist", probeBlacklist());
+            components.put("cache", probeCaches());
+
+            String status = UP;
+            for (Map<String, Object> component : components.values()) {
+                status = worst(status, (String) component.get("status"));
+            }
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("status", status);
+            body.put("service", "user-api");
+            body.put("version", "1.0");
+            body.put("checkedAt", Instant.now().toString());
+
+            HealthSnapshot previous = snapshot;
+            snapshot = new HealthSnapshot(status, DOWN.equals(status) ? 503 : 200,
+                    objectMapper.writeValueAsBytes(body), System.nanoTime(), Collections.unmodifiableMap(components));
+
+            if (previous != null && !previous.status().equals(status)) {
+                if (UP.equals(status)) {
+                    logger.info("Santé de l'instance rétablie: {}", status);
+                } else {
+                    logger.warn("Santé de l'instance: {} ({})", status, components);
+                }
+            }
+        } catch (JsonProcessingException | RuntimeException ex) {
+            // L'instantané précédent vieillit et finit par être servi comme périmé
+            logger.error("Échec du sondage de santé", ex);
+        }
+    }
+
+    private Map<String, Object> probePool() {
+        Map<String, Object> component = new LinkedHashMap<>();
+        HikariPoolMXBean mxBean = pool != null ? pool.getHikariPoolMXBean() : null;
+        if (mxBean == null) {
+            component.put("status", UP);
+            component.put("monitored", false);
+            return component;
+        }
+        int active = mxBean.getActiveConnections();
+        int waiting = mxBean.getThreadsAwaitingConnection();
+        int max = pool.getMaximumPoolSize();
+
+        // Épuisement : toutes les connexions prêtées et des threads en attente, sur plusieurs sondages
+        boolean exhausted = active >= max && waiting > 0;
+        consecutiveExhaustedProbes = exhausted ? consecutiveExhaustedProbes + 1 : 0;
+        String status = consecutiveExhaustedProbes >= poolExhaustedProbes ? DOWN : exhausted ? DEGRADED : UP;
+
+        component.put("status", status);
+        component.put("active", active);
+        component.put("idle", mxBean.getIdleConnections());
+        component.put("total", mxBean.getTotalConnections());
+        component.put("max", max);
+        component.put("awaiting", waiting);
+        return component;
+    }
+
+    private Map<String, Object> probeDatabase() {
+        Map<String, Object> component = new LinkedHashMap<>();
+        DataSource target = pool != null ? pool : dataSource;
+        long start = System.nanoTime();
+        try (Connection connection = target.getConnection()) {
+            long acquired = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(queryTimeoutSeconds);
+                statement.execute("SELECT 1");
+            }
+            long end = System.nanoTime();
+            dbLatencyTimer.record(end - start, TimeUnit.NANOSECONDS);
+
+            component.put("status", end - start > dbLatencyWarningNanos ? DEGRADED : UP);
+            component.put("acquireMs", millis(acquired - start));
+            component.put("queryMs", millis(end - acquired));
+            databaseFailing = false;
+        } catch (SQLException ex) {
+            // Le message du pilote peut contenir l'hôte et le port de la base : il reste dans les logs
+            if (!databaseFailing) {
+                logger.warn("Sondage de la base en échec: {}", ex.getMessage());
+            }
+            databaseFailing = true;
+            component.put("status", DOWN);
+            component.put("error", ex.getClass().getSimpleName());
+            component.put("sqlState", ex.getSQLState());
+            component.put("elapsedMs", millis(System.nanoTime() - start));
+        }
+        return component;
+    }
+
+    private Map<String, Object> probeBlacklist() {
+        Map<String, Object> component = new LinkedHashMap<>();
+        int revoked = tokenBlacklistService.getBlacklistedTokensCount();
+        // Liste noire en mémoire : sa croissance sans limite finirait par saturer le tas
+        component.put("status", revoked > blacklistWarningSize ? DEGRADED : UP);
+        component.put("revokedTokens", revoked);
+        return component;
+    }
+
+    /**
+     * Les caches ne dégradent jamais l'état : en leur absence, les lectures passent par la base.
+     */
+    private Map<String, Object> probeCaches() {
+        Map<String, Object> component = new LinkedHashMap<>();
+        component.put("status", UP);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (statistics.isStatisticsEnabled()) {
+            long hits = statistics.getSecondLevelCacheHitCount();
+            long misses = statistics.getSecondLevelCacheMissCount();
+            long lookups = (hits - lastCacheHits) + (misses - lastCacheMisses);
+            // Taux de succès du cache de second niveau depuis le sondage précédent
+            component.put("secondLevelHitRatio", lookups > 0 ? (double) (hits - lastCacheHits) / lookups : null);
+            lastCacheHits = hits;
+            lastCacheMisses = misses;
+        }
+        component.put("readModel", viewState(readModelProvider.getIfAvailable()));
+        component.put("segmentIndex", viewState(segmentIndexProvider.getIfAvailable()));
+        return component;
+    }
+
+    private static String viewState(InMemoryUserView<?> view) {
+        if (view == null) {
+            return "disabled";
+        }
+        return view.isReady() ? "ready" : "loading";
+    }
+
+    static String worst(String current, String candidate) {
+        if (DOWN.equals(current) || DOWN.equals(candidate)) {
+            return DOWN;
+        }
+        return DEGRADED.equals(current) || DEGRADED.equals(candidate) ? DEGRADED : UP;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.clientapi.health;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Composant {@code snapshot} de {@code /actuator/health}, lu dans l'instantané de
+ * {@link HealthSnapshotProber} : l'actuator ne sonde plus la base à chaque appel
+ * (indicateur {@code db} désactivé). L'état DEGRADED est rapporté UP, avec le détail,
+ * visible des seuls administrateurs ({@code management.endpoint.health.show-details}).
+ */
+@Component
+public class SnapshotHealthIndicator implements HealthIndicator {
+
+    private final HealthSnapshotProber prober;
+
+    @Autowired
+    public SnapshotHealthIndicator(HealthSnapshotProber prober) {
+        this.prober = prober;
+    }
+
+    @Override
+    public Health health() {
+        HealthSnapshot snapshot = prober.snapshot();
+        if (snapshot == null) {
+            return Health.unknown().build();
+        }
+        Health.Builder builder = HealthSnapshotProber.DOWN.equals(snapshot.status()) ? Health.down() : Health.up();
+        return builder
+                .withDetail("status", snapshot.status())
+                .withDetails(snapshot.components())
+                .build();
+    }
+}
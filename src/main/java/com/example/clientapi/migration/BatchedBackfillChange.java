@@ -0,0 +1,120 @@
+package com.example.clientapi.migration;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Migration Liquibase qui remplit une colonne par lots d'identifiants, chaque lot validé séparément.
+ *
+ * Un UPDATE unique verrouillerait toutes les lignes de la table jusqu'à la fin de la migration
+ * et produirait une seule transaction géante ; ici chaque lot ne verrouille que sa plage
+ * d'identifiants, le temps d'un aller-retour. Seules les lignes où la colonne est encore NULL
+ * sont modifiées : une migration interrompue reprend là où elle s'était arrêtée.
+ *
+ * À déclarer dans un changeSet {@code runInTransaction="false"} :
+ * <pre>
+ * &lt;customChange class="com.example.clientapi.migration.BatchedBackfillChange"&gt;
+ *     &lt;param name="tableName" value="users"/&gt;
+ *     &lt;param name="columnName" value="email_normalized"/&gt;
+ *     &lt;param name="valueExpression" value="lower(trim(email))"/&gt;
+ * &lt;/customChange&gt;
+ * </pre>
+ */
+public class BatchedBackfillChange implements CustomTaskChange {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchedBackfillChange.class);
+
+    private String tableName;
+    private String columnName;
+    private String valueExpression;
+    private int batchSize = 10_000;
+
+    private long updatedRows;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        String bounds = "SELECT MIN(id), MAX(id) FROM " + tableName + " WHERE " + columnName + " IS NULL";
+        String update = "UPDATE " + tableName + " SET " + columnName + " = " + valueExpression
+                + " WHERE id >= ? AND id < ? AND " + columnName + " IS NULL";
+
+        try (PreparedStatement boundsStatement = connection.prepareStatement(bounds);
+             ResultSet range = boundsStatement.executeQuery()) {
+            range.next();
+            long first = range.getLong(1);
+            if (range.wasNull()) {
+                return;
+            }
+            long last = range.getLong(2);
+
+            try (PreparedStatement statement = connection.prepareStatement(update)) {
+                // Parcours par plages d'identifiants (index primaire) : le nombre d'allers-retours
+                // est borné même si l'expression laisse des lignes à NULL
+                for (long from = first; from <= last; from += batchSize) {
+                    statement.setLong(1, from);
+                    statement.setLong(2, from + batchSize);
+                    updatedRows += statement.executeUpdate();
+                    if (!connection.getAutoCommit()) {
+                        connection.commit();
+                    }
+                }
+            }
+        } catch (SQLException | DatabaseException ex) {
+            throw new CustomChangeException("Échec du remplissage de " + tableName + "." + columnName, ex);
+        }
+        logger.info("Colonne {}.{} remplie: {} ligne(s)", tableName, columnName, updatedRows);
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return tableName + "." + columnName + " remplie par lots de " + batchSize + ": " + updatedRows + " ligne(s)";
+    }
+
+    @Override
+    public void setUp() throws SetupException {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors errors = new ValidationErrors();
+        errors.checkRequiredField("tableName", tableName);
+        errors.checkRequiredField("columnName", columnName);
+        errors.checkRequiredField("valueExpression", valueExpression);
+        if (batchSize <= 0) {
+            errors.addError("batchSize doit être positif");
+        }
+        return errors;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public void setColumnName(String columnName) {
+        this.columnName = columnName;
+    }
+
+    public void setValueExpression(String valueExpression) {
+        this.valueExpression = valueExpression;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.clientapi.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Suivi du cycle de vie des connexions JDBC : attente pour obtenir une connexion,
+ * durée de détention par endpoint, détentions anormalement longues et connexions
+ * encore détenues au moment de sérialiser une réponse.
+ */
+@Component
+public class ConnectionLifecycleMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionLifecycleMonitor.class);
+
+    // Connexion obtenue pendant la chaîne de filtres, avant la résolution du contrôleur
+    private static final String FILTER_ENDPOINT = "filter";
+    // Connexion obtenue hors requête HTTP (tâches de fond, démarrage)
+    private static final String BACKGROUND_ENDPOINT = "background";
+
+    private final MeterRegistry meterRegistry;
+    private final long leakThresholdNanos;
+
+    private final ThreadLocal<AtomicInteger> heldByThread = ThreadLocal.withInitial(AtomicInteger::new);
+
+    private final Map<String, Timer> waitTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> holdTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> leakCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> serializationCounters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConnectionLifecycleMonitor(MeterRegistry meterRegistry,
+                                      @Value("${app.db.connection-leak-threshold:10s}") Duration leakThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.leakThresholdNanos = leakThreshold.toNanos();
+    }
+
+    /**
+     * Enregistre l'obtention d'une connexion par le thread courant.
+     *
+     * @return le suivi de la connexion, à clore avec {@link #released}
+     */
+    Lease acquired(String pool, long waitNanos) {
+        String endpoint = currentEndpoint();
+        timer(waitTimers, "db.connection.wait", "Attente pour obtenir une connexion du pool", pool, endpoint)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+
+        AtomicInteger held = heldByThread.get();
+        held.incrementAndGet();
+        return new Lease(pool, endpoint, System.nanoTime(), held);
+    }
+
+    void released(Lease lease) {
+        lease.held.decrementAndGet();
+        long holdNanos = System.nanoTime() - lease.acquiredAt;
+        timer(holdTimers, "db.connection.hold", "Durée de détention d'une connexion", lease.pool, lease.endpoint)
+                .record(holdNanos, TimeUnit.NANOSECONDS);
+
+        if (holdNanos >= leakThresholdNanos) {
+            leakCounters.computeIfAbsent(lease.pool + '|' + lease.endpoint, key -> Counter.builder("db.connection.leaks")
+                            .description("Connexions détenues au-delà du seuil de fuite")
+                            .tag("pool", lease.pool)
+                            .tag("endpoint", lease.endpoint)
+                            .register(meterRegistry))
+                    .increment();
+            logger.warn("Connexion du pool {} détenue {} ms par {} (seuil: {} ms)", lease.pool,
+                    TimeUnit.NANOSECONDS.toMillis(holdNanos), lease.endpoint,
+                    TimeUnit.NANOSECONDS.toMillis(leakThresholdNanos));
+        }
+    }
+
+    /**
+     * Nombre de connexions actuellement détenues par le thread courant.
+     */
+    public int heldByCurrentThread() {
+        return heldByThread.get().get();
+    }
+
+    /**
+     * Vérifie, au moment de sérialiser une réponse, que le thread courant ne détient plus de connexion.
+     *
+     * @return true si aucune connexion n'est détenue
+     */
+    public boolean checkReleasedBeforeSerialization() {
+        boolean released = heldByCurrentThread() == 0;
+        String endpoint = currentEndpoint();
+        String outcome = released ? "released" : "held";
+        serializationCounters.computeIfAbsent(endpoint + '|' + outcome, key -> Counter.builder("db.connection.serialization")
+                        .description("Connexions libérées ou encore détenues au début de la sérialisation des réponses")
+                        .tag("endpoint", endpoint)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+        if (!released) {
+            logger.warn("Connexion encore détenue pendant la sérialisation de la réponse de {}", endpoint);
+        }
+        return released;
+    }
+
+    private Timer timer(Map<String, Timer> timers, String name, String description, String pool, String endpoint) {
+        return timers.computeIfAbsent(pool + '|' + endpoint, key -> Timer.builder(name)
+                .description(description)
+                .tag("pool", pool)
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * Endpoint de la requête courante sous la forme "METHODE /motif/{variable}".
+     */
+    static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return BACKGROUND_ENDPOINT;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? request.getMethod() + " " + pattern : FILTER_ENDPOINT;
+    }
+
+    /**
+     * Détention d'une connexion par un thread.
+     */
+    static final class Lease {
+        private final String pool;
+        private final String endpoint;
+        private final long acquiredAt;
+        private final AtomicInteger held;
+
+        private Lease(String pool, String endpoint, long acquiredAt, AtomicInteger held) {
+            this.pool = pool;
+            this.endpoint = endpoint;
+            this.acquiredAt = acquiredAt;
+            this.held = held;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.clientapi.monitoring;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Vérifie, juste avant la sérialisation de chaque réponse, que la requête ne détient plus de connexion.
+ */
+@ControllerAdvice
+public class ConnectionReleaseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ConnectionLifecycleMonitor connectionLifecycleMonitor;
+
+    public ConnectionReleaseAdvice(ConnectionLifecycleMonitor connectionLifecycleMonitor) {
+        this.connectionLifecycleMonitor = connectionLifecycleMonitor;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        connectionLifecycleMonitor.checkReleasedBeforeSerialization();
+        return body;
+    }
+}
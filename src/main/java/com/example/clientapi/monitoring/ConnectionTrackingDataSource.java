@@ -0,0 +1,76 @@
+package com.example.clientapi.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Enveloppe d'un pool Hikari mesurant l'attente et la durée de détention de chaque connexion,
+ * et exposant le taux de saturation du pool.
+ */
+public class ConnectionTrackingDataSource extends DelegatingDataSource {
+
+    private final String poolName;
+    private final ObjectProvider<ConnectionLifecycleMonitor> monitorProvider;
+
+    public ConnectionTrackingDataSource(HikariDataSource target, String poolName,
+                                        ObjectProvider<ConnectionLifecycleMonitor> monitorProvider,
+                                        MeterRegistry meterRegistry) {
+        super(target);
+        this.poolName = poolName;
+        this.monitorProvider = monitorProvider;
+
+        Gauge.builder("db.pool.saturation", target, ConnectionTrackingDataSource::saturation)
+                .description("Part des connexions du pool en cours d'utilisation (0 à 1)")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        return track(super.getConnection(), System.nanoTime() - start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        return track(super.getConnection(username, password), System.nanoTime() - start);
+    }
+
+    private Connection track(Connection connection, long waitNanos) {
+        ConnectionLifecycleMonitor monitor = monitorProvider.getIfAvailable();
+        if (monitor == null) {
+            return connection;
+        }
+        ConnectionLifecycleMonitor.Lease lease = monitor.acquired(poolName, waitNanos);
+        AtomicBoolean closed = new AtomicBoolean();
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                        monitor.released(lease);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+
+    private static double saturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        int maximum = dataSource.getMaximumPoolSize();
+        return pool == null || maximum <= 0 ? 0 : (double) pool.getActiveConnections() / maximum;
+    }
+}
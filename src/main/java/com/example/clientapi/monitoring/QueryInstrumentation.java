@@ -0,0 +1,263 @@
+package com.example.clientapi.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Instrumentation des accès à la base, par méthode de repository et par forme de requête SQL.
+ *
+ * Les méthodes de repository sont chronométrées par {@link RepositoryMethodInterceptor},
+ * chaque requête JDBC par {@link QueryStatementInspector} et {@link QueryTimingSessionListener}.
+ * Les requêtes plus lentes que le seuil configuré sont conservées dans un tampon circulaire borné.
+ */
+@Component
+public class QueryInstrumentation {
+
+    // Nombre maximal de formes SQL distinctes suivies ; au-delà, elles sont regroupées sous "other"
+    private static final int MAX_SHAPES = 500;
+    // Nombre de textes SQL bruts dont la forme reste mémorisée (une forme a un texte par taille de liste IN)
+    private static final int MAX_SQL_TEXTS = 2_000;
+    private static final String NO_REPOSITORY_METHOD = "none";
+
+    // Les écouteurs de session sont instanciés par Hibernate, hors du contexte Spring
+    private static volatile QueryInstrumentation instance;
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final AtomicReferenceArray<SlowQuery> slowQueries;
+    private final AtomicLong slowQueryCount = new AtomicLong();
+
+    private final ThreadLocal<Invocation> currentInvocation = new ThreadLocal<>();
+    private final ThreadLocal<SqlShape> preparedShape = new ThreadLocal<>();
+    private final ThreadLocal<long[]> executedStatements = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Set<String> fingerprints = ConcurrentHashMap.newKeySet();
+    private final Map<String, SqlShape> shapesBySql = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SqlShape> eldest) {
+                    return size() > MAX_SQL_TEXTS;
+                }
+            });
+    private final Map<String, Timer> invocationTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> rowSummaries = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> statementSummaries = new ConcurrentHashMap<>();
+    private final Map<String, Timer> statementTimers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public QueryInstrumentation(MeterRegistry meterRegistry,
+                                @Value("${app.db.slow-query-threshold:200ms}") Duration slowThreshold,
+                                @Value("${app.db.slow-query-buffer-size:100}") int bufferSize) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowQueries = new AtomicReferenceArray<>(bufferSize);
+        instance = this;
+    }
+
+    static Optional<QueryInstrumentation> current() {
+        return Optional.ofNullable(instance);
+    }
+
+    @PreDestroy
+    void release() {
+        if (instance == this) {
+            instance = null;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Méthodes de repository
+    // -------------------------------------------------------------------------
+
+    /**
+     * Démarre le suivi d'une méthode de repository.
+     * Un appel imbriqué (méthode par défaut appelant une autre méthode) reste attribué à l'appel externe.
+     *
+     * @return l'invocation démarrée, ou {@code null} si une invocation est déjà en cours
+     */
+    Invocation beginInvocation(String repositoryMethod) {
+        if (currentInvocation.get() != null) {
+            return null;
+        }
+        Invocation invocation = new Invocation(repositoryMethod, System.nanoTime());
+        currentInvocation.set(invocation);
+        return invocation;
+    }
+
+    void endInvocation(Invocation invocation, long rows, boolean failed) {
+        currentInvocation.remove();
+        long duration = System.nanoTime() - invocation.startNanos;
+        String method = invocation.repositoryMethod;
+
+        invocationTimers.computeIfAbsent(method + (failed ? "|error" : "|success"), key -> Timer.builder("db.repository.invocations")
+                        .description("Durée des appels de méthodes de repository")
+                        .tag("method", method)
+                        .tag("outcome", failed ? "error" : "success")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(duration, TimeUnit.NANOSECONDS);
+
+        statementSummaries.computeIfAbsent(method, key -> DistributionSummary.builder("db.repository.statements")
+                        .description("Nombre de requêtes SQL émises par appel de méthode de repository")
+                        .tag("method", method)
+                        .register(meterRegistry))
+                .record(invocation.statements);
+
+        if (rows >= 0) {
+            rowSummaries.computeIfAbsent(method, key -> DistributionSummary.builder("db.repository.rows")
+                            .description("Nombre de lignes retournées ou modifiées par appel de méthode de repository")
+                            .tag("method", method)
+                            .register(meterRegistry))
+                    .record(rows);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Requêtes SQL
+    // -------------------------------------------------------------------------
+
+    /**
+     * Mémorise la requête sur le point d'être exécutée par le thread courant.
+     */
+    void statementPrepared(String sql) {
+        SqlShape shape = shapesBySql.get(sql);
+        if (shape == null) {
+            shape = tracked(SqlShape.of(sql));
+            shapesBySql.put(sql, shape);
+        }
+        preparedShape.set(shape);
+    }
+
+    /**
+     * Plafonne le nombre de formes distinctes, donc de séries de métriques, et non le nombre de textes
+     * SQL bruts : les variantes d'une même forme (tailles de liste IN) ne consomment pas le plafond.
+     */
+    private SqlShape tracked(SqlShape shape) {
+        String fingerprint = shape.fingerprint();
+        if (!fingerprints.contains(fingerprint)) {
+            if (fingerprints.size() >= MAX_SHAPES) {
+                return SqlShape.OTHER;
+            }
+            fingerprints.add(fingerprint);
+        }
+        return shape;
+    }
+
+    /**
+     * Enregistre la durée d'exécution de la dernière requête préparée par le thread courant.
+     */
+    void statementExecuted(long durationNanos) {
+        SqlShape shape = preparedShape.get();
+        if (shape == null) {
+            shape = SqlShape.OTHER;
+        }
+        executedStatements.get()[0]++;
+        Invocation invocation = currentInvocation.get();
+        String method = invocation != null ? invocation.repositoryMethod : NO_REPOSITORY_METHOD;
+        if (invocation != null) {
+            invocation.statements++;
+        }
+
+        SqlShape recordedShape = shape;
+        statementTimers.computeIfAbsent(method + '|' + shape.fingerprint(), key -> Timer.builder("db.statement.duration")
+                        .description("Durée d'exécution des requêtes SQL par forme de requête")
+                        .tag("method", method)
+                        .tag("shape", recordedShape.fingerprint())
+                        .tag("operation", recordedShape.operation())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        if (durationNanos >= slowThresholdNanos) {
+            recordSlowQuery(new SlowQuery(Instant.now(), TimeUnit.NANOSECONDS.toMillis(durationNanos), method,
+                    shape.fingerprint(), shape.sql(), shape.parameterCount(), shape.inListSizes(),
+                    Thread.currentThread().getName()));
+        }
+    }
+
+    /**
+     * Nombre de requêtes SQL exécutées jusqu'ici par le thread courant : la différence entre deux
+     * lectures donne le nombre de requêtes réellement émises par un traitement (un lot JDBC compte pour une).
+     */
+    public long executedStatements() {
+        return executedStatements.get()[0];
+    }
+
+    private void recordSlowQuery(SlowQuery slowQuery) {
+        long index = slowQueryCount.getAndIncrement();
+        slowQueries.set((int) (index % slowQueries.length()), slowQuery);
+    }
+
+    // -------------------------------------------------------------------------
+    // Lecture des requêtes lentes
+    // -------------------------------------------------------------------------
+
+    /**
+     * Requêtes lentes conservées, de la plus récente à la plus ancienne.
+     */
+    public List<SlowQuery> slowQueries() {
+        long count = slowQueryCount.get();
+        int capacity = slowQueries.length();
+        int size = (int) Math.min(count, capacity);
+        List<SlowQuery> result = new ArrayList<>(size);
+        for (long index = count - 1; index >= count - size; index--) {
+            SlowQuery slowQuery = slowQueries.get((int) (index % capacity));
+            if (slowQuery != null) {
+                result.add(slowQuery);
+            }
+        }
+        return result;
+    }
+
+    public long slowQueryCount() {
+        return slowQueryCount.get();
+    }
+
+    public long slowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    public int slowQueryCapacity() {
+        return slowQueries.length();
+    }
+
+    /**
+     * Appel de méthode de repository en cours sur un thread.
+     */
+    static final class Invocation {
+        private final String repositoryMethod;
+        private final long startNanos;
+        private int statements;
+
+        private Invocation(String repositoryMethod, long startNanos) {
+            this.repositoryMethod = repositoryMethod;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * Requête lente : forme de la requête et des paramètres, jamais leurs valeurs.
+     */
+    public record SlowQuery(Instant timestamp, long durationMs, String repositoryMethod, String shape,
+                            String sql, int parameterCount, List<Integer> inListSizes, String thread) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.clientapi.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Mémorise chaque requête SQL préparée par Hibernate afin d'attribuer sa durée d'exécution
+ * à sa forme. La requête n'est pas modifiée.
+ */
+public class QueryStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryInstrumentation.current().ifPresent(instrumentation -> instrumentation.statementPrepared(sql));
+        return sql;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.clientapi.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Chronomètre les exécutions JDBC d'une session Hibernate.
+ *
+ * Instancié par Hibernate pour chaque session (propriété {@code hibernate.session.events.auto}),
+ * donc utilisé par un seul thread à la fois.
+ */
+public class QueryTimingSessionListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(System.nanoTime() - batchStart);
+    }
+
+    private void record(long durationNanos) {
+        QueryInstrumentation.current().ifPresent(instrumentation -> instrumentation.statementExecuted(durationNanos));
+    }
+}
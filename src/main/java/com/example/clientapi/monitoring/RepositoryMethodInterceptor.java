@@ -0,0 +1,83 @@
+package com.example.clientapi.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+
+/**
+ * Intercepteur ajouté aux proxys des repositories Spring Data : chronomètre chaque méthode
+ * et compte les lignes retournées (ou modifiées pour les requêtes de mise à jour).
+ */
+public class RepositoryMethodInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+    private final ObjectProvider<QueryInstrumentation> instrumentationProvider;
+    private final Map<Method, String> methodNames = new ConcurrentHashMap<>();
+
+    public RepositoryMethodInterceptor(String repositoryName, ObjectProvider<QueryInstrumentation> instrumentationProvider) {
+        this.repositoryName = repositoryName;
+        this.instrumentationProvider = instrumentationProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        QueryInstrumentation instrumentation = instrumentationProvider.getIfAvailable();
+        if (instrumentation == null) {
+            return invocation.proceed();
+        }
+
+        String methodName = methodNames.computeIfAbsent(invocation.getMethod(),
+                method -> repositoryName + "." + method.getName());
+        QueryInstrumentation.Invocation tracked = instrumentation.beginInvocation(methodName);
+        if (tracked == null) {
+            return invocation.proceed();
+        }
+
+        boolean failed = true;
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            instrumentation.endInvocation(tracked, failed ? -1 : rowCount(result), failed);
+        }
+    }
+
+    /**
+     * Nombre de lignes représentées par le résultat, ou -1 s'il n'est pas mesurable (flux, etc.).
+     */
+    private static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Integer affected) {
+            // Requêtes de mise à jour : nombre de lignes modifiées
+            return affected;
+        }
+        if (result instanceof Number || result instanceof Boolean) {
+            return 1;
+        }
+        if (result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.clientapi.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps de démarrage consacré au schéma : migrations Liquibase et initialisation JPA
+ * (construction du métamodèle et validation du schéma par Hibernate).
+ *
+ * Les durées sont mesurées autour de l'initialisation des beans correspondants
+ * (voir {@link com.example.clientapi.config.SchemaStartupConfig}), puis exposées une fois
+ * l'application prête dans la jauge {@code startup.schema.duration{phase}}.
+ *
+ * Sur PostgreSQL, les index invalides sont signalés au même moment : un CREATE INDEX CONCURRENTLY
+ * interrompu laisse un index inutilisé que la migration, marquée comme passée, ne reconstruira pas.
+ */
+public class SchemaStartupMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaStartupMonitor.class);
+
+    public static final String MIGRATIONS_PHASE = "migrations";
+    public static final String JPA_PHASE = "jpa";
+
+    private static final String INVALID_INDEXES =
+            "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+            "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE NOT i.indisvalid AND n.nspname = current_schema()";
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final ObjectProvider<DataSource> dataSourceProvider;
+
+    // Début puis durée de chaque phase, en nanosecondes (renseignés pendant le démarrage, thread principal)
+    private final Map<String, Long> startedAt = new LinkedHashMap<>();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    public SchemaStartupMonitor(ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                ObjectProvider<DataSource> dataSourceProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.dataSourceProvider = dataSourceProvider;
+    }
+
+    public synchronized void started(String phase) {
+        startedAt.put(phase, System.nanoTime());
+    }
+
+    public synchronized void finished(String phase) {
+        Long start = startedAt.remove(phase);
+        if (start != null) {
+            durations.merge(phase, System.nanoTime() - start, Long::sum);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onApplicationReady() {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        durations.forEach((phase, nanos) -> {
+            if (meterRegistry != null) {
+                TimeGauge.builder("startup.schema.duration", () -> nanos, TimeUnit.NANOSECONDS)
+                        .description("Temps de démarrage consacré au schéma (migrations, initialisation JPA)")
+                        .tag("phase", phase)
+                        .register(meterRegistry);
+            }
+        });
+        logger.info("Schéma au démarrage: migrations {} ms, initialisation JPA (validation comprise) {} ms",
+                TimeUnit.NANOSECONDS.toMillis(durations.getOrDefault(MIGRATIONS_PHASE, 0L)),
+                TimeUnit.NANOSECONDS.toMillis(durations.getOrDefault(JPA_PHASE, 0L)));
+
+        reportInvalidIndexes();
+    }
+
+    private void reportInvalidIndexes() {
+        DataSource dataSource = dataSourceProvider.getIfAvailable();
+        if (dataSource == null) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+            List<String> invalid = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet indexes = statement.executeQuery(INVALID_INDEXES)) {
+                while (indexes.next()) {
+                    invalid.add(indexes.getString(1));
+                }
+            }
+            if (!invalid.isEmpty()) {
+                logger.error("Index invalides (création CONCURRENTLY interrompue), à supprimer puis recréer: {}",
+                        invalid);
+            }
+        } catch (SQLException ex) {
+            logger.warn("Vérification des index invalides impossible", ex);
+        }
+    }
+}
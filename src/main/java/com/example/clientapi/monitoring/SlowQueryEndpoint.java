@@ -0,0 +1,33 @@
+package com.example.clientapi.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint actuator {@code /actuator/slowqueries} : dernières requêtes SQL plus lentes que le seuil,
+ * avec la méthode de repository appelante et la forme des paramètres (jamais leurs valeurs).
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final QueryInstrumentation queryInstrumentation;
+
+    public SlowQueryEndpoint(QueryInstrumentation queryInstrumentation) {
+        this.queryInstrumentation = queryInstrumentation;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("thresholdMs", queryInstrumentation.slowThresholdMillis());
+        result.put("capacity", queryInstrumentation.slowQueryCapacity());
+        result.put("totalRecorded", queryInstrumentation.slowQueryCount());
+        result.put("queries", queryInstrumentation.slowQueries());
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.clientapi.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Forme d'une requête SQL : texte normalisé, listes IN repliées, nombre et répartition des paramètres.
+ *
+ * Deux requêtes qui ne diffèrent que par la taille d'une liste IN partagent la même forme.
+ */
+record SqlShape(String fingerprint, String operation, String sql, int parameterCount, List<Integer> inListSizes) {
+
+    static final SqlShape OTHER = new SqlShape("other", "other", "", 0, List.of());
+
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    static SqlShape of(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+
+        List<Integer> inListSizes = new ArrayList<>();
+        Matcher matcher = IN_LIST.matcher(collapsed);
+        StringBuilder normalized = new StringBuilder();
+        while (matcher.find()) {
+            inListSizes.add(countParameters(matcher.group()));
+            matcher.appendReplacement(normalized, "in (?...)");
+        }
+        matcher.appendTail(normalized);
+
+        String text = normalized.toString();
+        int space = text.indexOf(' ');
+        String operation = (space > 0 ? text.substring(0, space) : text).toLowerCase(Locale.ROOT);
+
+        return new SqlShape(Integer.toHexString(text.hashCode()), operation, text,
+                countParameters(collapsed), List.copyOf(inListSizes));
+    }
+
+    private static int countParameters(String sql) {
+        int count = 0;
+        boolean inLiteral = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            } else if (c == '?' && !inLiteral) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.clientapi.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Ajoute les événements, un par ligne (NDJSON), à un fichier quotidien du répertoire configuré.
+ * Le fichier est synchronisé sur disque avant que le lot soit considéré comme publié.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sinks.file.enabled", havingValue = "true")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+
+    public FileOutboxSink(ObjectMapper objectMapper,
+                          @Value("${app.outbox.sinks.file.directory:outbox}") Path directory) {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void publish(List<UserLifecycleEvent> events) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("user-events-" + LocalDate.now() + ".ndjson");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            OutputStream output = Channels.newOutputStream(channel);
+            for (UserLifecycleEvent event : events) {
+                output.write(objectMapper.writeValueAsBytes(event));
+                output.write('\n');
+            }
+            output.flush();
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.clientapi.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publie les événements comme événements applicatifs Spring, pour les écouteurs
+ * {@code @EventListener(UserLifecycleEvent.class)} de l'application.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sinks.in-process.enabled", havingValue = "true", matchIfMissing = true)
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public InProcessOutboxSink(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void publish(List<UserLifecycleEvent> events) {
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+}
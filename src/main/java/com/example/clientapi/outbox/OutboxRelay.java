@@ -0,0 +1,250 @@
+package com.example.clientapi.outbox;
+
+import com.example.clientapi.entity.OutboxEvent;
+import com.example.clientapi.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relais de l'outbox : publie par lots les événements en attente sur tous les puits configurés.
+ *
+ * Chaque lot passe par trois étapes, sans transaction ouverte pendant les appels aux puits :
+ * réservation (transaction courte), publication, puis enregistrement du résultat (transaction courte).
+ *
+ * Garanties :
+ * - ordre par utilisateur : un événement n'est publié que si tous les événements antérieurs
+ *   du même utilisateur l'ont été ; un échec bloque les suivants jusqu'à sa republication ;
+ * - livraison suivie par puits : une nouvelle tentative ne concerne que les puits en échec ;
+ * - nouvelles tentatives avec attente exponentielle bornée, sans abandon ;
+ * - sur PostgreSQL, un verrou consultatif sérialise les réservations ; la réservation, d'une durée
+ *   {@code app.outbox.claim-timeout}, empêche une autre instance de reprendre un lot en cours.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    // Clé du verrou consultatif PostgreSQL du relais
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retryBaseDelay;
+    private final Duration retryMaxDelay;
+    private final Duration retention;
+    private final Duration claimTimeout;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryDelay;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    // Support du verrou consultatif, déterminé à partir du dialecte au premier passage
+    private volatile Boolean advisoryLockSupported;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.max-batches-per-run:10}") int maxBatchesPerRun,
+                       @Value("${app.outbox.retry-base-delay:1s}") Duration retryBaseDelay,
+                       @Value("${app.outbox.retry-max-delay:5m}") Duration retryMaxDelay,
+                       @Value("${app.outbox.retention:7d}") Duration retention,
+                       @Value("${app.outbox.claim-timeout:1m}") Duration claimTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retryBaseDelay = retryBaseDelay;
+        this.retryMaxDelay = retryMaxDelay;
+        this.retention = retention;
+        this.claimTimeout = claimTimeout;
+
+        this.publishedCounter = Counter.builder("outbox.events.published")
+                .description("Événements publiés sur tous les puits")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.events.failed")
+                .description("Tentatives de publication d'événements en échec")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.batch.duration")
+                .description("Durée de publication d'un lot sur tous les puits")
+                .register(meterRegistry);
+        this.deliveryDelay = Timer.builder("outbox.delivery.delay")
+                .description("Délai entre l'écriture d'un événement et sa publication")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("outbox.events.pending", pending, AtomicLong::get)
+                .description("Événements en attente de publication")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Âge du plus ancien événement non publié")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        logger.info("Relais de l'outbox démarré avec les puits: {}", sinks.stream().map(OutboxSink::name).toList());
+    }
+
+    /**
+     * Publie les lots disponibles, au plus {@code maxBatchesPerRun} par passage.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1s}")
+    public void run() {
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<OutboxEvent> claimed = transactionTemplate.execute(status -> claimBatch());
+                if (claimed == null || claimed.isEmpty()) {
+                    break;
+                }
+                publishBatch(claimed);
+                if (claimed.size() < batchSize) {
+                    break;
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+                refreshBacklogMetrics();
+            });
+        } catch (RuntimeException ex) {
+            logger.error("Échec du passage du relais de l'outbox", ex);
+        }
+    }
+
+    /**
+     * Réserve un lot d'événements publiables, dans la transaction courante.
+     *
+     * @return les événements réservés, dans l'ordre de publication
+     */
+    List<OutboxEvent> claimBatch() {
+        if (isAdvisoryLockSupported() && !outboxEventRepository.tryAdvisoryTransactionLock(RELAY_LOCK_KEY)) {
+            // Une autre instance réserve un lot
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.findPublishable(now, PageRequest.of(0, batchSize));
+        LocalDateTime leaseUntil = now.plus(claimTimeout);
+        batch.forEach(event -> event.claim(leaseUntil));
+        return batch;
+    }
+
+    /**
+     * Publie un lot réservé, hors transaction, sur chaque puits qui ne l'a pas encore reçu,
+     * puis enregistre le résultat. L'échec d'un puits n'empêche pas la livraison aux autres.
+     */
+    void publishBatch(List<OutboxEvent> batch) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        Timer.Sample sample = Timer.start();
+        for (OutboxSink sink : sinks) {
+            List<OutboxEvent> undelivered = batch.stream().filter(event -> !event.isDeliveredTo(sink.name())).toList();
+            if (undelivered.isEmpty()) {
+                continue;
+            }
+            try {
+                sink.publish(undelivered.stream().map(UserLifecycleEvent::from).toList());
+                undelivered.forEach(event -> event.markDelivered(sink.name()));
+            } catch (Exception ex) {
+                failures.put(sink.name(), ex.getMessage());
+                logger.warn("Échec de publication de {} événement(s) sur le puits {} : {}",
+                        undelivered.size(), sink.name(), ex.getMessage());
+            }
+        }
+        sample.stop(batchTimer);
+
+        transactionTemplate.executeWithoutResult(status -> recordOutcome(batch, failures));
+    }
+
+    /**
+     * Reporte sur les événements en base les livraisons du lot : publiés s'ils ont atteint tous les puits,
+     * sinon nouvelle tentative différée pour les puits restants.
+     */
+    private void recordOutcome(List<OutboxEvent> batch, Map<String, String> failures) {
+        List<String> sinkNames = sinks.stream().map(OutboxSink::name).toList();
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        Map<Long, OutboxEvent> managed = outboxEventRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(OutboxEvent::getId, Function.identity()));
+        String error = failures.entrySet().stream()
+                .map(failure -> failure.getKey() + ": " + failure.getValue())
+                .collect(Collectors.joining("; "));
+
+        LocalDateTime now = LocalDateTime.now();
+        int published = 0;
+        int failed = 0;
+        for (OutboxEvent delivered : batch) {
+            OutboxEvent event = managed.get(delivered.getId());
+            if (event == null || event.getPublishedAt() != null) {
+                continue;
+            }
+            sinkNames.stream().filter(delivered::isDeliveredTo).forEach(event::markDelivered);
+            if (event.isDeliveredToAll(sinkNames)) {
+                event.markPublished(now);
+                deliveryDelay.record(Duration.between(event.getCreatedAt(), now).toMillis(), TimeUnit.MILLISECONDS);
+                published++;
+            } else {
+                event.markFailed(error, now.plus(backoff(event.getAttempts() + 1)));
+                failed++;
+            }
+        }
+        publishedCounter.increment(published);
+        failedCounter.increment(failed);
+        logger.debug("{} événement(s) de l'outbox publiés, {} en échec", published, failed);
+    }
+
+    /**
+     * Attente avant la tentative donnée : base * 2^(tentative - 1), bornée.
+     */
+    private Duration backoff(int attempt) {
+        Duration delay = retryBaseDelay.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(retryMaxDelay) > 0 ? retryMaxDelay : delay;
+    }
+
+    private void refreshBacklogMetrics() {
+        pending.set(outboxEventRepository.countPending());
+        lagMillis.set(outboxEventRepository.findOldestPendingCreatedAt()
+                .map(oldest -> Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()))
+                .orElse(0L));
+    }
+
+    private boolean isAdvisoryLockSupported() {
+        if (advisoryLockSupported == null) {
+            advisoryLockSupported = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect;
+        }
+        return advisoryLockSupported;
+    }
+}
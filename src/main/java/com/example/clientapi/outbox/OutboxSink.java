@@ -0,0 +1,24 @@
+package com.example.clientapi.outbox;
+
+import java.util.List;
+
+/**
+ * Destination des événements publiés par le relais de l'outbox.
+ *
+ * Un lot est publié sur chaque puits indépendamment ; en cas d'échec, il n'est représenté plus tard
+ * qu'aux puits qui ne l'ont pas reçu. Un arrêt entre la publication et son enregistrement, ou une
+ * publication plus longue que la réservation du lot, peut toutefois produire des doublons :
+ * une implémentation doit les tolérer.
+ */
+public interface OutboxSink {
+
+    /**
+     * Nom du puits, utilisé dans les métriques et les logs.
+     */
+    String name();
+
+    /**
+     * Publie un lot d'événements, dans l'ordre. Une exception signale l'échec du lot entier.
+     */
+    void publish(List<UserLifecycleEvent> events) throws Exception;
+}
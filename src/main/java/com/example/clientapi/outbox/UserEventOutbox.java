@@ -0,0 +1,52 @@
+package com.example.clientapi.outbox;
+
+import com.example.clientapi.config.RecentWriteTracker;
+import com.example.clientapi.entity.OutboxEvent;
+import com.example.clientapi.entity.UserEventType;
+import com.example.clientapi.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Écrit les événements du cycle de vie des utilisateurs dans l'outbox.
+ *
+ * L'écriture rejoint obligatoirement la transaction de la modification : l'événement
+ * existe si et seulement si la modification est validée. La validation place aussi l'auteur
+ * de la modification dans les fenêtres de lecture de ses propres écritures ({@link RecentWriteTracker}).
+ */
+@Service
+public class UserEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final RecentWriteTracker recentWriteTracker;
+
+    public UserEventOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                           RecentWriteTracker recentWriteTracker) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.recentWriteTracker = recentWriteTracker;
+    }
+
+    /**
+     * Enregistre un événement pour l'utilisateur donné.
+     *
+     * @param data état de l'utilisateur ou attributs modifiés, sérialisés en JSON (jamais le mot de passe)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(UserEventType type, Long userId, Object data) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Impossible de sérialiser l'événement " + type, ex);
+        }
+        outboxEventRepository.save(new OutboxEvent(userId, type, payload, LocalDateTime.now()));
+        recentWriteTracker.markWriteAfterCommit(RecentWriteTracker.currentSubject());
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.clientapi.outbox;
+
+import com.example.clientapi.entity.OutboxEvent;
+import com.example.clientapi.entity.UserEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement du cycle de vie d'un utilisateur tel que transmis aux puits.
+ *
+ * La livraison est « au moins une fois » : un consommateur déduplique sur {@code eventId}.
+ *
+ * @param payload état de l'utilisateur (ou attributs modifiés) sérialisé en JSON
+ */
+public record UserLifecycleEvent(Long eventId, UserEventType type, Long userId,
+                                 LocalDateTime occurredAt, String payload) {
+
+    static UserLifecycleEvent from(OutboxEvent event) {
+        return new UserLifecycleEvent(event.getId(), event.getEventType(), event.getAggregateId(),
+                event.getCreatedAt(), event.getPayload());
+    }
+}
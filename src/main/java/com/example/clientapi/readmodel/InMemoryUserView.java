@@ -0,0 +1,304 @@
+package com.example.clientapi.readmodel;
+
+import com.example.clientapi.dto.UserChangesDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.repository.UserRepository;
+import com.example.clientapi.service.UserChangeFeedService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Base des vues en mémoire de l'annuaire des utilisateurs.
+ *
+ * La vue est chargée au démarrage par un parcours en flux de la table, puis tenue à jour en suivant
+ * le flux de modifications ({@link UserChangeFeedService}) : chaque instance garde son propre curseur
+ * et voit donc toutes les écritures, y compris celles des autres instances et les mises à jour en masse.
+ * Elle est cohérente à terme, avec le délai de sécurité du flux plus l'intervalle de synchronisation.
+ *
+ * Une vue dont la dernière synchronisation réussie remonte à plus de {@code maxStaleness} n'est plus
+ * prête : les lectures repassent par la base jusqu'à la synchronisation suivante.
+ *
+ * Toutes les écritures (chargement et synchronisations) sont faites par un unique thread ;
+ * les lectures sont concurrentes sous un verrou partagé.
+ *
+ * @param <S> état de la vue, non thread-safe, protégé par le verrou
+ */
+public abstract class InMemoryUserView<S> {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryUserView.class);
+
+    private final String name;
+    private final UserRepository userRepository;
+    private final UserChangeFeedService changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+    private final long maxStalenessNanos;
+    private final Timer loadTimer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService writer;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // État courant, remplacé en bloc à chaque chargement complet (protégé par le verrou)
+    private S state;
+    private volatile boolean ready;
+    // Fin de la dernière synchronisation réussie (System.nanoTime)
+    private volatile long syncedAtNanos;
+
+    // Position dans le flux de modifications (thread d'écriture uniquement)
+    private String cursor;
+
+    // Travail en attente du thread d'écriture (protégé par synchronized)
+    private boolean reloadRequested;
+    private boolean syncRequested;
+    private boolean drainScheduled;
+
+    /**
+     * @param name         nom de la vue dans les journaux
+     * @param metricPrefix préfixe des métriques (durée de chargement : {@code <prefix>.load})
+     * @param maxStaleness âge maximal de la dernière synchronisation réussie pour servir les lectures
+     */
+    protected InMemoryUserView(String name, String metricPrefix, UserRepository userRepository,
+                               UserChangeFeedService changeFeedService, PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry, int fetchSize, Duration maxStaleness) {
+        this.name = name;
+        this.userRepository = userRepository;
+        this.changeFeedService = changeFeedService;
+        // Lectures en transaction d'écriture, donc sur la primaire : un réplica en retard
+        // ferait avancer le curseur au-delà de lignes qu'il n'a pas encore reçues
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fetchSize = fetchSize;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.loadTimer = Timer.builder(metricPrefix + ".load")
+                .description("Durée du chargement complet de la vue en mémoire")
+                .register(meterRegistry);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, metricPrefix.replace('.', '-').replace('_', '-'));
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Nouvel état vide, dimensionné pour le nombre d'utilisateurs attendu.
+     */
+    protected abstract S newState(int expectedUsers);
+
+    /**
+     * Ajoute ou remplace l'utilisateur dans l'état.
+     */
+    protected abstract void upsert(S state, User user);
+
+    /**
+     * Retire l'utilisateur de l'état.
+     */
+    protected abstract void remove(S state, long userId);
+
+    /**
+     * Résumé de l'état journalisé après un chargement complet.
+     */
+    protected abstract String describe(S state);
+
+    /**
+     * Appelé sur le nouvel état à la fin d'un chargement complet, avant sa publication.
+     */
+    protected void afterLoad(S state) {
+    }
+
+    /**
+     * Indique si la vue est chargée, synchronisée depuis moins de {@code maxStaleness},
+     * et peut servir les lectures.
+     */
+    public boolean isReady() {
+        return ready && System.nanoTime() - syncedAtNanos <= maxStalenessNanos;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestReload();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+    }
+
+    /**
+     * Demande un rechargement complet, exécuté par le thread d'écriture.
+     */
+    protected synchronized void requestReload() {
+        reloadRequested = true;
+        scheduleDrain();
+    }
+
+    /**
+     * Demande l'application des modifications publiées depuis la dernière synchronisation,
+     * exécutée par le thread d'écriture.
+     */
+    protected synchronized void requestSync() {
+        syncRequested = true;
+        scheduleDrain();
+    }
+
+    /**
+     * Exécute la lecture sous le verrou partagé, ou retourne {@code whenEmpty} avant le premier chargement.
+     */
+    protected <T> T read(Function<S, T> reader, T whenEmpty) {
+        lock.readLock().lock();
+        try {
+            return state == null ? whenEmpty : reader.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private synchronized void scheduleDrain() {
+        if (!drainScheduled) {
+            drainScheduled = true;
+            writer.execute(this::drain);
+        }
+    }
+
+    /**
+     * Traite le travail en attente jusqu'à épuisement. Un chargement complet repositionne le curseur
+     * du flux et rend inutile une synchronisation en attente.
+     */
+    private void drain() {
+        while (true) {
+            boolean reload;
+            synchronized (this) {
+                reload = reloadRequested;
+                if (!reload && !syncRequested) {
+                    drainScheduled = false;
+                    return;
+                }
+                reloadRequested = false;
+                syncRequested = false;
+            }
+            try {
+                if (reload) {
+                    loadTimer.record(this::load);
+                } else {
+                    sync();
+                }
+            } catch (RuntimeException ex) {
+                // Les lectures repassent par la base jusqu'au prochain chargement réussi
+                ready = false;
+                logger.error("Échec de la mise à jour de la vue {}, lectures servies par la base", name, ex);
+            }
+        }
+    }
+
+    private void load() {
+        logger.info("Chargement de la vue {}", name);
+        S loaded = newState(Math.toIntExact(userRepository.count()));
+        // Les modifications validées pendant le parcours sont rejouées depuis ce curseur
+        String loadedCursor = changeFeedService.cursorBefore(LocalDateTime.now());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<User> users = userRepository.streamByCriteria(null, null, null, fetchSize)) {
+                Iterator<User> iterator = users.iterator();
+                int read = 0;
+                while (iterator.hasNext()) {
+                    upsert(loaded, iterator.next());
+                    // Entités détachées par paquet : seul l'état de la vue reste en mémoire
+                    if (++read % fetchSize == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+        afterLoad(loaded);
+
+        lock.writeLock().lock();
+        try {
+            state = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        cursor = loadedCursor;
+        syncedAtNanos = System.nanoTime();
+        ready = true;
+        logger.info("Vue {} chargée: {}", name, describe(loaded));
+    }
+
+    /**
+     * Applique les modifications publiées par le flux depuis le curseur. Le flux ne sert qu'à désigner
+     * les utilisateurs : leur état courant est relu en base, ce qui rend le traitement idempotent.
+     */
+    private void sync() {
+        if (!ready) {
+            return;
+        }
+        boolean hasMore = true;
+        int changed = 0;
+        while (hasMore) {
+            UserChangesDto changes = transactionTemplate.execute(status -> changeFeedService.getChanges(cursor, null));
+            if (changes == null) {
+                return;
+            }
+            Set<Long> ids = new LinkedHashSet<>();
+            changes.getChanges().forEach(change -> ids.add(change.getId()));
+            if (!ids.isEmpty()) {
+                refresh(List.copyOf(ids));
+                changed += ids.size();
+            }
+            cursor = changes.getNextCursor();
+            hasMore = changes.isHasMore();
+        }
+        syncedAtNanos = System.nanoTime();
+        if (changed > 0) {
+            logger.debug("Vue {} synchronisée pour {} utilisateurs", name, changed);
+        }
+    }
+
+    private void refresh(List<Long> ids) {
+        Map<Long, User> current = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += fetchSize) {
+            List<Long> chunk = ids.subList(start, Math.min(start + fetchSize, ids.size()));
+            List<User> users = transactionTemplate.execute(status -> userRepository.findCurrentByIdIn(chunk));
+            if (users != null) {
+                users.forEach(user -> current.put(user.getId(), user));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                User user = current.get(id);
+                if (user != null) {
+                    upsert(state, user);
+                } else {
+                    remove(state, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
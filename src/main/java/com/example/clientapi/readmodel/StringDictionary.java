@@ -0,0 +1,103 @@
+package com.example.clientapi.readmodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Dictionnaire de chaînes : chaque valeur distincte est stockée une fois et remplacée
+ * dans les colonnes par un code entier. Les codes sont attribués en ajout seul et restent stables.
+ *
+ * Non thread-safe : les accès sont protégés par le verrou du modèle de lecture.
+ */
+final class StringDictionary {
+
+    // Code d'une valeur absente (null)
+    static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    // Rang de chaque code dans l'ordre lexicographique, recalculé quand le dictionnaire grandit
+    private volatile int[] ranks = new int[0];
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        return codes.computeIfAbsent(value, key -> {
+            values.add(key);
+            return values.size() - 1;
+        });
+    }
+
+    String decode(int code) {
+        return code == NULL_CODE ? null : values.get(code);
+    }
+
+    /**
+     * Code de la valeur, ou {@link #NULL_CODE} si elle n'a jamais été rencontrée.
+     */
+    int codeOf(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code == null ? NULL_CODE : code;
+    }
+
+    /**
+     * Codes des valeurs satisfaisant le prédicat.
+     */
+    BitSet codesMatching(Predicate<String> predicate) {
+        BitSet matching = new BitSet(values.size());
+        for (int code = 0; code < values.size(); code++) {
+            if (predicate.test(values.get(code))) {
+                matching.set(code);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Codes des valeurs égales à la valeur donnée sans tenir compte de la casse.
+     */
+    BitSet codesEqualIgnoreCase(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        return codesMatching(candidate -> candidate.toLowerCase(Locale.ROOT).equals(lower));
+    }
+
+    /**
+     * Rangs lexicographiques indexés par code, pour trier sans décoder les valeurs.
+     */
+    int[] ranks() {
+        if (ranks.length != values.size()) {
+            Integer[] order = new Integer[values.size()];
+            Arrays.setAll(order, code -> code);
+            Arrays.sort(order, Comparator.comparing(values::get));
+            int[] computed = new int[order.length];
+            for (int rank = 0; rank < order.length; rank++) {
+                computed[order[rank]] = rank;
+            }
+            ranks = computed;
+        }
+        return ranks;
+    }
+
+    /**
+     * Valeurs transformées indexées par code, pour regrouper sans décoder ligne par ligne.
+     */
+    String[] mapValues(UnaryOperator<String> mapper) {
+        String[] mapped = new String[values.size()];
+        Arrays.setAll(mapped, code -> mapper.apply(values.get(code)));
+        return mapped;
+    }
+
+    int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,409 @@
+package com.example.clientapi.readmodel;
+
+import com.example.clientapi.dto.UserDto;
+import com.example.clientapi.dto.UserFilterDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import com.example.clientapi.repository.UserGeoCount;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Stockage en colonnes des utilisateurs : une ligne par utilisateur, triée par identifiant.
+ *
+ * Identifiants et dates dans des {@code long[]}, énumérations en codes {@code byte},
+ * chaînes répétées (noms, ville, pays, code postal, entreprise) encodées par dictionnaire ;
+ * seules les chaînes quasi uniques (email, téléphone, adresse) sont conservées telles quelles.
+ * Les lignes supprimées sont marquées puis éliminées au prochain rechargement complet.
+ *
+ * Non thread-safe : les accès sont protégés par le verrou du modèle de lecture. Les parcours
+ * sont découpés en segments traités en parallèle (fork/join).
+ */
+final class UserColumns {
+
+    private static final int SEGMENT_SIZE = 8192;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final byte NULL_ENUM = -1;
+
+    private static final UserStatus[] STATUSES = UserStatus.values();
+    private static final UserRole[] ROLES = UserRole.values();
+
+    /**
+     * Propriétés triables en mémoire ; un tri sur une autre propriété est délégué à la base.
+     */
+    static final Set<String> SORTABLE_PROPERTIES = Set.of(
+            "id", "firstName", "lastName", "email", "city", "country", "postalCode", "companyName",
+            "status", "role", "createdAt", "updatedAt");
+
+    private final StringDictionary firstNames = new StringDictionary();
+    private final StringDictionary lastNames = new StringDictionary();
+    private final StringDictionary cities = new StringDictionary();
+    private final StringDictionary countries = new StringDictionary();
+    private final StringDictionary postalCodes = new StringDictionary();
+    private final StringDictionary companies = new StringDictionary();
+
+    private int size;
+    private int deletedCount;
+    private final BitSet deleted = new BitSet();
+
+    private long[] ids;
+    private long[] createdAt;
+    private long[] updatedAt;
+    private byte[] status;
+    private byte[] role;
+    private int[] firstName;
+    private int[] lastName;
+    private int[] city;
+    private int[] country;
+    private int[] postalCode;
+    private int[] companyName;
+    private String[] email;
+    private String[] phone;
+    private String[] address;
+
+    UserColumns(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    /**
+     * Nombre d'utilisateurs présents (lignes supprimées exclues).
+     */
+    int liveRows() {
+        return size - deletedCount;
+    }
+
+    /**
+     * Ajoute ou remplace la ligne de l'utilisateur.
+     */
+    void upsert(User user) {
+        long id = user.getId();
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        if (row < 0) {
+            row = -row - 1;
+            insertAt(row, id);
+        } else if (deleted.get(row)) {
+            deleted.clear(row);
+            deletedCount--;
+        }
+
+        createdAt[row] = encodeTime(user.getCreatedAt());
+        updatedAt[row] = encodeTime(user.getUpdatedAt());
+        status[row] = user.getStatus() == null ? NULL_ENUM : (byte) user.getStatus().ordinal();
+        role[row] = user.getRole() == null ? NULL_ENUM : (byte) user.getRole().ordinal();
+        firstName[row] = firstNames.encode(user.getFirstName());
+        lastName[row] = lastNames.encode(user.getLastName());
+        city[row] = cities.encode(user.getCity());
+        country[row] = countries.encode(user.getCountry());
+        postalCode[row] = postalCodes.encode(user.getPostalCode());
+        companyName[row] = companies.encode(user.getCompanyName());
+        email[row] = user.getEmail();
+        phone[row] = user.getPhone();
+        address[row] = user.getAddress();
+    }
+
+    /**
+     * Marque la ligne de l'utilisateur comme supprimée.
+     */
+    void remove(long id) {
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        if (row >= 0 && !deleted.get(row)) {
+            deleted.set(row);
+            deletedCount++;
+        }
+    }
+
+    /**
+     * Lignes correspondant au filtre, dans l'ordre des identifiants.
+     */
+    int[] matchingRows(UserFilterDto filter) {
+        IntPredicate predicate = compile(filter);
+        return IntStream.range(0, segmentCount())
+                .parallel()
+                .mapToObj(segment -> IntStream.range(segmentStart(segment), segmentEnd(segment))
+                        .filter(predicate)
+                        .toArray())
+                .flatMapToInt(IntStream::of)
+                .toArray();
+    }
+
+    /**
+     * Nombre de lignes correspondant au filtre.
+     */
+    long count(UserFilterDto filter) {
+        IntPredicate predicate = compile(filter);
+        return IntStream.range(0, segmentCount())
+                .parallel()
+                .mapToLong(segment -> IntStream.range(segmentStart(segment), segmentEnd(segment))
+                        .filter(predicate)
+                        .count())
+                .sum();
+    }
+
+    /**
+     * Nombre de lignes par pays, ville (en minuscules) et préfixe de code postal à deux caractères,
+     * avec la même sémantique que {@link com.example.clientapi.repository.UserRepositoryCustom#countByGeography}.
+     */
+    List<UserGeoCount> countByGeography(UserFilterDto filter) {
+        IntPredicate predicate = compile(filter);
+        String[] lowerCities = cities.mapValues(value -> value.toLowerCase(Locale.ROOT));
+        String[] prefixes = postalCodes.mapValues(value -> value.substring(0, Math.min(2, value.length())));
+
+        Map<GeoKey, Long> counts = IntStream.range(0, segmentCount())
+                .parallel()
+                .mapToObj(segment -> {
+                    Map<GeoKey, Long> segmentCounts = new HashMap<>();
+                    for (int row = segmentStart(segment); row < segmentEnd(segment); row++) {
+                        if (predicate.test(row)) {
+                            GeoKey key = new GeoKey(countries.decode(country[row]),
+                                    city[row] == StringDictionary.NULL_CODE ? null : lowerCities[city[row]],
+                                    postalCode[row] == StringDictionary.NULL_CODE ? null : prefixes[postalCode[row]]);
+                            segmentCounts.merge(key, 1L, Long::sum);
+                        }
+                    }
+                    return segmentCounts;
+                })
+                .reduce(new HashMap<>(), (left, right) -> {
+                    Map<GeoKey, Long> merged = new HashMap<>(left);
+                    right.forEach((key, count) -> merged.merge(key, count, Long::sum));
+                    return merged;
+                });
+
+        return counts.entrySet().stream()
+                .map(entry -> new UserGeoCount(entry.getKey().country(), entry.getKey().city(),
+                        entry.getKey().postalCodePrefix(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Trie les lignes selon le tri demandé, le tri par identifiant départageant les égalités.
+     */
+    int[] sort(int[] rows, Sort sort) {
+        if (sort.isUnsorted()) {
+            return rows;
+        }
+        Comparator<Integer> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Integer> next = comparator(order);
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return IntStream.of(rows).boxed().parallel()
+                .sorted(comparator.thenComparingInt(row -> row))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    UserDto toDto(int row) {
+        return new UserDto(ids[row], firstNames.decode(firstName[row]), lastNames.decode(lastName[row]), email[row],
+                phone[row], address[row], cities.decode(city[row]), postalCodes.decode(postalCode[row]),
+                countries.decode(country[row]), status[row] == NULL_ENUM ? null : STATUSES[status[row]],
+                role[row] == NULL_ENUM ? null : ROLES[role[row]], companies.decode(companyName[row]),
+                decodeTime(createdAt[row]), decodeTime(updatedAt[row]));
+    }
+
+    /**
+     * Compile le filtre en prédicat sur les colonnes, avec la sémantique de
+     * {@link com.example.clientapi.repository.UserSpecifications#fromFilter} : les critères sur chaînes
+     * sont résolus une fois en codes de dictionnaire, le parcours ne compare que des entiers.
+     */
+    private IntPredicate compile(UserFilterDto filter) {
+        IntPredicate predicate = row -> !deleted.get(row);
+        if (filter == null) {
+            return predicate;
+        }
+        if (filter.getStatus() != null) {
+            byte code = (byte) filter.getStatus().ordinal();
+            predicate = predicate.and(row -> status[row] == code);
+        }
+        if (filter.getRole() != null) {
+            byte code = (byte) filter.getRole().ordinal();
+            predicate = predicate.and(row -> role[row] == code);
+        }
+        if (hasText(filter.getCity())) {
+            BitSet codes = cities.codesEqualIgnoreCase(filter.getCity().trim());
+            predicate = predicate.and(row -> city[row] != StringDictionary.NULL_CODE && codes.get(city[row]));
+        }
+        if (hasText(filter.getCountry())) {
+            int code = countries.codeOf(filter.getCountry().trim());
+            predicate = predicate.and(row -> code != StringDictionary.NULL_CODE && country[row] == code);
+        }
+        if (hasText(filter.getPostalCodePrefix())) {
+            String prefix = filter.getPostalCodePrefix().trim();
+            BitSet codes = postalCodes.codesMatching(value -> value.startsWith(prefix));
+            predicate = predicate.and(row -> postalCode[row] != StringDictionary.NULL_CODE
+                    && codes.get(postalCode[row]));
+        }
+        if (hasText(filter.getCompanyName())) {
+            int code = companies.codeOf(filter.getCompanyName().trim());
+            predicate = predicate.and(row -> code != StringDictionary.NULL_CODE && companyName[row] == code);
+        }
+        if (filter.getCreatedFrom() != null) {
+            long from = encodeTime(filter.getCreatedFrom());
+            predicate = predicate.and(row -> createdAt[row] != NULL_TIME && createdAt[row] >= from);
+        }
+        if (filter.getCreatedTo() != null) {
+            long to = encodeTime(filter.getCreatedTo());
+            predicate = predicate.and(row -> createdAt[row] != NULL_TIME && createdAt[row] < to);
+        }
+        return predicate;
+    }
+
+    /**
+     * Comparateur d'une propriété ; comme PostgreSQL, les valeurs absentes sont placées
+     * en dernier en ordre croissant et en premier en ordre décroissant.
+     */
+    private Comparator<Integer> comparator(Sort.Order order) {
+        Comparator<Integer> ascending = switch (order.getProperty()) {
+            case "id" -> Comparator.comparingLong(row -> ids[row]);
+            case "firstName" -> byRank(firstName, firstNames);
+            case "lastName" -> byRank(lastName, lastNames);
+            case "city" -> byRank(city, cities);
+            case "country" -> byRank(country, countries);
+            case "postalCode" -> byRank(postalCode, postalCodes);
+            case "companyName" -> byRank(companyName, companies);
+            case "email" -> Comparator.comparing(row -> email[row], Comparator.nullsLast(Comparator.naturalOrder()));
+            case "status" -> byName(status, STATUSES);
+            case "role" -> byName(role, ROLES);
+            case "createdAt" -> Comparator.comparingLong(row -> nullTimeLast(createdAt[row]));
+            case "updatedAt" -> Comparator.comparingLong(row -> nullTimeLast(updatedAt[row]));
+            default -> throw new IllegalArgumentException("Tri non supporté en mémoire: " + order.getProperty());
+        };
+        return order.isAscending() ? ascending : ascending.reversed();
+    }
+
+    private static Comparator<Integer> byRank(int[] column, StringDictionary dictionary) {
+        int[] ranks = dictionary.ranks();
+        return Comparator.comparingInt(row -> column[row] == StringDictionary.NULL_CODE
+                ? Integer.MAX_VALUE : ranks[column[row]]);
+    }
+
+    /**
+     * Les énumérations sont stockées en base par leur nom : le tri suit l'ordre des noms.
+     */
+    private static Comparator<Integer> byName(byte[] column, Enum<?>[] constants) {
+        int[] ranks = new int[constants.length];
+        Integer[] order = new Integer[constants.length];
+        Arrays.setAll(order, ordinal -> ordinal);
+        Arrays.sort(order, Comparator.comparing(ordinal -> constants[ordinal].name()));
+        for (int rank = 0; rank < order.length; rank++) {
+            ranks[order[rank]] = rank;
+        }
+        return Comparator.comparingInt(row -> column[row] == NULL_ENUM ? Integer.MAX_VALUE : ranks[column[row]]);
+    }
+
+    private static long nullTimeLast(long time) {
+        return time == NULL_TIME ? Long.MAX_VALUE : time;
+    }
+
+    private int segmentCount() {
+        return (size + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+    }
+
+    private static int segmentStart(int segment) {
+        return segment * SEGMENT_SIZE;
+    }
+
+    private int segmentEnd(int segment) {
+        return Math.min(size, (segment + 1) * SEGMENT_SIZE);
+    }
+
+    private void insertAt(int row, long id) {
+        if (size == ids.length) {
+            grow();
+        }
+        if (row < size) {
+            // Identifiant inférieur au plus grand connu (rare avec une colonne IDENTITY) : décalage des lignes
+            for (Object column : columns()) {
+                System.arraycopy(column, row, column, row + 1, size - row);
+            }
+            for (int shifted = size; shifted > row; shifted--) {
+                deleted.set(shifted, deleted.get(shifted - 1));
+            }
+            deleted.clear(row);
+        }
+        ids[row] = id;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        status = Arrays.copyOf(status, capacity);
+        role = Arrays.copyOf(role, capacity);
+        firstName = Arrays.copyOf(firstName, capacity);
+        lastName = Arrays.copyOf(lastName, capacity);
+        city = Arrays.copyOf(city, capacity);
+        country = Arrays.copyOf(country, capacity);
+        postalCode = Arrays.copyOf(postalCode, capacity);
+        companyName = Arrays.copyOf(companyName, capacity);
+        email = Arrays.copyOf(email, capacity);
+        phone = Arrays.copyOf(phone, capacity);
+        address = Arrays.copyOf(address, capacity);
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        createdAt = new long[capacity];
+        updatedAt = new long[capacity];
+        status = new byte[capacity];
+        role = new byte[capacity];
+        firstName = new int[capacity];
+        lastName = new int[capacity];
+        city = new int[capacity];
+        country = new int[capacity];
+        postalCode = new int[capacity];
+        companyName = new int[capacity];
+        email = new String[capacity];
+        phone = new String[capacity];
+        address = new String[capacity];
+    }
+
+    private Object[] columns() {
+        return new Object[]{ids, createdAt, updatedAt, status, role, firstName, lastName, city, country,
+                postalCode, companyName, email, phone, address};
+    }
+
+    /**
+     * Nombre de valeurs distinctes de chaque colonne encodée par dictionnaire.
+     */
+    Map<String, Integer> dictionarySizes() {
+        return Map.of("firstName", firstNames.size(), "lastName", lastNames.size(), "city", cities.size(),
+                "country", countries.size(), "postalCode", postalCodes.size(), "companyName", companies.size());
+    }
+
+    private record GeoKey(String country, String city, String postalCodePrefix) {
+    }
+
+    private static long encodeTime(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime decodeTime(long time) {
+        if (time == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(time, 1_000_000L),
+                (int) Math.floorMod(time, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.clientapi.readmodel;
+
+import com.example.clientapi.dto.UserDto;
+import com.example.clientapi.dto.UserFilterDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.repository.UserGeoCount;
+import com.example.clientapi.repository.UserRepository;
+import com.example.clientapi.service.UserChangeFeedService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Modèle de lecture en mémoire de l'annuaire des utilisateurs, stocké en colonnes ({@link UserColumns}).
+ *
+ * Les listes, filtres et comptages de {@link com.example.clientapi.service.UserService}
+ * sont servis depuis ce modèle une fois chargé, sauf pour un utilisateur qui vient d'écrire
+ * ({@code app.users.read-model.read-your-writes-window}) : sa modification n'y est peut-être pas encore.
+ */
+@Component
+@ConditionalOnProperty(name = "app.users.read-model.enabled", havingValue = "true")
+public class UserReadModel extends InMemoryUserView<UserColumns> {
+
+    @Autowired
+    public UserReadModel(UserRepository userRepository, UserChangeFeedService changeFeedService,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                         @Value("${app.users.read-model.fetch-size:1000}") int fetchSize,
+                         @Value("${app.users.read-model.max-staleness:30s}") Duration maxStaleness,
+                         @Value("${app.users.read-model.sync-interval:1s}") Duration syncInterval,
+                         @Value("${app.users.read-model.read-your-writes-window:10s}") Duration readYourWritesWindow) {
+        super("modèle de lecture", "users.read_model", userRepository, changeFeedService, transactionManager,
+                meterRegistry, fetchSize, maxStaleness);
+        Duration lag = changeFeedService.getSafetyLag().plus(syncInterval);
+        if (readYourWritesWindow.compareTo(lag) <= 0) {
+            // Un utilisateur pourrait relire depuis le modèle avant que sa modification n'y soit appliquée
+            throw new IllegalStateException("app.users.read-model.read-your-writes-window (" + readYourWritesWindow
+                    + ") doit dépasser le délai de sécurité du flux augmenté de l'intervalle de synchronisation ("
+                    + lag + ")");
+        }
+        Gauge.builder("users.read_model.rows", this, model -> model.read(UserColumns::liveRows, 0))
+                .description("Utilisateurs présents dans le modèle de lecture")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indique si le modèle peut servir la page demandée : modèle chargé et tri sur des propriétés
+     * gérées en mémoire (sans tri insensible à la casse).
+     */
+    public boolean supports(Pageable pageable) {
+        if (!isReady()) {
+            return false;
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (order.isIgnoreCase() || !UserColumns.SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Page des utilisateurs correspondant au filtre ({@code null} : tous les utilisateurs).
+     * Sans tri, les utilisateurs sont retournés par identifiant croissant.
+     */
+    public Page<UserDto> find(UserFilterDto filter, Pageable pageable) {
+        return read(current -> {
+            int[] rows = current.sort(current.matchingRows(filter), pageable.getSort());
+            int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), rows.length) : 0;
+            int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), rows.length) : rows.length;
+
+            List<UserDto> content = new ArrayList<>(to - from);
+            for (int row : Arrays.copyOfRange(rows, from, to)) {
+                content.add(current.toDto(row));
+            }
+            return new PageImpl<>(content, pageable, rows.length);
+        }, Page.empty(pageable));
+    }
+
+    /**
+     * Nombre d'utilisateurs correspondant au filtre ({@code null} : tous les utilisateurs).
+     */
+    public long count(UserFilterDto filter) {
+        return read(current -> current.count(filter), 0L);
+    }
+
+    /**
+     * Répartition géographique des utilisateurs correspondant au filtre.
+     */
+    public List<UserGeoCount> countByGeography(UserFilterDto filter) {
+        return read(current -> current.countByGeography(filter), List.of());
+    }
+
+    /**
+     * Application des modifications publiées par le flux depuis la dernière synchronisation.
+     */
+    @Scheduled(fixedDelayString = "${app.users.read-model.sync-interval:1s}")
+    public void scheduledSync() {
+        requestSync();
+    }
+
+    /**
+     * Rechargement complet périodique : borne la dérive en cas d'écriture hors du flux
+     * (modification directe en base sans mise à jour de updated_at).
+     */
+    @Scheduled(initialDelayString = "${app.users.read-model.reload-interval:1h}",
+            fixedDelayString = "${app.users.read-model.reload-interval:1h}")
+    public void scheduledReload() {
+        requestReload();
+    }
+
+    @Override
+    protected UserColumns newState(int expectedUsers) {
+        return new UserColumns(expectedUsers);
+    }
+
+    @Override
+    protected void upsert(UserColumns columns, User user) {
+        columns.upsert(user);
+    }
+
+    @Override
+    protected void remove(UserColumns columns, long userId) {
+        columns.remove(userId);
+    }
+
+    @Override
+    protected String describe(UserColumns columns) {
+        return columns.liveRows() + " utilisateurs, valeurs distinctes: " + columns.dictionarySizes();
+    }
+}
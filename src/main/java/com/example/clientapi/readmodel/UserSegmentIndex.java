@@ -0,0 +1,121 @@
+package com.example.clientapi.readmodel;
+
+import com.example.clientapi.dto.SegmentQueryDto;
+import com.example.clientapi.dto.SegmentQueryResultDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.repository.UserRepository;
+import com.example.clientapi.service.UserChangeFeedService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moteur de segments d'audience : bitmaps compressés des identifiants d'utilisateurs par statut,
+ * rôle, ville, pays, mois de création et présence d'un nom d'entreprise ({@link UserSegments}).
+ *
+ * Les expressions booléennes (and / or / not) sont évaluées par opérations sur les bitmaps,
+ * sans requête SQL.
+ */
+@Component
+@ConditionalOnProperty(name = "app.users.segments.enabled", havingValue = "true")
+public class UserSegmentIndex extends InMemoryUserView<UserSegments> {
+
+    private final int maxExpressionNodes;
+    private final Timer queryTimer;
+
+    @Autowired
+    public UserSegmentIndex(UserRepository userRepository, UserChangeFeedService changeFeedService,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${app.users.segments.fetch-size:1000}") int fetchSize,
+                            @Value("${app.users.segments.max-staleness:30s}") Duration maxStaleness,
+                            @Value("${app.users.segments.max-expression-nodes:100}") int maxExpressionNodes) {
+        super("index des segments", "users.segments", userRepository, changeFeedService, transactionManager,
+                meterRegistry, fetchSize, maxStaleness);
+        this.maxExpressionNodes = maxExpressionNodes;
+        this.queryTimer = Timer.builder("users.segments.query")
+                .description("Durée d'évaluation d'une expression de segment")
+                .register(meterRegistry);
+        Gauge.builder("users.segments.bitmaps", this, index -> index.read(UserSegments::bitmapCount, 0))
+                .description("Bitmaps de l'index des segments")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Évalue l'expression et retourne le nombre d'utilisateurs, et la page d'identifiants si demandée.
+     *
+     * @throws IllegalStateException    si l'index n'est pas chargé ou n'est plus synchronisé
+     * @throws IllegalArgumentException si l'expression est mal formée
+     */
+    public SegmentQueryResultDto query(SegmentQueryDto query) {
+        if (!isReady()) {
+            throw new IllegalStateException("L'index des segments n'est pas chargé ou n'est plus synchronisé");
+        }
+        long start = System.nanoTime();
+        SegmentQueryResultDto result = read(segments -> {
+            Roaring64NavigableMap matching = segments.evaluate(query.getExpression(), maxExpressionNodes);
+            List<Long> ids = query.isIncludeIds()
+                    ? UserSegments.page(matching, query.getPage(), query.getSize())
+                    : null;
+            return new SegmentQueryResultDto(matching.getLongCardinality(), ids, query.getPage(), query.getSize(), 0);
+        }, null);
+        long elapsed = System.nanoTime() - start;
+        queryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        result.setEvaluationMicros(TimeUnit.NANOSECONDS.toMicros(elapsed));
+        return result;
+    }
+
+    /**
+     * Application des modifications publiées par le flux depuis la dernière synchronisation.
+     */
+    @Scheduled(fixedDelayString = "${app.users.segments.sync-interval:1s}")
+    public void scheduledSync() {
+        requestSync();
+    }
+
+    /**
+     * Rechargement complet périodique : borne la dérive en cas d'écriture hors du flux
+     * et recompresse les bitmaps modifiés depuis le dernier chargement.
+     */
+    @Scheduled(initialDelayString = "${app.users.segments.reload-interval:1h}",
+            fixedDelayString = "${app.users.segments.reload-interval:1h}")
+    public void scheduledReload() {
+        requestReload();
+    }
+
+    @Override
+    protected UserSegments newState(int expectedUsers) {
+        return new UserSegments(expectedUsers);
+    }
+
+    @Override
+    protected void upsert(UserSegments segments, User user) {
+        segments.upsert(user);
+    }
+
+    @Override
+    protected void remove(UserSegments segments, long userId) {
+        segments.remove(userId);
+    }
+
+    @Override
+    protected void afterLoad(UserSegments segments) {
+        segments.optimize();
+    }
+
+    @Override
+    protected String describe(UserSegments segments) {
+        return segments.userCount() + " utilisateurs, " + segments.bitmapCount() + " bitmaps, "
+                + segments.sizeInBytes() / 1024 + " Kio";
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.clientapi.readmodel;
+
+import com.example.clientapi.dto.SegmentDimension;
+import com.example.clientapi.dto.SegmentExpressionDto;
+import com.example.clientapi.entity.User;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Bitmaps compressés (Roaring) des identifiants d'utilisateurs, un par valeur de chaque dimension.
+ *
+ * Les valeurs de chaque dimension sont encodées par dictionnaire ; le code de la valeur courante
+ * de chaque utilisateur est conservé dans une colonne {@code int[]} par dimension, indexée par
+ * ligne (identifiants triés) : un retrait ou une mise à jour ne visite que les bitmaps concernés.
+ *
+ * Non thread-safe : les accès sont protégés par le verrou de l'index. Les bitmaps stockés
+ * ne sont jamais modifiés par une évaluation, qui travaille sur des copies.
+ */
+final class UserSegments {
+
+    private static final SegmentDimension[] DIMENSIONS = SegmentDimension.values();
+
+    private final Roaring64NavigableMap all = new Roaring64NavigableMap();
+    // Par dimension : dictionnaire des valeurs et bitmap de chaque code, null une fois vidé
+    private final StringDictionary[] dictionaries = new StringDictionary[DIMENSIONS.length];
+    private final List<List<Roaring64NavigableMap>> bitmaps = new ArrayList<>(DIMENSIONS.length);
+
+    // Une ligne par identifiant rencontré ; une ligne retirée garde son identifiant, sans valeur
+    private int size;
+    private long[] ids;
+    private final int[][] codes = new int[DIMENSIONS.length][];
+
+    UserSegments(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        ids = new long[capacity];
+        for (SegmentDimension dimension : DIMENSIONS) {
+            dictionaries[dimension.ordinal()] = new StringDictionary();
+            bitmaps.add(new ArrayList<>());
+            codes[dimension.ordinal()] = new int[capacity];
+        }
+    }
+
+    /**
+     * Ajoute ou remplace l'utilisateur dans les bitmaps de ses valeurs courantes.
+     * Seules les dimensions dont la valeur a changé sont modifiées.
+     */
+    void upsert(User user) {
+        long id = user.getId();
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        if (row < 0) {
+            row = -row - 1;
+            insertAt(row, id);
+        }
+        all.addLong(id);
+        for (SegmentDimension dimension : DIMENSIONS) {
+            int index = dimension.ordinal();
+            int code = dictionaries[index].encode(keyOf(dimension, user));
+            int previous = codes[index][row];
+            if (code != previous) {
+                release(index, previous, id);
+                if (code != StringDictionary.NULL_CODE) {
+                    bitmapFor(index, code).addLong(id);
+                }
+                codes[index][row] = code;
+            }
+        }
+    }
+
+    /**
+     * Retire l'utilisateur des seuls bitmaps de ses valeurs ; un bitmap devenu vide est supprimé.
+     */
+    void remove(long id) {
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        if (row < 0) {
+            return;
+        }
+        all.removeLong(id);
+        for (SegmentDimension dimension : DIMENSIONS) {
+            int index = dimension.ordinal();
+            release(index, codes[index][row], id);
+            codes[index][row] = StringDictionary.NULL_CODE;
+        }
+    }
+
+    /**
+     * Compresse les suites d'identifiants consécutifs (conteneurs « run »), après un chargement complet.
+     */
+    void optimize() {
+        all.runOptimize();
+        liveBitmaps().forEach(Roaring64NavigableMap::runOptimize);
+    }
+
+    long userCount() {
+        return all.getLongCardinality();
+    }
+
+    int bitmapCount() {
+        return (int) liveBitmaps().count();
+    }
+
+    long sizeInBytes() {
+        long rows = (long) ids.length * (Long.BYTES + DIMENSIONS.length * Integer.BYTES);
+        return rows + all.getLongSizeInBytes() + liveBitmaps()
+                .mapToLong(Roaring64NavigableMap::getLongSizeInBytes)
+                .sum();
+    }
+
+    /**
+     * Évalue l'expression en un nouveau bitmap.
+     *
+     * @param maxNodes nombre maximal de nœuds de l'expression
+     * @throws IllegalArgumentException si l'expression est mal formée ou trop grande
+     */
+    Roaring64NavigableMap evaluate(SegmentExpressionDto expression, int maxNodes) {
+        return evaluate(expression, new int[]{maxNodes});
+    }
+
+    private Roaring64NavigableMap evaluate(SegmentExpressionDto expression, int[] remainingNodes) {
+        if (expression == null) {
+            throw new IllegalArgumentException("Expression de segment vide");
+        }
+        if (--remainingNodes[0] < 0) {
+            throw new IllegalArgumentException("Expression de segment trop grande");
+        }
+        int forms = (expression.getAnd() != null ? 1 : 0) + (expression.getOr() != null ? 1 : 0)
+                + (expression.getNot() != null ? 1 : 0) + (expression.getDimension() != null ? 1 : 0);
+        if (forms != 1) {
+            throw new IllegalArgumentException(
+                    "Chaque expression doit contenir exactement un des éléments and, or, not ou dimension");
+        }
+
+        if (expression.getAnd() != null) {
+            Roaring64NavigableMap result = null;
+            for (SegmentExpressionDto operand : operands(expression.getAnd(), "and")) {
+                Roaring64NavigableMap value = evaluate(operand, remainingNodes);
+                if (result == null) {
+                    result = value;
+                } else {
+                    result.and(value);
+                }
+            }
+            return result;
+        }
+        if (expression.getOr() != null) {
+            Roaring64NavigableMap result = new Roaring64NavigableMap();
+            for (SegmentExpressionDto operand : operands(expression.getOr(), "or")) {
+                result.or(evaluate(operand, remainingNodes));
+            }
+            return result;
+        }
+        if (expression.getNot() != null) {
+            Roaring64NavigableMap result = copy(all);
+            result.andNot(evaluate(expression.getNot(), remainingNodes));
+            return result;
+        }
+        return leaf(expression);
+    }
+
+    private Roaring64NavigableMap leaf(SegmentExpressionDto expression) {
+        SegmentDimension dimension = expression.getDimension();
+        int index = dimension.ordinal();
+        StringDictionary dictionary = dictionaries[index];
+        boolean hasValues = expression.getValues() != null && !expression.getValues().isEmpty();
+        boolean hasRange = expression.getFrom() != null || expression.getTo() != null;
+        if (hasValues == hasRange) {
+            throw new IllegalArgumentException(
+                    "Une condition sur " + dimension + " doit contenir soit des valeurs, soit une plage from/to");
+        }
+
+        Roaring64NavigableMap result = new Roaring64NavigableMap();
+        if (hasValues) {
+            for (String value : expression.getValues()) {
+                Roaring64NavigableMap bitmap = bitmapAt(index, dictionary.codeOf(dimension.normalize(value)));
+                if (bitmap != null) {
+                    result.or(bitmap);
+                }
+            }
+            return result;
+        }
+
+        if (dimension != SegmentDimension.CREATED_MONTH) {
+            throw new IllegalArgumentException("Une plage from/to n'est possible que sur CREATED_MONTH");
+        }
+        // Les mois AAAA-MM sont ordonnés comme des chaînes
+        String from = expression.getFrom() != null ? dimension.normalize(expression.getFrom()) : null;
+        String to = expression.getTo() != null ? dimension.normalize(expression.getTo()) : null;
+        for (int code = 0; code < dictionary.size(); code++) {
+            String month = dictionary.decode(code);
+            Roaring64NavigableMap bitmap = bitmapAt(index, code);
+            if (bitmap != null && (from == null || month.compareTo(from) >= 0)
+                    && (to == null || month.compareTo(to) <= 0)) {
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Identifiants de la page demandée, par ordre croissant.
+     */
+    static List<Long> page(Roaring64NavigableMap result, int page, int size) {
+        long count = result.getLongCardinality();
+        long from = Math.min((long) page * size, count);
+        long to = Math.min(from + size, count);
+        List<Long> ids = new ArrayList<>((int) (to - from));
+        for (long rank = from; rank < to; rank++) {
+            ids.add(result.select(rank));
+        }
+        return ids;
+    }
+
+    private static List<SegmentExpressionDto> operands(List<SegmentExpressionDto> operands, String operator) {
+        if (operands.isEmpty()) {
+            throw new IllegalArgumentException("L'opérateur " + operator + " requiert au moins une expression");
+        }
+        return operands;
+    }
+
+    private static Roaring64NavigableMap copy(Roaring64NavigableMap bitmap) {
+        Roaring64NavigableMap copy = new Roaring64NavigableMap();
+        copy.or(bitmap);
+        return copy;
+    }
+
+    private Roaring64NavigableMap bitmapAt(int index, int code) {
+        List<Roaring64NavigableMap> values = bitmaps.get(index);
+        return code == StringDictionary.NULL_CODE || code >= values.size() ? null : values.get(code);
+    }
+
+    private Roaring64NavigableMap bitmapFor(int index, int code) {
+        List<Roaring64NavigableMap> values = bitmaps.get(index);
+        while (values.size() <= code) {
+            values.add(null);
+        }
+        Roaring64NavigableMap bitmap = values.get(code);
+        if (bitmap == null) {
+            bitmap = new Roaring64NavigableMap();
+            values.set(code, bitmap);
+        }
+        return bitmap;
+    }
+
+    private void release(int index, int code, long id) {
+        Roaring64NavigableMap bitmap = bitmapAt(index, code);
+        if (bitmap != null) {
+            bitmap.removeLong(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.get(index).set(code, null);
+            }
+        }
+    }
+
+    private Stream<Roaring64NavigableMap> liveBitmaps() {
+        return bitmaps.stream().flatMap(List::stream).filter(Objects::nonNull);
+    }
+
+    private void insertAt(int row, long id) {
+        if (size == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            for (int index = 0; index < codes.length; index++) {
+                codes[index] = Arrays.copyOf(codes[index], capacity);
+            }
+        }
+        if (row < size) {
+            // Identifiant inférieur au plus grand connu (rare avec une colonne IDENTITY) : décalage des lignes
+            System.arraycopy(ids, row, ids, row + 1, size - row);
+            for (int[] column : codes) {
+                System.arraycopy(column, row, column, row + 1, size - row);
+            }
+        }
+        ids[row] = id;
+        for (int[] column : codes) {
+            column[row] = StringDictionary.NULL_CODE;
+        }
+        size++;
+    }
+
+    private static String keyOf(SegmentDimension dimension, User user) {
+        return switch (dimension) {
+            case STATUS -> user.getStatus() == null ? null : user.getStatus().name();
+            case ROLE -> user.getRole() == null ? null : user.getRole().name();
+            case CITY -> user.getCity() == null ? null : user.getCity().trim().toLowerCase(Locale.ROOT);
+            case COUNTRY -> user.getCountry() == null ? null : user.getCountry().trim();
+            case CREATED_MONTH -> user.getCreatedAt() == null ? null : YearMonth.from(user.getCreatedAt()).toString();
+            case HAS_COMPANY -> Boolean.toString(user.getCompanyName() != null && !user.getCompanyName().isBlank());
+        };
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.clientapi.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Nombre d'inscriptions d'un jour, tous rôles et statuts retenus confondus.
+ */
+public record DailyRegistrations(LocalDate day, long registrations) {
+}
@@ -0,0 +1,59 @@
+package com.example.clientapi.repository;
+
+import com.example.clientapi.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository des événements de l'outbox.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Événements publiables maintenant, dans l'ordre d'écriture : non publiés, sans tentative différée
+     * ni réservation en cours, et sans événement antérieur du même utilisateur dans ce cas.
+     * Le filtre est appliqué en base : un utilisateur bloqué n'occupe pas le lot des autres.
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL " +
+            "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) " +
+            "AND NOT EXISTS (SELECT p.id FROM OutboxEvent p WHERE p.aggregateId = e.aggregateId " +
+            "AND p.id < e.id AND p.publishedAt IS NULL AND p.nextAttemptAt > :now) " +
+            "ORDER BY e.id")
+    List<OutboxEvent> findPublishable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Nombre d'événements en attente de publication.
+     */
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.publishedAt IS NULL")
+    long countPending();
+
+    /**
+     * Date d'écriture du plus ancien événement non publié.
+     */
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.publishedAt IS NULL")
+    Optional<LocalDateTime> findOldestPendingCreatedAt();
+
+    /**
+     * Supprime les événements publiés avant la date donnée.
+     *
+     * @return le nombre d'événements supprimés
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Verrou consultatif PostgreSQL libéré en fin de transaction : un seul relais publie à la fois.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryTransactionLock(@Param("key") long key);
+}
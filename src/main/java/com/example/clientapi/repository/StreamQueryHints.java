@@ -0,0 +1,29 @@
+package com.example.clientapi.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indications communes aux parcours par curseur des méthodes stream* : lignes lues par paquets
+ * de {@link UserRepository#STREAM_FETCH_SIZE}, entités non suivies pour le dirty checking,
+ * ni cache de requêtes ni alimentation du cache de second niveau.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = UserRepository.STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false"),
+        @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")
+})
+public @interface StreamQueryHints {
+}
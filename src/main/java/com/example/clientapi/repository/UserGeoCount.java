@@ -0,0 +1,8 @@
+package com.example.clientapi.repository;
+
+/**
+ * Nombre d'utilisateurs pour une combinaison pays / ville (en minuscules) / préfixe de code postal.
+ * Les valeurs non renseignées sont nulles.
+ */
+public record UserGeoCount(String country, String city, String postalCodePrefix, long count) {
+}
@@ -0,0 +1,50 @@
+package com.example.clientapi.repository;
+
+import com.example.clientapi.entity.UserRegistrationDaily;
+import com.example.clientapi.entity.UserRegistrationDailyId;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository des compteurs quotidiens d'inscriptions.
+ */
+@Repository
+public interface UserRegistrationDailyRepository extends JpaRepository<UserRegistrationDaily, UserRegistrationDailyId> {
+
+    /**
+     * Inscriptions par jour sur la période [from, to], filtrées par rôle et statut s'ils sont renseignés.
+     * Lecture d'au plus une ligne par jour, rôle et statut (parcours de la clé primaire).
+     */
+    @Query("SELECT new com.example.clientapi.repository.DailyRegistrations(r.id.day, SUM(r.registrations)) " +
+            "FROM UserRegistrationDaily r " +
+            "WHERE r.id.day BETWEEN :from AND :to " +
+            "AND (:role IS NULL OR r.id.role = :role) " +
+            "AND (:status IS NULL OR r.id.status = :status) " +
+            "GROUP BY r.id.day ORDER BY r.id.day")
+    List<DailyRegistrations> findDailyRegistrations(@Param("from") LocalDate from,
+                                                    @Param("to") LocalDate to,
+                                                    @Param("role") UserRole role,
+                                                    @Param("status") UserStatus status);
+
+    /**
+     * Supprime les compteurs des jours antérieurs à {@code day}, avant leur reconstruction.
+     */
+    @Modifying
+    @Query("DELETE FROM UserRegistrationDaily r WHERE r.id.day < :day")
+    int deleteBucketsBefore(@Param("day") LocalDate day);
+
+    /**
+     * Supprime les compteurs du jour {@code day} et des jours suivants, avant leur reconstruction.
+     */
+    @Modifying
+    @Query("DELETE FROM UserRegistrationDaily r WHERE r.id.day >= :day")
+    int deleteBucketsFrom(@Param("day") LocalDate day);
+}
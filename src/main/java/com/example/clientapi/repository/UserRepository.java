@@ -1,52 +1,124 @@
 package com.example.clientapi.repository;
 
+import com.example.clientapi.dto.UserDto;
 import com.example.clientapi.entity.User;
 import com.example.clientapi.entity.UserStatus;
 import com.example.clientapi.entity.UserRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository pour l'accès aux données des utilisateurs.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+        UserRepositoryCustom {
 
     /**
-     * Recherche un utilisateur par son email.
+     * Nombre de lignes lues par aller-retour avec la base par les méthodes stream*.
      */
-    Optional<User> findByEmail(String email);
+    String STREAM_FETCH_SIZE = "500";
 
     /**
-     * Vérifie si un email existe déjà en base.
+     * Recherche un utilisateur par son email, sans tenir compte de la casse.
      */
-    boolean existsByEmail(String email);
+    default Optional<User> findByEmail(String email) {
+        return findByNaturalEmail(User.normalizeEmail(email));
+    }
 
     /**
-     * Vérifie si un email existe pour un autre utilisateur.
+     * Charge le principal de sécurité d'un email, sans tenir compte de la casse, toujours depuis la base.
+     * Les caches de second niveau et d'identifiant naturel sont propres à chaque instance : une suspension
+     * ou un changement de rôle effectué par une autre instance n'y serait visible qu'à leur expiration.
      */
-    boolean existsByEmailAndIdNot(String email, Long id);
+    default Optional<User> findPrincipalByEmail(String email) {
+        return findPrincipalByEmailNormalized(User.normalizeEmail(email));
+    }
+
+    /**
+     * Lecture directe par email normalisé : le cache de second niveau n'est pas consulté,
+     * mais il est rafraîchi avec l'état lu.
+     */
+    @Query("SELECT u FROM User u WHERE u.emailNormalized = :emailNormalized")
+    @QueryHints({
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
+    Optional<User> findPrincipalByEmailNormalized(@Param("emailNormalized") String emailNormalized);
+
+    /**
+     * Utilisateurs des identifiants donnés, lus en base sans consulter le cache de second niveau :
+     * état courant pour les vues en mémoire, quelle que soit l'instance qui les a modifiés.
+     */
+    @Query("SELECT u FROM User u WHERE u.id IN :ids")
+    @QueryHints({
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
+    List<User> findCurrentByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Vérifie si un email existe déjà en base, sans tenir compte de la casse.
+     */
+    default boolean existsByEmail(String email) {
+        return existsByEmailNormalized(User.normalizeEmail(email));
+    }
+
+    boolean existsByEmailNormalized(String emailNormalized);
 
     /**
      * Recherche les utilisateurs par statut.
      */
-    List<User> findByStatus(UserStatus status);
     Page<User> findByStatus(UserStatus status, Pageable pageable);
 
+    /**
+     * Page d'utilisateurs par statut, sans requête de comptage.
+     */
+    Slice<User> findSliceByStatus(UserStatus status, Pageable pageable);
+
+    /**
+     * Parcourt les utilisateurs d'un statut via un curseur. Le flux doit être consommé
+     * dans une transaction et fermé par l'appelant.
+     */
+    @Query("SELECT u FROM User u WHERE u.status = :status")
+    @StreamQueryHints
+    Stream<User> streamByStatus(@Param("status") UserStatus status);
+
     /**
      * Recherche les utilisateurs par rôle.
      */
-    List<User> findByRole(UserRole role);
     Page<User> findByRole(UserRole role, Pageable pageable);
 
+    /**
+     * Page d'utilisateurs par rôle, sans requête de comptage.
+     */
+    Slice<User> findSliceByRole(UserRole role, Pageable pageable);
+
+    /**
+     * Parcourt les utilisateurs d'un rôle via un curseur. Le flux doit être consommé
+     * dans une transaction et fermé par l'appelant.
+     */
+    @Query("SELECT u FROM User u WHERE u.role = :role")
+    @StreamQueryHints
+    Stream<User> streamByRole(@Param("role") UserRole role);
+
     /**
      * Recherche les clients uniquement (rôle CLIENT).
      */
@@ -70,36 +142,80 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> findBySearchTerm(@Param("searchTerm") String searchTerm, Pageable pageable);
 
     /**
-     * Recherche les utilisateurs créés après une date donnée.
+     * Page d'utilisateurs créés après une date donnée, sans requête de comptage.
+     */
+    Slice<User> findSliceByCreatedAtAfter(LocalDateTime date, Pageable pageable);
+
+    /**
+     * Parcourt, par date de création, les utilisateurs créés après une date donnée via un curseur.
+     * Le flux doit être consommé dans une transaction et fermé par l'appelant.
      */
-    List<User> findByCreatedAtAfter(LocalDateTime date);
+    @Query("SELECT u FROM User u WHERE u.createdAt > :date ORDER BY u.createdAt, u.id")
+    @StreamQueryHints
+    Stream<User> streamByCreatedAtAfter(@Param("date") LocalDateTime date);
 
     /**
-     * Recherche les utilisateurs par ville.
+     * Page d'utilisateurs par ville (insensible à la casse), sans requête de comptage.
      */
-    List<User> findByCityIgnoreCase(String city);
+    @Query("SELECT u FROM User u WHERE LOWER(u.city) = LOWER(:city)")
+    Slice<User> findSliceByCityIgnoreCase(@Param("city") String city, Pageable pageable);
 
     /**
-     * Compte le nombre d'utilisateurs par statut.
+     * Parcourt les utilisateurs d'une ville (insensible à la casse) via un curseur.
+     * Le flux doit être consommé dans une transaction et fermé par l'appelant.
      */
+    @Query("SELECT u FROM User u WHERE LOWER(u.city) = LOWER(:city)")
+    @StreamQueryHints
+    Stream<User> streamByCityIgnoreCase(@Param("city") String city);
+
+    /**
+     * Compte le nombre d'utilisateurs par statut (résultat mis en cache, au plus 1 min de retard
+     * sur les écritures des autres instances).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     long countByStatus(UserStatus status);
 
     /**
-     * Compte le nombre d'utilisateurs par rôle.
+     * Compte le nombre d'utilisateurs par rôle (résultat mis en cache, au plus 1 min de retard
+     * sur les écritures des autres instances).
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     long countByRole(UserRole role);
 
     /**
-     * Recherche avec critères multiples.
+     * Compte les utilisateurs d'un rôle et d'un statut, toujours depuis la base (pas de cache de requêtes).
      */
-    @Query("SELECT u FROM User u WHERE " +
-            "(:status IS NULL OR u.status = :status) AND " +
-            "(:role IS NULL OR u.role = :role) AND " +
-            "(:city IS NULL OR LOWER(u.city) = LOWER(:city))")
-    Page<User> findByCriteria(
-            @Param("status") UserStatus status,
-            @Param("role") UserRole role,
-            @Param("city") String city,
-            Pageable pageable
-    );
-}
\ No newline at end of file
+    long countByRoleAndStatus(UserRole role, UserStatus status);
+
+    /**
+     * Supprime un utilisateur en une seule requête, sans le charger au préalable.
+     *
+     * @return le nombre de lignes supprimées (0 si l'utilisateur n'existe pas)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    /**
+     * Utilisateurs créés ou modifiés strictement après la position (updatedAt, id) et au plus tard
+     * à {@code upTo}, dans l'ordre du flux de modifications (parcours de l'index updated_at, id).
+     */
+    @Query("SELECT new com.example.clientapi.dto.UserDto(u.id, u.firstName, u.lastName, u.email, u.phone, " +
+            "u.address, u.city, u.postalCode, u.country, u.status, u.role, u.companyName, u.createdAt, u.updatedAt) " +
+            "FROM User u " +
+            "WHERE (u.updatedAt > :after OR (u.updatedAt = :after AND u.id > :afterId)) " +
+            "AND u.updatedAt <= :upTo " +
+            "ORDER BY u.updatedAt, u.id")
+    List<UserDto> findDtosChangedAfter(@Param("after") LocalDateTime after,
+                                       @Param("afterId") long afterId,
+                                       @Param("upTo") LocalDateTime upTo,
+                                       Pageable pageable);
+
+    /**
+     * Projection des utilisateurs correspondant aux emails normalisés donnés, sans charger les entités.
+     */
+    @Query("SELECT new com.example.clientapi.dto.UserDto(u.id, u.firstName, u.lastName, u.email, u.phone, " +
+            "u.address, u.city, u.postalCode, u.country, u.status, u.role, u.companyName, u.createdAt, u.updatedAt) " +
+            "FROM User u WHERE u.emailNormalized IN :emails")
+    List<UserDto> findDtosByEmailNormalizedIn(@Param("emails") Collection<String> emails);
+}
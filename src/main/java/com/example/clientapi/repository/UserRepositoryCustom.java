@@ -0,0 +1,107 @@
+package com.example.clientapi.repository;
+
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Requêtes spécifiques sur les utilisateurs qui ne peuvent pas être dérivées par Spring Data.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Parcourt les utilisateurs correspondant aux critères via un curseur en avant uniquement.
+     * Seuls les critères renseignés sont ajoutés à la requête. Le flux doit être fermé
+     * par l'appelant et consommé dans une transaction.
+     */
+    Stream<User> streamByCriteria(UserStatus status, UserRole role, String city, int fetchSize);
+
+    /**
+     * Recherche un utilisateur par son email normalisé (identifiant naturel),
+     * en passant par le cache de second niveau.
+     */
+    Optional<User> findByNaturalEmail(String emailNormalized);
+
+    /**
+     * Charge les utilisateurs correspondant aux identifiants, en servant depuis le cache de second niveau
+     * ceux qui s'y trouvent et en lisant les autres par lots.
+     *
+     * @return les utilisateurs trouvés, dans l'ordre des identifiants demandés
+     */
+    List<User> findAllByIdUsingCache(List<Long> ids, int batchSize);
+
+    /**
+     * Compte les utilisateurs par pays, ville (en minuscules) et préfixe de code postal à deux caractères,
+     * en une seule requête d'agrégation. Seuls les critères renseignés sont ajoutés à la requête.
+     * Le résultat est mis en cache, invalidé après chaque écriture validée sur users par l'instance,
+     * avec au plus 1 min de retard sur les écritures des autres instances.
+     */
+    List<UserGeoCount> countByGeography(UserStatus status, UserRole role);
+
+    /**
+     * Identifiants suivants (strictement supérieurs à {@code afterId}, dans l'ordre) des utilisateurs
+     * correspondant aux critères dont le statut n'est pas déjà {@code newStatus}. Pagination par clé :
+     * chaque appel reprend après le dernier identifiant retourné.
+     *
+     * @param excludedId utilisateur jamais retenu (l'auteur de la mise à jour), ou {@code null}
+     */
+    List<Long> findIdsForStatusUpdate(UserStatus newStatus, UserStatus status, UserRole role, String city,
+                                      Long excludedId, long afterId, int limit);
+
+    /**
+     * Identifiants suivants (strictement supérieurs à {@code afterId}, dans l'ordre) des utilisateurs
+     * correspondant aux critères dont le rôle n'est pas déjà {@code newRole}.
+     *
+     * @param excludedId utilisateur jamais retenu (l'auteur de la mise à jour), ou {@code null}
+     */
+    List<Long> findIdsForRoleUpdate(UserRole newRole, UserStatus status, UserRole role, String city,
+                                    Long excludedId, long afterId, int limit);
+
+    /**
+     * Change le statut d'une liste d'utilisateurs ; ceux qui ont déjà ce statut ne sont pas réécrits.
+     * Sur PostgreSQL, une seule requête UPDATE ... RETURNING est émise ; ailleurs, les lignes à modifier
+     * sont d'abord verrouillées.
+     *
+     * @return les identifiants des utilisateurs effectivement modifiés
+     */
+    List<Long> updateStatusByIds(Collection<Long> ids, UserStatus newStatus, LocalDateTime now);
+
+    /**
+     * Change le rôle d'une liste d'utilisateurs ; ceux qui ont déjà ce rôle ne sont pas réécrits.
+     *
+     * @return les identifiants des utilisateurs effectivement modifiés
+     * @see #updateStatusByIds(Collection, UserStatus, LocalDateTime)
+     */
+    List<Long> updateRoleByIds(Collection<Long> ids, UserRole newRole, LocalDateTime now);
+
+    /**
+     * Met à jour uniquement les attributs fournis d'un utilisateur, en une seule requête UPDATE.
+     * Une valeur {@code null} efface l'attribut correspondant.
+     *
+     * @return le nombre de lignes modifiées (0 si l'utilisateur n'existe pas)
+     */
+    int updateAttributes(Long id, Map<String, Object> attributes);
+
+    /**
+     * Change le statut d'un utilisateur et retourne son nouvel état.
+     * Sur PostgreSQL, une seule requête UPDATE ... RETURNING est émise.
+     *
+     * @return l'utilisateur modifié, vide s'il n'existe pas
+     */
+    Optional<User> updateStatusReturning(Long id, UserStatus status);
+
+    /**
+     * Change le rôle d'un utilisateur et retourne son nouvel état.
+     * Sur PostgreSQL, une seule requête UPDATE ... RETURNING est émise.
+     *
+     * @return l'utilisateur modifié, vide s'il n'existe pas
+     */
+    Optional<User> updateRoleReturning(Long id, UserRole role);
+}
@@ -0,0 +1,309 @@
+package com.example.clientapi.repository;
+
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import jakarta.persistence.Cache;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Implémentation des requêtes personnalisées de {@link UserRepositoryCustom}.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    // Région du cache de requêtes de la répartition géographique
+    static final String GEO_COUNTS_CACHE_REGION = "users-geo-counts";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Support de UPDATE ... RETURNING, déterminé à partir du dialecte au premier appel ;
+    // volatile : le repository est partagé entre les threads des requêtes
+    private volatile Boolean returningSupported;
+
+    @Override
+    public Stream<User> streamByCriteria(UserStatus status, UserRole role, String city, int fetchSize) {
+        String jpql = "SELECT u FROM User u WHERE 1 = 1" + criteriaClause(status, role, city) + " ORDER BY u.id";
+
+        TypedQuery<User> query = entityManager.createQuery(jpql, User.class);
+        bindCriteria(query, status, role, city);
+
+        // Curseur serveur : lignes lues par paquets, entités non suivies pour le dirty checking
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        query.setHint(HibernateHints.HINT_CACHEABLE, false);
+        // Un parcours complet ne doit pas évincer les entrées utiles du cache de second niveau
+        query.setHint(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        // ni consulter : propre à l'instance, il peut ignorer une modification faite par une autre
+        query.setHint(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+
+        return query.getResultStream();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByNaturalEmail(String emailNormalized) {
+        if (emailNormalized == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(emailNormalized);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findAllByIdUsingCache(List<Long> ids, int batchSize) {
+        List<User> users = entityManager.unwrap(Session.class)
+                .byMultipleIds(User.class)
+                .with(CacheMode.NORMAL)
+                .withBatchSize(batchSize)
+                .multiLoad(ids);
+        // Les identifiants introuvables sont représentés par null
+        return users.stream().filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public List<UserGeoCount> countByGeography(UserStatus status, UserRole role) {
+        String jpql = "SELECT new com.example.clientapi.repository.UserGeoCount(" +
+                "u.country, LOWER(u.city), SUBSTRING(u.postalCode, 1, 2), COUNT(u)) " +
+                "FROM User u WHERE 1 = 1" + criteriaClause(status, role, null) +
+                " GROUP BY u.country, LOWER(u.city), SUBSTRING(u.postalCode, 1, 2)";
+
+        TypedQuery<UserGeoCount> query = entityManager.createQuery(jpql, UserGeoCount.class);
+        bindCriteria(query, status, role, null);
+        // Cache de requêtes dans sa propre région : invalidé à la validation des écritures de l'instance,
+        // et borné à 1 min pour celles des autres instances (application.conf)
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        query.setHint(HibernateHints.HINT_CACHE_REGION, GEO_COUNTS_CACHE_REGION);
+        return query.getResultList();
+    }
+
+    @Override
+    public List<Long> findIdsForStatusUpdate(UserStatus newStatus, UserStatus status, UserRole role, String city,
+                                             Long excludedId, long afterId, int limit) {
+        return findIdsToUpdate("status", newStatus, status, role, city, excludedId, afterId, limit);
+    }
+
+    @Override
+    public List<Long> findIdsForRoleUpdate(UserRole newRole, UserStatus status, UserRole role, String city,
+                                           Long excludedId, long afterId, int limit) {
+        return findIdsToUpdate("role", newRole, status, role, city, excludedId, afterId, limit);
+    }
+
+    private List<Long> findIdsToUpdate(String attribute, Object value, UserStatus status, UserRole role,
+                                       String city, Long excludedId, long afterId, int limit) {
+        String jpql = "SELECT u.id FROM User u WHERE u.id > :afterId AND u." + attribute + " <> :value" +
+                (excludedId != null ? " AND u.id <> :excludedId" : "") +
+                criteriaClause(status, role, city) + " ORDER BY u.id";
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql, Long.class);
+        query.setParameter("afterId", afterId);
+        query.setParameter("value", value);
+        if (excludedId != null) {
+            query.setParameter("excludedId", excludedId);
+        }
+        bindCriteria(query, status, role, city);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public int updateAttributes(Long id, Map<String, Object> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = cb.createCriteriaUpdate(User.class);
+        Root<User> root = update.from(User.class);
+
+        attributes.forEach((attribute, value) -> {
+            Path<Object> path = root.get(attribute);
+            if (value == null) {
+                @SuppressWarnings("unchecked")
+                Class<Object> type = (Class<Object>) path.getJavaType();
+                update.set(path, cb.nullLiteral(type));
+            } else {
+                update.set(path, value);
+            }
+        });
+        // @UpdateTimestamp n'est pas appliqué aux requêtes UPDATE explicites
+        update.set(root.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.where(cb.equal(root.get("id"), id));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<Long> updateStatusByIds(Collection<Long> ids, UserStatus newStatus, LocalDateTime now) {
+        return updateColumnByIds(ids, "status", "status", newStatus, now);
+    }
+
+    @Override
+    public List<Long> updateRoleByIds(Collection<Long> ids, UserRole newRole, LocalDateTime now) {
+        return updateColumnByIds(ids, "role", "role", newRole, now);
+    }
+
+    private List<Long> updateColumnByIds(Collection<Long> ids, String attribute, String column, Enum<?> value,
+                                         LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        if (isReturningSupported()) {
+            @SuppressWarnings("unchecked")
+            List<Number> updated = entityManager.createNativeQuery(
+                            "UPDATE users SET " + column + " = :value, updated_at = :now " +
+                                    "WHERE id IN (:ids) AND " + column + " <> :value RETURNING id")
+                    .setParameter("value", value.name())
+                    .setParameter("now", now)
+                    .setParameter("ids", ids)
+                    .getResultList();
+            List<Long> updatedIds = updated.stream().map(Number::longValue).toList();
+            evictAfterNativeUpdate(updatedIds);
+            return updatedIds;
+        }
+
+        // Lignes verrouillées jusqu'à la fin de la transaction : la liste lue est celle des lignes écrites
+        List<Long> changed = entityManager.createQuery(
+                        "SELECT u.id FROM User u WHERE u.id IN :ids AND u." + attribute + " <> :value", Long.class)
+                .setParameter("ids", ids)
+                .setParameter("value", value)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (!changed.isEmpty()) {
+            entityManager.createQuery(
+                            "UPDATE User u SET u." + attribute + " = :value, u.updatedAt = :now WHERE u.id IN :ids")
+                    .setParameter("value", value)
+                    .setParameter("now", now)
+                    .setParameter("ids", changed)
+                    .executeUpdate();
+        }
+        return changed;
+    }
+
+    @Override
+    public Optional<User> updateStatusReturning(Long id, UserStatus status) {
+        return updateColumnReturning(id, "status", "status", status);
+    }
+
+    @Override
+    public Optional<User> updateRoleReturning(Long id, UserRole role) {
+        return updateColumnReturning(id, "role", "role", role);
+    }
+
+    private Optional<User> updateColumnReturning(Long id, String attribute, String column, Enum<?> value) {
+        LocalDateTime now = LocalDateTime.now();
+        // Une instance déjà chargée masquerait les valeurs retournées par la base
+        entityManager.flush();
+        entityManager.clear();
+
+        if (isReturningSupported()) {
+            @SuppressWarnings("unchecked")
+            List<User> updated = entityManager.createNativeQuery(
+                            "UPDATE users SET " + column + " = :value, updated_at = :now " +
+                                    "WHERE id = :id RETURNING *", User.class)
+                    .setParameter("value", value.name())
+                    .setParameter("now", now)
+                    .setParameter("id", id)
+                    .getResultList();
+            evictAfterNativeUpdate(List.of(id));
+            return updated.stream().findFirst();
+        }
+
+        int updated = entityManager.createQuery(
+                        "UPDATE User u SET u." + attribute + " = :value, u.updatedAt = :now WHERE u.id = :id")
+                .setParameter("value", value)
+                .setParameter("now", now)
+                .setParameter("id", id)
+                .executeUpdate();
+        return updated == 0 ? Optional.empty() : Optional.ofNullable(entityManager.find(User.class, id));
+    }
+
+    /**
+     * Exécutée comme une lecture, la requête native n'invalide pas le cache de second niveau :
+     * les entités et les résultats de requêtes en cache sont évincés maintenant, puis de nouveau
+     * après la validation pour écarter une relecture concurrente de l'ancien état.
+     */
+    private void evictAfterNativeUpdate(Collection<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        Runnable evict = () -> {
+            ids.forEach(id -> cache.evict(User.class, id));
+            cache.unwrap(org.hibernate.Cache.class).evictQueryRegions();
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    private boolean isReturningSupported() {
+        if (returningSupported == null) {
+            returningSupported = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect;
+        }
+        return returningSupported;
+    }
+
+    /**
+     * Construit uniquement les prédicats correspondant aux critères renseignés.
+     */
+    private String criteriaClause(UserStatus status, UserRole role, String city) {
+        StringBuilder clause = new StringBuilder();
+        if (status != null) {
+            clause.append(" AND u.status = :status");
+        }
+        if (role != null) {
+            clause.append(" AND u.role = :role");
+        }
+        if (city != null) {
+            clause.append(" AND LOWER(u.city) = LOWER(:city)");
+        }
+        return clause.toString();
+    }
+
+    private void bindCriteria(Query query, UserStatus status, UserRole role, String city) {
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (role != null) {
+            query.setParameter("role", role);
+        }
+        if (city != null) {
+            query.setParameter("city", city);
+        }
+    }
+}
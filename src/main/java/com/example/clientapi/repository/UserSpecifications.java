@@ -0,0 +1,99 @@
+package com.example.clientapi.repository;
+
+import com.example.clientapi.dto.UserFilterDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Spécifications de filtrage des utilisateurs.
+ *
+ * Chaque prédicat est écrit pour correspondre à un index : comparaison directe de la colonne,
+ * valeur normalisée côté Java plutôt qu'une fonction appliquée au paramètre,
+ * et préfixe ancré pour les LIKE.
+ */
+public final class UserSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private UserSpecifications() {}
+
+    /**
+     * Combine uniquement les critères renseignés du filtre.
+     */
+    public static Specification<User> fromFilter(UserFilterDto filter) {
+        Specification<User> spec = Specification.where(null);
+        if (filter.getStatus() != null) {
+            spec = spec.and(hasStatus(filter.getStatus()));
+        }
+        if (filter.getRole() != null) {
+            spec = spec.and(hasRole(filter.getRole()));
+        }
+        if (hasText(filter.getCity())) {
+            spec = spec.and(cityEqualsIgnoreCase(filter.getCity().trim()));
+        }
+        if (hasText(filter.getCountry())) {
+            spec = spec.and(hasCountry(filter.getCountry().trim()));
+        }
+        if (hasText(filter.getPostalCodePrefix())) {
+            spec = spec.and(postalCodeStartsWith(filter.getPostalCodePrefix().trim()));
+        }
+        if (hasText(filter.getCompanyName())) {
+            spec = spec.and(hasCompanyName(filter.getCompanyName().trim()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            spec = spec.and(createdFrom(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            spec = spec.and(createdBefore(filter.getCreatedTo()));
+        }
+        return spec;
+    }
+
+    public static Specification<User> hasStatus(UserStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<User> hasRole(UserRole role) {
+        return (root, query, cb) -> cb.equal(root.get("role"), role);
+    }
+
+    /**
+     * Seule la colonne passe par lower() afin de correspondre à un index fonctionnel sur lower(city).
+     */
+    public static Specification<User> cityEqualsIgnoreCase(String city) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("city")), city.toLowerCase(Locale.ROOT));
+    }
+
+    public static Specification<User> hasCountry(String country) {
+        return (root, query, cb) -> cb.equal(root.get("country"), country);
+    }
+
+    public static Specification<User> postalCodeStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(root.get("postalCode"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<User> hasCompanyName(String companyName) {
+        return (root, query, cb) -> cb.equal(root.get("companyName"), companyName);
+    }
+
+    public static Specification<User> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<User> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.clientapi.repository;
+
+import com.example.clientapi.entity.UserTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository des suppressions d'utilisateurs publiées dans le flux de modifications.
+ */
+@Repository
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, Long> {
+
+    /**
+     * Suppressions strictement postérieures à la position (deletedAt, userId) et antérieures
+     * ou égales à {@code upTo}, dans l'ordre du flux (parcours de l'index deleted_at, user_id).
+     */
+    @Query("SELECT t FROM UserTombstone t " +
+            "WHERE (t.deletedAt > :after OR (t.deletedAt = :after AND t.userId > :afterId)) " +
+            "AND t.deletedAt <= :upTo " +
+            "ORDER BY t.deletedAt, t.userId")
+    List<UserTombstone> findDeletedAfter(@Param("after") LocalDateTime after,
+                                         @Param("afterId") long afterId,
+                                         @Param("upTo") LocalDateTime upTo,
+                                         Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.example.clientapi.security;
+
+import com.example.clientapi.entity.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Règles d'autorisation utilisées dans les expressions {@code @PreAuthorize}.
+ *
+ * Le principal authentifié est l'entité {@link User} chargée par le filtre JWT :
+ * la vérification de propriété est une simple comparaison d'identifiants, sans requête.
+ */
+@Component("userSecurity")
+public class UserSecurity {
+
+    /**
+     * Vérifie si l'utilisateur connecté est propriétaire de l'ID donné.
+     */
+    public boolean isOwner(Long userId, Authentication authentication) {
+        return userId != null
+                && authentication != null
+                && authentication.getPrincipal() instanceof User user
+                && userId.equals(user.getId());
+    }
+}
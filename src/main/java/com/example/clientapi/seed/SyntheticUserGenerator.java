@@ -0,0 +1,208 @@
+package com.example.clientapi.seed;
+
+import com.example.clientapi.entity.UserStatus;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Génère des clients professionnels français synthétiques (cafés, brasseries, hôtels...).
+ *
+ * Chaque utilisateur ne dépend que de la graine et de son rang : la génération est déterministe,
+ * parallélisable sans coordination, et un rang donné produit toujours le même utilisateur.
+ * L'email commence par le rang sur largeur fixe ({@link #emailPrefix(long)}), ce qui rend une plage
+ * de rangs contiguë dans l'index unique de l'email normalisé.
+ */
+public class SyntheticUserGenerator {
+
+    /**
+     * Nombre maximal d'utilisateurs générés (rang sur neuf chiffres).
+     */
+    public static final long MAX_USERS = 1_000_000_000L;
+
+    private static final String EMAIL_PREFIX = "client";
+
+    private static final String[] FIRST_NAMES = {
+            "Jean", "Marie", "Pierre", "Sophie", "Nicolas", "Camille", "Julien", "Léa", "Thomas", "Chloé",
+            "François", "Hélène", "Antoine", "Émilie", "Jérôme", "Manon", "Mathieu", "Inès", "Sébastien", "Zoé",
+            "Laurent", "Céline", "Olivier", "Amélie", "Guillaume", "Margaux", "Benoît", "Élodie", "Maxime", "Anaïs"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau",
+            "Simon", "Laurent", "Lefèbvre", "Michel", "Garcia", "David", "Bertrand", "Roux", "Vincent", "Fournier",
+            "Morel", "Girard", "André", "Mercier", "Dupont", "Lambert", "Bonnet", "François", "Martinez", "Legrand"
+    };
+
+    private static final String[] BUSINESS_TYPES = {
+            "Café", "Brasserie", "Restaurant", "Boulangerie", "Hôtel", "Bar", "Salon de thé", "Bistrot",
+            "Épicerie fine", "Torréfaction", "Pâtisserie", "Traiteur"
+    };
+
+    private static final String[] BUSINESS_NAMES = {
+            "du Port", "des Arts", "de la Gare", "du Marché", "Saint-Michel", "Le Central", "des Halles",
+            "du Commerce", "de la Place", "du Théâtre", "des Voyageurs", "de l'Hôtel de Ville"
+    };
+
+    private static final String[] STREET_TYPES = {"rue", "avenue", "boulevard", "place", "quai", "impasse"};
+
+    private static final String[] STREET_NAMES = {
+            "de la République", "Victor Hugo", "Jean Jaurès", "du Général de Gaulle", "Pasteur", "de la Liberté",
+            "des Lilas", "Gambetta", "Voltaire", "de Verdun", "du Moulin", "Carnot", "de la Paix", "Émile Zola"
+    };
+
+    // Villes pondérées par leur poids relatif ; les codes postaux vont de base à base + districts - 1
+    private static final City[] CITIES = weighted(
+            new City("Paris", 75001, 20, 10), new City("Lyon", 69001, 9, 4), new City("Marseille", 13001, 16, 4),
+            new City("Toulouse", 31000, 1, 2), new City("Nice", 6000, 1, 2), new City("Nantes", 44000, 1, 2),
+            new City("Strasbourg", 67000, 1, 2), new City("Montpellier", 34000, 1, 2),
+            new City("Bordeaux", 33000, 1, 2), new City("Lille", 59000, 1, 2), new City("Rennes", 35000, 1, 1),
+            new City("Reims", 51100, 1, 1), new City("Le Havre", 76600, 1, 1), new City("Saint-Étienne", 42000, 1, 1),
+            new City("Toulon", 83000, 1, 1), new City("Grenoble", 38000, 1, 1), new City("Dijon", 21000, 1, 1),
+            new City("Angers", 49000, 1, 1), new City("Nîmes", 30000, 1, 1), new City("Annecy", 74000, 1, 1),
+            new City("Clermont-Ferrand", 63000, 1, 1), new City("Brest", 29200, 1, 1), new City("Tours", 37000, 1, 1));
+
+    // Formes ASCII des noms, calculées une fois : la normalisation Unicode domine sinon le coût de génération
+    private static final String[] FIRST_NAME_SLUGS = slugs(FIRST_NAMES, ".");
+    private static final String[] LAST_NAME_SLUGS = slugs(LAST_NAMES, ".");
+    private static final String[] BUSINESS_TYPE_SLUGS = slugs(BUSINESS_TYPES, "-");
+    private static final String[] BUSINESS_NAME_SLUGS = slugs(BUSINESS_NAMES, "-");
+
+    private final long seed;
+    private final LocalDateTime referenceTime;
+    private final long historySeconds;
+
+    /**
+     * @param seed          graine de la génération
+     * @param referenceTime date de référence : les inscriptions la précèdent
+     * @param historyDays   profondeur de l'historique des inscriptions, en jours
+     */
+    public SyntheticUserGenerator(long seed, LocalDateTime referenceTime, int historyDays) {
+        if (historyDays <= 0) {
+            throw new IllegalArgumentException("La profondeur de l'historique doit être positive");
+        }
+        this.seed = seed;
+        this.referenceTime = referenceTime;
+        this.historySeconds = historyDays * 86_400L;
+    }
+
+    /**
+     * Début de l'email normalisé des utilisateurs du rang donné. Les emails des rangs
+     * [from, to) sont exactement ceux compris entre {@code emailPrefix(from)} inclus
+     * et {@code emailPrefix(to)} exclu.
+     */
+    public static String emailPrefix(long index) {
+        return EMAIL_PREFIX + zeroPadded(index, 9);
+    }
+
+    /**
+     * Utilisateur synthétique du rang donné.
+     */
+    public SyntheticUser generate(long index) {
+        if (index < 0 || index >= MAX_USERS) {
+            throw new IllegalArgumentException("Rang hors limites: " + index);
+        }
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+
+        int first = random.nextInt(FIRST_NAMES.length);
+        int last = random.nextInt(LAST_NAMES.length);
+        int type = random.nextInt(BUSINESS_TYPES.length);
+        String companyName;
+        String domain;
+        if (random.nextInt(10) == 0) {
+            companyName = BUSINESS_TYPES[type] + " Chez " + FIRST_NAMES[first];
+            domain = BUSINESS_TYPE_SLUGS[type] + "-chez-" + FIRST_NAME_SLUGS[first].replace('.', '-');
+        } else {
+            int name = random.nextInt(BUSINESS_NAMES.length);
+            companyName = BUSINESS_TYPES[type] + " " + BUSINESS_NAMES[name];
+            domain = BUSINESS_TYPE_SLUGS[type] + "-" + BUSINESS_NAME_SLUGS[name];
+        }
+        City city = CITIES[random.nextInt(CITIES.length)];
+
+        String email = emailPrefix(index) + "." + FIRST_NAME_SLUGS[first] + "." + LAST_NAME_SLUGS[last]
+                + "@" + domain + ".fr";
+        String phone = "0" + (1 + random.nextInt(7)) + " " + zeroPadded(random.nextInt(100), 2)
+                + " " + zeroPadded(random.nextInt(100), 2) + " " + zeroPadded(random.nextInt(100), 2)
+                + " " + zeroPadded(random.nextInt(100), 2);
+        String address = (1 + random.nextInt(150)) + " " + pick(random, STREET_TYPES)
+                + " " + pick(random, STREET_NAMES);
+        String postalCode = zeroPadded(city.postalCodeBase() + random.nextInt(city.districts()), 5);
+
+        LocalDateTime createdAt = referenceTime.minusSeconds(1 + random.nextLong(historySeconds));
+        long sinceCreation = Duration.between(createdAt, referenceTime).getSeconds();
+        // Un client sur quatre modifié depuis son inscription
+        LocalDateTime updatedAt = random.nextInt(4) == 0
+                ? createdAt.plusSeconds(random.nextLong(sinceCreation))
+                : createdAt;
+
+        return new SyntheticUser(FIRST_NAMES[first], LAST_NAMES[last], email, phone, address, city.name(),
+                postalCode, "France", companyName, status(random), createdAt, updatedAt);
+    }
+
+    /**
+     * Répartition des statuts d'un portefeuille de clients établi : une majorité d'actifs.
+     */
+    private static UserStatus status(SplittableRandom random) {
+        int draw = random.nextInt(100);
+        if (draw < 85) {
+            return UserStatus.ACTIVE;
+        }
+        if (draw < 93) {
+            return UserStatus.INACTIVE;
+        }
+        return draw < 98 ? UserStatus.PENDING : UserStatus.SUSPENDED;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Forme ASCII en minuscules, sans accents, les autres caractères remplacés par le séparateur.
+     */
+    static String slug(String value, String separator) {
+        String ascii = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return ascii.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", separator)
+                .replaceAll("^\\W+|\\W+$", "");
+    }
+
+    private static String[] slugs(String[] values, String separator) {
+        String[] slugs = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            slugs[i] = slug(values[i], separator);
+        }
+        return slugs;
+    }
+
+    private static String zeroPadded(long value, int width) {
+        String digits = Long.toString(value);
+        return digits.length() >= width ? digits : "0".repeat(width - digits.length()) + digits;
+    }
+
+    private static City[] weighted(City... cities) {
+        List<City> draws = new ArrayList<>();
+        for (City city : cities) {
+            for (int i = 0; i < city.weight(); i++) {
+                draws.add(city);
+            }
+        }
+        return draws.toArray(City[]::new);
+    }
+
+    private record City(String name, int postalCodeBase, int districts, int weight) {
+    }
+
+    /**
+     * Utilisateur généré, colonnes de la table users hors identifiant, mot de passe et rôle.
+     */
+    public record SyntheticUser(String firstName, String lastName, String email, String phone, String address,
+                                String city, String postalCode, String country, String companyName,
+                                UserStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.clientapi.seed;
+
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.seed.SyntheticUserGenerator.SyntheticUser;
+import com.example.clientapi.service.UserRegistrationStatsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Peuple la base avec des clients synthétiques pour le développement et les tests de performance.
+ *
+ * Les utilisateurs sont produits par {@link SyntheticUserGenerator} et insérés par lots JDBC,
+ * un lot par transaction, plusieurs lots en parallèle. Le mot de passe, identique pour tous,
+ * n'est haché qu'une fois. L'opération est idempotente : un lot déjà présent en base est ignoré,
+ * un redémarrage ne fait qu'ajouter les lots manquants (volume augmenté, peuplement interrompu).
+ *
+ * Les insertions contournent Hibernate et l'outbox : la table des inscriptions quotidiennes
+ * est reconstruite et le cache de second niveau vidé à la fin. Le peuplement s'exécute après
+ * la création des comptes par défaut ({@link com.example.clientapi.service.DataInitializer}),
+ * que la reconstruction comptabilise aussi, avant le préchauffage et le chargement des vues en mémoire.
+ *
+ * Les lignes insérées portent un updated_at historique : un consommateur du flux de modifications
+ * dont le curseur est plus récent ne les voit pas et doit se resynchroniser depuis un curseur vide.
+ */
+@Component
+@Profile({"dev", "perf"})
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SyntheticUserSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticUserSeeder.class);
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (first_name, last_name, email, email_normalized, password, phone, address, city, " +
+            "postal_code, country, company_name, status, role, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String COUNT_RANGE =
+            "SELECT COUNT(*) FROM users WHERE email_normalized >= ? AND email_normalized < ?";
+
+    private static final String DELETE_RANGE =
+            "DELETE FROM users WHERE email_normalized >= ? AND email_normalized < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final UserRegistrationStatsService registrationStatsService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SyntheticUserGenerator generator;
+    private final long users;
+    private final int batchSize;
+    private final int parallelism;
+    private final String password;
+
+    @Autowired
+    public SyntheticUserSeeder(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               PasswordEncoder passwordEncoder,
+                               UserRegistrationStatsService registrationStatsService,
+                               EntityManagerFactory entityManagerFactory,
+                               @Value("${app.seed.users:0}") long users,
+                               @Value("${app.seed.random-seed:42}") long randomSeed,
+                               @Value("${app.seed.reference-date:2025-01-01}") LocalDate referenceDate,
+                               @Value("${app.seed.history-days:1095}") int historyDays,
+                               @Value("${app.seed.batch-size:1000}") int batchSize,
+                               @Value("${app.seed.parallelism:4}") int parallelism,
+                               @Value("${app.seed.password:password123}") String password) {
+        if (users < 0 || users > SyntheticUserGenerator.MAX_USERS) {
+            throw new IllegalArgumentException("Le nombre d'utilisateurs à générer doit être compris entre 0 et "
+                    + SyntheticUserGenerator.MAX_USERS);
+        }
+        if (batchSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("La taille des lots et le parallélisme doivent être positifs");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        // Écritures : transactions sur la base primaire
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.registrationStatsService = registrationStatsService;
+        this.entityManagerFactory = entityManagerFactory;
+        this.generator = new SyntheticUserGenerator(randomSeed, referenceDate.atStartOfDay(), historyDays);
+        this.users = users;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.password = password;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (users == 0) {
+            return;
+        }
+        logger.info("🌱 Peuplement de {} clients synthétiques (lots de {}, {} en parallèle)",
+                users, batchSize, parallelism);
+        long start = System.nanoTime();
+
+        String passwordHash = passwordEncoder.encode(password);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        long inserted = 0;
+        try {
+            List<Future<Integer>> batches = new ArrayList<>();
+            for (long from = 0; from < users; from += batchSize) {
+                long batchStart = from;
+                long batchEnd = Math.min(from + batchSize, users);
+                batches.add(executor.submit(() -> seedBatch(batchStart, batchEnd, passwordHash)));
+            }
+            for (Future<Integer> batch : batches) {
+                inserted += batch.get();
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Échec du peuplement des clients synthétiques", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (inserted > 0) {
+            registrationStatsService.rebuild();
+            // Entités et requêtes mises en cache avant des insertions inconnues d'Hibernate
+            entityManagerFactory.getCache().evictAll();
+            logger.warn("Clients insérés avec un updated_at historique : les consommateurs du flux "
+                    + "de modifications doivent se resynchroniser depuis un curseur vide");
+        }
+        logger.info("✅ Peuplement terminé: {} clients insérés, {} déjà présents, en {} ms",
+                inserted, users - inserted, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /**
+     * Insère les utilisateurs des rangs [from, to) dans une transaction, sauf s'ils sont déjà tous présents.
+     *
+     * @return le nombre d'utilisateurs insérés
+     */
+    private int seedBatch(long from, long to, String passwordHash) {
+        String lower = SyntheticUserGenerator.emailPrefix(from);
+        String upper = SyntheticUserGenerator.emailPrefix(to);
+
+        Integer inserted = transactionTemplate.execute(status -> {
+            Long existing = jdbcTemplate.queryForObject(COUNT_RANGE, Long.class, lower, upper);
+            if (existing != null && existing == to - from) {
+                return 0;
+            }
+            if (existing != null && existing > 0) {
+                // Lot incomplet (taille des lots modifiée entre deux exécutions) : réinséré en entier
+                jdbcTemplate.update(DELETE_RANGE, lower, upper);
+            }
+
+            List<Object[]> rows = new ArrayList<>((int) (to - from));
+            for (long index = from; index < to; index++) {
+                rows.add(row(generator.generate(index), passwordHash));
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER, rows);
+            return rows.size();
+        });
+        return inserted == null ? 0 : inserted;
+    }
+
+    private static Object[] row(SyntheticUser user, String passwordHash) {
+        return new Object[]{
+                user.firstName(), user.lastName(), user.email(), User.normalizeEmail(user.email()), passwordHash,
+                user.phone(), user.address(), user.city(), user.postalCode(), user.country(), user.companyName(),
+                user.status().name(), UserRole.CLIENT.name(),
+                Timestamp.valueOf(user.createdAt()), Timestamp.valueOf(user.updatedAt())
+        };
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.clientapi.service;
 
+import com.example.clientapi.config.RecentWriteTracker;
+import com.example.clientapi.dto.UserDto;
 import com.example.clientapi.dto.auth.AdminRegisterRequest;
 import com.example.clientapi.dto.auth.AuthResponse;
 import com.example.clientapi.dto.auth.LoginRequest;
 import com.example.clientapi.dto.auth.RegisterRequest;
 import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserEventType;
 import com.example.clientapi.entity.UserRole;
 import com.example.clientapi.entity.UserStatus;
 import com.example.clientapi.exception.EmailAlreadyExistsException;
+import com.example.clientapi.outbox.UserEventOutbox;
 import com.example.clientapi.repository.UserRepository;
 import com.example.clientapi.security.JwtUtils;
 import org.slf4j.Logger;
@@ -25,7 +29,8 @@ import org.springframework.transaction.annotation.Transactional;
  * Service d'authentification pour la gestion des connexions et inscriptions.
  */
 @Service
-@Transactional
+// Écritures bornées en durée : le flux de modifications ne publie une ligne qu'une fois ce délai écoulé
+@Transactional(timeoutString = "${app.users.write-timeout-seconds:3}")
 public class AuthService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
@@ -42,6 +47,15 @@ public class AuthService {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private RecentWriteTracker recentWriteTracker;
+
+    @Autowired
+    private UserEventOutbox userEventOutbox;
+
+    @Autowired
+    private UserRegistrationStatsService registrationStatsService;
+
     /**
      * Authentifie un utilisateur et retourne un token JWT.
      */
@@ -93,6 +107,9 @@ public class AuthService {
         user.setStatus(UserStatus.ACTIVE);
 
         User savedUser = userRepository.save(user);
+        // L'inscription est anonyme : le nouvel utilisateur lit ensuite ses données sur la primaire
+        recentWriteTracker.markWrite(savedUser.getEmail());
+        recordCreated(savedUser);
 
         // Génération du token JWT
         String jwt = jwtUtils.generateTokenFromUsername(savedUser.getEmail());
@@ -125,6 +142,9 @@ public class AuthService {
         user.setStatus(UserStatus.ACTIVE);
 
         User savedUser = userRepository.save(user);
+        // L'inscription est anonyme : le nouvel utilisateur lit ensuite ses données sur la primaire
+        recentWriteTracker.markWrite(savedUser.getEmail());
+        recordCreated(savedUser);
 
         // Génération du token JWT
         String jwt = jwtUtils.generateTokenFromUsername(savedUser.getEmail());
@@ -142,4 +162,12 @@ public class AuthService {
     public boolean emailExists(String email) {
         return userRepository.existsByEmail(email);
     }
-}
\ No newline at end of file
+
+    /**
+     * Comptabilise l'inscription et l'enregistre dans l'outbox, dans la transaction de l'inscription.
+     */
+    private void recordCreated(User user) {
+        registrationStatsService.recordRegistration(user);
+        userEventOutbox.record(UserEventType.USER_CREATED, user.getId(), UserDto.from(user));
+    }
+}
@@ -8,17 +8,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
 /**
  * Initialise les données par défaut au démarrage de l'application en mode développement.
  *
- * Cette classe s'exécute uniquement avec le profil 'dev' et crée automatiquement
- * des comptes administrateur et client pour faciliter les tests.
+ * Cette classe s'exécute uniquement avec les profils 'dev' et 'perf' et crée automatiquement
+ * des comptes administrateur et client pour faciliter les tests. Les volumes importants de
+ * clients synthétiques sont créés par {@link com.example.clientapi.seed.SyntheticUserSeeder}, qui
+ * s'exécute ensuite et reconstruit les compteurs d'inscriptions en incluant ces comptes.
  */
 @Component
-// @Profile("dev") // S'exécute uniquement en mode développement
+@Profile({"dev", "perf"})
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class DataInitializer implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
@@ -29,6 +39,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    // Hachages BCrypt déjà calculés, par mot de passe en clair : un seul calcul par mot de passe
+    private final Map<String, String> passwordHashes = new HashMap<>();
+
     @Override
     public void run(String... args) throws Exception {
         logger.info("🚀 Initialisation des données de développement...");
@@ -122,16 +135,17 @@ public class DataInitializer implements CommandLineRunner {
     private User createUserIfNotExists(String firstName, String lastName, String email,
                                        String password, UserRole role, String description) {
 
-        if (userRepository.existsByEmail(email)) {
+        Optional<User> existing = userRepository.findByEmail(email);
+        if (existing.isPresent()) {
             logger.debug("⏭️ Utilisateur {} existe déjà, passage au suivant", email);
-            return userRepository.findByEmail(email).orElse(null);
+            return existing.get();
         }
 
         User user = new User();
         user.setFirstName(firstName);
         user.setLastName(lastName);
         user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHashes.computeIfAbsent(password, passwordEncoder::encode));
         user.setRole(role);
         user.setStatus(UserStatus.ACTIVE);
 
@@ -0,0 +1,113 @@
+package com.example.clientapi.service;
+
+import com.example.clientapi.dto.BatchGetRequestDto;
+import com.example.clientapi.dto.BatchGetResponseDto;
+import com.example.clientapi.dto.UserDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Service de récupération groupée des utilisateurs, destiné aux autres microservices
+ * (commandes, livraisons) qui résolvent plusieurs clients à la fois.
+ *
+ * Les identifiants sont résolus via le cache de second niveau, les absents par requêtes {@code IN}
+ * découpées en lots ; les emails par requêtes {@code IN} sur l'email normalisé, via une projection DTO.
+ */
+@Service
+public class UserBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchService.class);
+
+    private final UserRepository userRepository;
+    private final int maxKeys;
+    private final int chunkSize;
+
+    @Autowired
+    public UserBatchService(UserRepository userRepository,
+                            @Value("${app.users.batch-get.max-keys:500}") int maxKeys,
+                            @Value("${app.users.batch-get.chunk-size:200}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.maxKeys = maxKeys;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Récupère les utilisateurs correspondant aux identifiants et emails demandés.
+     *
+     * @param requesterId    identifiant de l'appelant, utilisé lorsqu'il n'est pas administrateur
+     * @param requesterEmail email de l'appelant, utilisé lorsqu'il n'est pas administrateur
+     * @param admin          si l'appelant peut consulter tous les utilisateurs
+     */
+    @Transactional(readOnly = true)
+    public BatchGetResponseDto batchGet(BatchGetRequestDto request, Long requesterId, String requesterEmail,
+                                        boolean admin) {
+        List<Long> ids = request.getIds() == null ? List.of()
+                : new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+        List<String> emails = request.getEmails() == null ? List.of()
+                : new ArrayList<>(new LinkedHashSet<>(request.getEmails()));
+
+        if (ids.isEmpty() && emails.isEmpty()) {
+            throw new IllegalArgumentException("Au moins un identifiant ou un email est requis");
+        }
+        if (ids.contains(null) || emails.contains(null)) {
+            throw new IllegalArgumentException("Les identifiants et emails ne peuvent pas être nuls");
+        }
+        if (ids.size() + emails.size() > maxKeys) {
+            throw new IllegalArgumentException("Le nombre de clés ne peut pas dépasser " + maxKeys);
+        }
+
+        logger.debug("Récupération groupée de {} identifiant(s) et {} email(s)", ids.size(), emails.size());
+
+        // Un non-admin n'obtient que son propre compte : les autres clés ne sont pas recherchées
+        // et sont rapportées introuvables, sans révéler leur existence
+        String requesterNormalizedEmail = User.normalizeEmail(requesterEmail);
+        List<Long> queriedIds = admin ? ids : ids.stream().filter(id -> id.equals(requesterId)).toList();
+        List<String> normalizedEmails = emails.stream()
+                .map(User::normalizeEmail)
+                .distinct()
+                .filter(email -> admin || email.equals(requesterNormalizedEmail))
+                .toList();
+
+        // Par identifiant : les utilisateurs présents dans le cache de second niveau ne sont pas relus
+        Map<Long, UserDto> byId = new LinkedHashMap<>();
+        if (!queriedIds.isEmpty()) {
+            userRepository.findAllByIdUsingCache(queriedIds, chunkSize)
+                    .forEach(user -> byId.put(user.getId(), UserDto.from(user)));
+        }
+        Map<String, UserDto> byEmail = resolve(normalizedEmails, userRepository::findDtosByEmailNormalizedIn,
+                user -> User.normalizeEmail(user.getEmail()));
+
+        Map<Long, UserDto> found = new LinkedHashMap<>(byId);
+        byEmail.values().forEach(user -> found.putIfAbsent(user.getId(), user));
+
+        List<Long> missingIds = ids.stream().filter(id -> !byId.containsKey(id)).toList();
+        List<String> missingEmails = emails.stream()
+                .filter(email -> !byEmail.containsKey(User.normalizeEmail(email)))
+                .toList();
+
+        return new BatchGetResponseDto(new ArrayList<>(found.values()), missingIds, missingEmails);
+    }
+
+    private <K> Map<K, UserDto> resolve(List<K> keys, Function<List<K>, List<UserDto>> query,
+                                        Function<UserDto, K> keyOf) {
+        Map<K, UserDto> resolved = new LinkedHashMap<>();
+        for (int start = 0; start < keys.size(); start += chunkSize) {
+            List<K> chunk = keys.subList(start, Math.min(start + chunkSize, keys.size()));
+            query.apply(chunk).forEach(user -> resolved.put(keyOf.apply(user), user));
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.clientapi.service;
+
+import com.example.clientapi.config.RecentWriteTracker;
+import com.example.clientapi.dto.BulkUserFilterDto;
+import com.example.clientapi.entity.UserEventType;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import com.example.clientapi.outbox.UserEventOutbox;
+import com.example.clientapi.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Service de mise à jour en masse du statut et du rôle des utilisateurs.
+ *
+ * Chaque lot est une requête UPDATE ensembliste validée dans sa propre transaction,
+ * ce qui limite la durée des verrous sur les lignes modifiées. Une sélection par critères
+ * est parcourue par clé ({@code id > dernier identifiant traité}) : seuls les utilisateurs
+ * à modifier sont lus, sans lot vide sur les trous de la séquence.
+ *
+ * Chaque utilisateur effectivement modifié donne lieu à un événement USER_STATUS_CHANGED ou
+ * USER_ROLE_CHANGED, écrit dans l'outbox dans la transaction de son lot.
+ *
+ * L'auteur de la mise à jour n'est jamais modifié, et un lot qui laisserait l'application
+ * sans administrateur actif est annulé.
+ */
+@Service
+public class UserBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBulkService.class);
+
+    private final UserRepository userRepository;
+    private final UserEventOutbox userEventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final RecentWriteTracker recentWriteTracker;
+    private final int chunkSize;
+
+    @Autowired
+    public UserBulkService(UserRepository userRepository, UserEventOutbox userEventOutbox,
+                           PlatformTransactionManager transactionManager, RecentWriteTracker recentWriteTracker,
+                           @Value("${app.bulk.chunk-size:1000}") int chunkSize,
+                           @Value("${app.users.write-timeout-seconds:3}") int writeTimeoutSeconds) {
+        this.userRepository = userRepository;
+        this.userEventOutbox = userEventOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Lots bornés en durée, comme toute écriture publiée par le flux de modifications
+        this.transactionTemplate.setTimeout(writeTimeoutSeconds);
+        this.recentWriteTracker = recentWriteTracker;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Change le statut des utilisateurs sélectionnés.
+     *
+     * @param requesterId auteur de la mise à jour, exclu de la sélection ({@code null} si inconnu)
+     */
+    public Map<String, Object> updateStatus(BulkUserFilterDto filter, UserStatus newStatus, Long requesterId) {
+        logger.info("Mise à jour en masse du statut vers: {}", newStatus);
+        validateFilter(filter);
+
+        return execute(filter, requesterId, newStatus != UserStatus.ACTIVE,
+                ids -> recorded(UserEventType.USER_STATUS_CHANGED, "status", newStatus,
+                        userRepository.updateStatusByIds(ids, newStatus, LocalDateTime.now())),
+                afterId -> userRepository.findIdsForStatusUpdate(newStatus, filter.getStatus(), filter.getRole(),
+                        normalizeCity(filter.getCity()), requesterId, afterId, chunkSize));
+    }
+
+    /**
+     * Change le rôle des utilisateurs sélectionnés.
+     *
+     * @param requesterId auteur de la mise à jour, exclu de la sélection ({@code null} si inconnu)
+     */
+    public Map<String, Object> updateRole(BulkUserFilterDto filter, UserRole newRole, Long requesterId) {
+        logger.info("Mise à jour en masse du rôle vers: {}", newRole);
+        validateFilter(filter);
+
+        return execute(filter, requesterId, newRole != UserRole.ADMIN,
+                ids -> recorded(UserEventType.USER_ROLE_CHANGED, "role", newRole,
+                        userRepository.updateRoleByIds(ids, newRole, LocalDateTime.now())),
+                afterId -> userRepository.findIdsForRoleUpdate(newRole, filter.getStatus(), filter.getRole(),
+                        normalizeCity(filter.getCity()), requesterId, afterId, chunkSize));
+    }
+
+    /**
+     * @param mayRemoveAdmins la mise à jour peut retirer un administrateur actif (désactivation ou rétrogradation)
+     */
+    private Map<String, Object> execute(BulkUserFilterDto filter, Long requesterId, boolean mayRemoveAdmins,
+                                        ToIntFunction<List<Long>> idsUpdate, LongFunction<List<Long>> nextIds) {
+        long affected = 0;
+        int chunks = 0;
+
+        try {
+            if (filter.hasIds()) {
+                Set<Long> distinct = new LinkedHashSet<>(filter.getIds());
+                distinct.remove(requesterId);
+                List<Long> ids = new ArrayList<>(distinct);
+                for (int start = 0; start < ids.size(); start += chunkSize) {
+                    List<Long> chunk = ids.subList(start, Math.min(start + chunkSize, ids.size()));
+                    affected += inTransaction(() -> guarded(idsUpdate.applyAsInt(chunk), mayRemoveAdmins));
+                    chunks++;
+                }
+            } else {
+                long lastId = 0;
+                while (true) {
+                    long afterId = lastId;
+                    Chunk chunk = transactionTemplate.execute(status -> {
+                        List<Long> ids = nextIds.apply(afterId);
+                        if (ids.isEmpty()) {
+                            return null;
+                        }
+                        return new Chunk(ids.get(ids.size() - 1), ids.size(),
+                                guarded(idsUpdate.applyAsInt(ids), mayRemoveAdmins));
+                    });
+                    if (chunk == null) {
+                        break;
+                    }
+                    affected += chunk.updated();
+                    chunks++;
+                    if (chunk.selected() < chunkSize) {
+                        break;
+                    }
+                    lastId = chunk.lastId();
+                }
+            }
+        } finally {
+            // Les lots déjà validés restent appliqués, y compris si un lot suivant est refusé
+            if (affected > 0) {
+                recentWriteTracker.markWrite(RecentWriteTracker.currentSubject());
+            }
+        }
+
+        logger.info("Mise à jour en masse terminée. Utilisateurs modifiés: {}, Lots: {}", affected, chunks);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("affected", affected);
+        result.put("chunks", chunks);
+        return result;
+    }
+
+    /**
+     * Enregistre dans l'outbox, dans la transaction du lot, un événement par utilisateur effectivement modifié.
+     *
+     * @return le nombre d'utilisateurs modifiés
+     */
+    private int recorded(UserEventType type, String attribute, Enum<?> value, List<Long> updatedIds) {
+        for (Long id : updatedIds) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("id", id);
+            event.put("changes", Map.of(attribute, value));
+            userEventOutbox.record(type, id, event);
+        }
+        return updatedIds.size();
+    }
+
+    /**
+     * Vérifie, dans la transaction du lot, qu'il reste au moins un administrateur actif ;
+     * sinon le lot est annulé.
+     */
+    private int guarded(int updated, boolean mayRemoveAdmins) {
+        if (mayRemoveAdmins && updated > 0
+                && userRepository.countByRoleAndStatus(UserRole.ADMIN, UserStatus.ACTIVE) == 0) {
+            throw new IllegalArgumentException(
+                    "La mise à jour laisserait l'application sans administrateur actif");
+        }
+        return updated;
+    }
+
+    private int inTransaction(IntSupplier update) {
+        Integer updated = transactionTemplate.execute(status -> update.getAsInt());
+        return updated != null ? updated : 0;
+    }
+
+    private void validateFilter(BulkUserFilterDto filter) {
+        if (filter == null || (!filter.hasIds() && !filter.hasCriteria())) {
+            throw new IllegalArgumentException(
+                    "Une liste d'identifiants ou au moins un critère (statut, rôle, ville) est requis");
+        }
+        if (filter.hasIds() && filter.hasCriteria()) {
+            throw new IllegalArgumentException(
+                    "Les identifiants et les critères ne peuvent pas être combinés");
+        }
+    }
+
+    private String normalizeCity(String city) {
+        return city == null || city.isBlank() ? null : city.trim();
+    }
+
+    /**
+     * Lot d'une sélection par critères : dernier identifiant lu, nombre d'identifiants lus et de lignes modifiées.
+     */
+    private record Chunk(long lastId, int selected, int updated) {
+    }
+}
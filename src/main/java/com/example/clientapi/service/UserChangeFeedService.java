@@ -0,0 +1,151 @@
+package com.example.clientapi.service;
+
+import com.example.clientapi.dto.UserChangeDto;
+import com.example.clientapi.dto.UserChangesDto;
+import com.example.clientapi.repository.UserRepository;
+import com.example.clientapi.repository.UserTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Flux de modifications des utilisateurs pour la synchronisation des autres microservices.
+ *
+ * Les créations et mises à jour sont lues sur l'index (updated_at, id) de la table users,
+ * les suppressions sur l'index (deleted_at, user_id) de la table user_tombstones : un consommateur
+ * ne relit que ce qui a changé depuis son curseur.
+ *
+ * Les horodatages sont attribués avant la validation de la transaction : une modification peut
+ * devenir visible après une autre, plus récente. Le flux s'arrête donc à {@code now - safetyLag},
+ * pour ne pas faire avancer un curseur au-delà d'une transaction encore en cours. Cette garantie
+ * repose sur la durée maximale des transactions d'écriture sur users et user_tombstones
+ * ({@code app.users.write-timeout-seconds}, appliquée par {@code UserServiceImpl}, {@code AuthService}
+ * et {@code UserBulkService}) : le délai de sécurité doit la dépasser, ce qui est vérifié au démarrage.
+ */
+@Service
+public class UserChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserChangeFeedService.class);
+
+    // Position de départ d'un consommateur sans curseur
+    private static final LocalDateTime FEED_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final Comparator<UserChangeDto> FEED_ORDER = Comparator
+            .comparing(UserChangeDto::getChangedAt)
+            .thenComparing(UserChangeDto::getId);
+
+    private final UserRepository userRepository;
+    private final UserTombstoneRepository userTombstoneRepository;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final Duration safetyLag;
+
+    @Autowired
+    public UserChangeFeedService(UserRepository userRepository, UserTombstoneRepository userTombstoneRepository,
+                                 @Value("${app.users.changes.default-limit:500}") int defaultLimit,
+                                 @Value("${app.users.changes.max-limit:1000}") int maxLimit,
+                                 @Value("${app.users.changes.safety-lag:5s}") Duration safetyLag,
+                                 @Value("${app.users.write-timeout-seconds:3}") int writeTimeoutSeconds) {
+        if (safetyLag.compareTo(Duration.ofSeconds(writeTimeoutSeconds)) <= 0) {
+            // Une transaction plus longue que le délai de sécurité pourrait valider une ligne déjà dépassée
+            throw new IllegalStateException("app.users.changes.safety-lag (" + safetyLag
+                    + ") doit dépasser app.users.write-timeout-seconds (" + writeTimeoutSeconds + "s)");
+        }
+        this.userRepository = userRepository;
+        this.userTombstoneRepository = userTombstoneRepository;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.safetyLag = safetyLag;
+    }
+
+    /**
+     * Retourne au plus {@code limit} modifications postérieures au curseur, dans l'ordre (changedAt, id).
+     *
+     * @param since curseur retourné par l'appel précédent, ou null pour repartir du début
+     * @param limit taille du lot, ou null pour la taille par défaut
+     */
+    @Transactional(readOnly = true)
+    public UserChangesDto getChanges(String since, Integer limit) {
+        int size = limit == null ? defaultLimit : limit;
+        if (size < 1 || size > maxLimit) {
+            throw new IllegalArgumentException("La taille du lot doit être comprise entre 1 et " + maxLimit);
+        }
+
+        Cursor cursor = since == null || since.isBlank() ? new Cursor(FEED_START, 0) : Cursor.decode(since);
+        LocalDateTime upTo = LocalDateTime.now().minus(safetyLag);
+        // Un élément de plus par source pour savoir s'il reste des modifications
+        PageRequest page = PageRequest.of(0, size + 1);
+
+        Stream<UserChangeDto> upserts = userRepository
+                .findDtosChangedAfter(cursor.changedAt(), cursor.id(), upTo, page).stream()
+                .map(UserChangeDto::upsert);
+        Stream<UserChangeDto> deletes = userTombstoneRepository
+                .findDeletedAfter(cursor.changedAt(), cursor.id(), upTo, page).stream()
+                .map(tombstone -> UserChangeDto.delete(tombstone.getUserId(), tombstone.getDeletedAt()));
+
+        List<UserChangeDto> merged = new ArrayList<>(Stream.concat(upserts, deletes).sorted(FEED_ORDER).toList());
+        boolean hasMore = merged.size() > size;
+        List<UserChangeDto> changes = hasMore ? merged.subList(0, size) : merged;
+
+        Cursor next = changes.isEmpty() ? cursor : Cursor.of(changes.get(changes.size() - 1));
+        logger.debug("Flux de modifications : {} modification(s) depuis {}", changes.size(), cursor.changedAt());
+
+        return new UserChangesDto(List.copyOf(changes), next.encode(), hasMore);
+    }
+
+    /**
+     * Curseur couvrant toutes les modifications qu'un instantané lu à partir de {@code snapshotAt}
+     * peut ne pas contenir : le flux repart de {@code snapshotAt - safetyLag}.
+     */
+    public String cursorBefore(LocalDateTime snapshotAt) {
+        return new Cursor(snapshotAt.minus(safetyLag), 0).encode();
+    }
+
+    /**
+     * Retard du flux sur les écritures validées.
+     */
+    public Duration getSafetyLag() {
+        return safetyLag;
+    }
+
+    /**
+     * Position dans le flux : dernière modification transmise au consommateur.
+     * Encodée en Base64 URL pour rester opaque.
+     */
+    private record Cursor(LocalDateTime changedAt, long id) {
+
+        static Cursor of(UserChangeDto change) {
+            return new Cursor(change.getChangedAt(), change.getId());
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Curseur invalide: " + value);
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((changedAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.clientapi.service;
+
+import com.example.clientapi.dto.UserDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import com.example.clientapi.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Traitement par lots des utilisateurs correspondant à un critère, quel que soit leur nombre.
+ *
+ * Les utilisateurs sont lus via un curseur ; chaque lot est converti en DTO, transmis au consommateur,
+ * puis le contexte de persistance est vidé : au plus un lot d'entités est en mémoire à la fois.
+ */
+@Service
+public class UserChunkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserChunkService.class);
+
+    private final UserRepository userRepository;
+    private final int maxChunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public UserChunkService(UserRepository userRepository,
+                            @Value("${app.users.chunk.max-size:1000}") int maxChunkSize) {
+        this.userRepository = userRepository;
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    /**
+     * Traite par lots les utilisateurs ayant le statut donné.
+     *
+     * @return le nombre d'utilisateurs traités
+     */
+    @Transactional(readOnly = true)
+    public long forEachChunkByStatus(UserStatus status, int chunkSize, Consumer<List<UserDto>> consumer) {
+        return forEachChunk(userRepository.streamByStatus(status), chunkSize, consumer);
+    }
+
+    /**
+     * Traite par lots les utilisateurs ayant le rôle donné.
+     *
+     * @return le nombre d'utilisateurs traités
+     */
+    @Transactional(readOnly = true)
+    public long forEachChunkByRole(UserRole role, int chunkSize, Consumer<List<UserDto>> consumer) {
+        return forEachChunk(userRepository.streamByRole(role), chunkSize, consumer);
+    }
+
+    /**
+     * Traite par lots les utilisateurs de la ville donnée (insensible à la casse).
+     *
+     * @return le nombre d'utilisateurs traités
+     */
+    @Transactional(readOnly = true)
+    public long forEachChunkByCity(String city, int chunkSize, Consumer<List<UserDto>> consumer) {
+        return forEachChunk(userRepository.streamByCityIgnoreCase(city), chunkSize, consumer);
+    }
+
+    /**
+     * Traite par lots, dans l'ordre de création, les utilisateurs créés après la date donnée.
+     *
+     * @return le nombre d'utilisateurs traités
+     */
+    @Transactional(readOnly = true)
+    public long forEachChunkCreatedAfter(LocalDateTime date, int chunkSize, Consumer<List<UserDto>> consumer) {
+        return forEachChunk(userRepository.streamByCreatedAtAfter(date), chunkSize, consumer);
+    }
+
+    private long forEachChunk(Stream<User> stream, int chunkSize, Consumer<List<UserDto>> consumer) {
+        if (chunkSize < 1 || chunkSize > maxChunkSize) {
+            stream.close();
+            throw new IllegalArgumentException("La taille des lots doit être comprise entre 1 et " + maxChunkSize);
+        }
+
+        long count = 0;
+        List<UserDto> chunk = new ArrayList<>(chunkSize);
+        try (stream) {
+            Iterator<User> users = stream.iterator();
+            while (users.hasNext()) {
+                chunk.add(UserDto.from(users.next()));
+                if (chunk.size() == chunkSize) {
+                    count += flush(chunk, consumer);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                count += flush(chunk, consumer);
+            }
+        }
+
+        logger.debug("Traitement par lots terminé. Nombre d'utilisateurs traités: {}", count);
+        return count;
+    }
+
+    private int flush(List<UserDto> chunk, Consumer<List<UserDto>> consumer) {
+        int size = chunk.size();
+        consumer.accept(List.copyOf(chunk));
+        chunk.clear();
+        // Détache en une fois les entités du lot
+        entityManager.clear();
+        return size;
+    }
+}
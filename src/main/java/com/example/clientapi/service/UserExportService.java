@@ -0,0 +1,185 @@
+package com.example.clientapi.service;
+
+import com.example.clientapi.dto.ExportFormat;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import com.example.clientapi.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service d'export des utilisateurs en flux continu (NDJSON ou CSV).
+ *
+ * Les lignes sont lues via un curseur JDBC et écrites directement dans la réponse,
+ * chaque entité étant détachée après écriture : la mémoire consommée reste constante
+ * quel que soit le nombre d'utilisateurs exportés.
+ */
+@Service
+public class UserExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] CSV_HEADER = {
+            "id", "firstName", "lastName", "email", "phone", "address", "city", "postalCode",
+            "country", "status", "role", "companyName", "createdAt", "updatedAt"
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public UserExportService(UserRepository userRepository, ObjectMapper objectMapper,
+                             @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Exporte les utilisateurs correspondant aux critères dans le flux de sortie.
+     *
+     * @return le nombre d'utilisateurs exportés
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(ExportFormat format, UserStatus status, UserRole role, String city,
+                            boolean gzip, OutputStream outputStream) throws IOException {
+        logger.info("Export des utilisateurs. Format: {}, Statut: {}, Rôle: {}, Ville: {}, Gzip: {}",
+                format, status, role, city, gzip);
+
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        long count;
+        try (Stream<User> users = userRepository.streamByCriteria(status, role, city, fetchSize)) {
+            count = format == ExportFormat.CSV
+                    ? writeCsv(users.iterator(), writer)
+                    : writeNdjson(users.iterator(), writer);
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+
+        logger.info("Export terminé. Nombre d'utilisateurs exportés: {}", count);
+        return count;
+    }
+
+    private long writeNdjson(Iterator<User> users, Writer writer) throws IOException {
+        long count = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Une ligne par objet : le séparateur est écrit explicitement après chaque objet
+        generator.setRootValueSeparator(null);
+
+        while (users.hasNext()) {
+            User user = users.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", user.getId());
+            generator.writeStringField("firstName", user.getFirstName());
+            generator.writeStringField("lastName", user.getLastName());
+            generator.writeStringField("email", user.getEmail());
+            generator.writeStringField("phone", user.getPhone());
+            generator.writeStringField("address", user.getAddress());
+            generator.writeStringField("city", user.getCity());
+            generator.writeStringField("postalCode", user.getPostalCode());
+            generator.writeStringField("country", user.getCountry());
+            generator.writeStringField("status", user.getStatus().name());
+            generator.writeStringField("role", user.getRole().name());
+            generator.writeStringField("companyName", user.getCompanyName());
+            generator.writeStringField("createdAt", formatDate(user.getCreatedAt()));
+            generator.writeStringField("updatedAt", formatDate(user.getUpdatedAt()));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+
+            // Libère l'entité du contexte de persistance pour garder une mémoire constante
+            entityManager.detach(user);
+            count++;
+        }
+
+        generator.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<User> users, Writer writer) throws IOException {
+        long count = 0;
+        writer.write(String.join(",", CSV_HEADER));
+        writer.write("\r\n");
+
+        while (users.hasNext()) {
+            User user = users.next();
+            writer.write(String.valueOf(user.getId()));
+            writeCsvField(writer, user.getFirstName());
+            writeCsvField(writer, user.getLastName());
+            writeCsvField(writer, user.getEmail());
+            writeCsvField(writer, user.getPhone());
+            writeCsvField(writer, user.getAddress());
+            writeCsvField(writer, user.getCity());
+            writeCsvField(writer, user.getPostalCode());
+            writeCsvField(writer, user.getCountry());
+            writeCsvField(writer, user.getStatus().name());
+            writeCsvField(writer, user.getRole().name());
+            writeCsvField(writer, user.getCompanyName());
+            writeCsvField(writer, formatDate(user.getCreatedAt()));
+            writeCsvField(writer, formatDate(user.getUpdatedAt()));
+            writer.write("\r\n");
+
+            entityManager.detach(user);
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Écrit un champ CSV précédé de son séparateur, entre guillemets si nécessaire (RFC 4180).
+     */
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private String formatDate(LocalDateTime date) {
+        return date != null ? DATE_FORMAT.format(date) : null;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.clientapi.service;
+
+import com.example.clientapi.dto.RegistrationBucketDto;
+import com.example.clientapi.dto.RegistrationGranularity;
+import com.example.clientapi.dto.RegistrationStatsDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRegistrationDaily;
+import com.example.clientapi.entity.UserRegistrationDailyId;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import com.example.clientapi.repository.DailyRegistrations;
+import com.example.clientapi.repository.UserRegistrationDailyRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Série temporelle des inscriptions, lue dans la table d'agrégats quotidiens user_registration_daily.
+ *
+ * Chaque création d'utilisateur incrémente le compteur de son jour, rôle et statut. Les incréments
+ * d'une transaction sont cumulés puis écrits juste avant sa validation : le verrou sur la ligne
+ * du jour, partagée par toutes les inscriptions, est tenu le moins longtemps possible.
+ * Les cumuls par semaine et par mois sont calculés à la lecture.
+ */
+@Service
+public class UserRegistrationStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRegistrationStatsService.class);
+
+    private static final String UPSERT_POSTGRESQL =
+            "INSERT INTO user_registration_daily (registration_day, role, status, registrations) " +
+            "VALUES (:day, :role, :status, :registrations) " +
+            "ON CONFLICT (registration_day, role, status) " +
+            "DO UPDATE SET registrations = user_registration_daily.registrations + EXCLUDED.registrations";
+
+    private static final String UPSERT_STANDARD =
+            "MERGE INTO user_registration_daily t " +
+            "USING (VALUES (CAST(:day AS DATE), CAST(:role AS VARCHAR(20)), CAST(:status AS VARCHAR(20)), " +
+            "CAST(:registrations AS BIGINT))) s (registration_day, role, status, registrations) " +
+            "ON t.registration_day = s.registration_day AND t.role = s.role AND t.status = s.status " +
+            "WHEN MATCHED THEN UPDATE SET registrations = t.registrations + s.registrations " +
+            "WHEN NOT MATCHED THEN INSERT (registration_day, role, status, registrations) " +
+            "VALUES (s.registration_day, s.role, s.status, s.registrations)";
+
+    private final UserRegistrationDailyRepository registrationDailyRepository;
+    private final long maxRangeDays;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Dialecte PostgreSQL, déterminé au premier appel
+    private volatile Boolean postgreSql;
+
+    @Autowired
+    public UserRegistrationStatsService(UserRegistrationDailyRepository registrationDailyRepository,
+                                        @Value("${app.users.registrations.max-range-days:3660}") long maxRangeDays) {
+        this.registrationDailyRepository = registrationDailyRepository;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    /**
+     * Comptabilise l'inscription d'un utilisateur tout juste enregistré, dans la transaction
+     * de sa création ; l'écriture est différée juste avant la validation.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRegistration(User user) {
+        UserRegistrationDailyId bucket = new UserRegistrationDailyId(
+                user.getCreatedAt().toLocalDate(), user.getRole(), user.getStatus());
+
+        @SuppressWarnings("unchecked")
+        Map<UserRegistrationDailyId, Long> pending =
+                (Map<UserRegistrationDailyId, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<UserRegistrationDailyId, Long> increments = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, increments);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    increments.forEach(UserRegistrationStatsService.this::upsert);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UserRegistrationStatsService.this);
+                }
+            });
+            pending = increments;
+        }
+        pending.merge(bucket, 1L, Long::sum);
+    }
+
+    /**
+     * Reconstruit la table d'agrégats à partir des utilisateurs existants (utilisateurs insérés
+     * hors de l'application, par exemple). Les inscriptions d'utilisateurs supprimés sont perdues.
+     *
+     * Les jours antérieurs à la veille, qu'aucune inscription en cours ne modifie plus, sont recalculés
+     * sans bloquer les inscriptions. Seuls la veille et le jour courant sont recalculés sous verrou
+     * exclusif, le temps d'une agrégation sur quelques lignes de l'index created_at.
+     *
+     * @return le nombre de compteurs quotidiens écrits
+     */
+    @Transactional
+    public int rebuild() {
+        LocalDate recentFrom = LocalDate.now().minusDays(1);
+        if (isPostgreSql()) {
+            // Sérialise les reconstructions ; ce mode n'entre pas en conflit avec les incréments
+            nativeUpdate("LOCK TABLE user_registration_daily IN SHARE UPDATE EXCLUSIVE MODE").executeUpdate();
+        }
+        registrationDailyRepository.deleteBucketsBefore(recentFrom);
+        int buckets = insertBuckets("created_at < :recentFrom", recentFrom);
+
+        if (isPostgreSql()) {
+            // L'incrément d'une inscription concurrente, écrit juste avant sa validation, attend la fin
+            // de la reconstruction : il s'ajoute au compteur recalculé, sans être perdu ni compté deux fois
+            nativeUpdate("LOCK TABLE user_registration_daily IN EXCLUSIVE MODE").executeUpdate();
+        }
+        registrationDailyRepository.deleteBucketsFrom(recentFrom);
+        buckets += insertBuckets("created_at >= :recentFrom", recentFrom);
+
+        logger.info("Table des inscriptions quotidiennes reconstruite: {} compteur(s)", buckets);
+        return buckets;
+    }
+
+    /**
+     * Série des inscriptions entre deux jours inclus, à la granularité demandée.
+     */
+    @Transactional(readOnly = true)
+    public RegistrationStatsDto getRegistrations(LocalDate from, LocalDate to, RegistrationGranularity granularity,
+                                                 UserRole role, UserStatus status) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("La période ne peut pas dépasser " + maxRangeDays + " jours");
+        }
+
+        // Toutes les périodes de l'intervalle, y compris celles sans inscription
+        Map<LocalDate, Long> byPeriod = new TreeMap<>();
+        for (LocalDate period = granularity.periodStart(from); !period.isAfter(to); period = granularity.next(period)) {
+            byPeriod.put(period, 0L);
+        }
+
+        long total = 0;
+        for (DailyRegistrations daily : registrationDailyRepository.findDailyRegistrations(from, to, role, status)) {
+            byPeriod.merge(granularity.periodStart(daily.day()), daily.registrations(), Long::sum);
+            total += daily.registrations();
+        }
+
+        List<RegistrationBucketDto> buckets = new ArrayList<>(byPeriod.size());
+        byPeriod.forEach((period, registrations) -> buckets.add(new RegistrationBucketDto(period, registrations)));
+        return new RegistrationStatsDto(from, to, granularity, total, buckets);
+    }
+
+    private int insertBuckets(String createdAtCondition, LocalDate recentFrom) {
+        return nativeUpdate(
+                "INSERT INTO user_registration_daily (registration_day, role, status, registrations) " +
+                "SELECT CAST(created_at AS DATE), role, status, COUNT(*) FROM users " +
+                "WHERE " + createdAtCondition + " " +
+                "GROUP BY CAST(created_at AS DATE), role, status")
+                .setParameter("recentFrom", recentFrom.atStartOfDay())
+                .executeUpdate();
+    }
+
+    private void upsert(UserRegistrationDailyId bucket, long registrations) {
+        nativeUpdate(isPostgreSql() ? UPSERT_POSTGRESQL : UPSERT_STANDARD)
+                .setParameter("day", bucket.getDay())
+                .setParameter("role", bucket.getRole().name())
+                .setParameter("status", bucket.getStatus().name())
+                .setParameter("registrations", registrations)
+                .executeUpdate();
+    }
+
+    /**
+     * Requête native déclarée comme ne modifiant que user_registration_daily : sans cela, Hibernate
+     * invaliderait tout le cache de second niveau (dont les utilisateurs) à chaque inscription.
+     */
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Object> nativeUpdate(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(UserRegistrationDaily.class);
+    }
+
+    private boolean isPostgreSql() {
+        if (postgreSql == null) {
+            postgreSql = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgreSql;
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.clientapi.service;
 
+import com.example.clientapi.dto.GeoStatsDto;
 import com.example.clientapi.dto.UserDto;
 import com.example.clientapi.dto.CreateUserDto;
 import com.example.clientapi.dto.UpdateUserDto;
+import com.example.clientapi.dto.UserFilterDto;
+import com.example.clientapi.entity.User;
 import com.example.clientapi.entity.UserStatus;
 import com.example.clientapi.entity.UserRole;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -48,11 +52,22 @@ public interface UserService {
      */
     UserDto updateUser(Long id, UpdateUserDto updateUserDto);
 
+    /**
+     * Applique un JSON Merge Patch (RFC 7396) à un utilisateur existant.
+     * Seules les colonnes présentes dans le patch sont écrites, en une seule requête.
+     */
+    void patchUser(Long id, JsonNode mergePatch);
+
     /**
      * Supprime un utilisateur.
      */
     void deleteUser(Long id);
 
+    /**
+     * Répartition géographique des utilisateurs, filtrable par statut et rôle.
+     */
+    GeoStatsDto getGeoStats(UserStatus status, UserRole role);
+
     /**
      * Recherche les utilisateurs par statut.
      */
@@ -68,6 +83,11 @@ public interface UserService {
      */
     Page<UserDto> searchUsers(String searchTerm, Pageable pageable);
 
+    /**
+     * Filtre les utilisateurs sur les seuls critères renseignés.
+     */
+    Page<UserDto> filterUsers(UserFilterDto filter, Pageable pageable);
+
     /**
      * Active un utilisateur.
      */
@@ -104,7 +124,7 @@ public interface UserService {
     long countUsersByRole(UserRole role);
 
     /**
-     * Vérifie si l'utilisateur connecté est propriétaire de l'ID donné.
+     * Convertit l'utilisateur authentifié, déjà chargé par le filtre JWT, sans nouvelle requête.
      */
-    boolean isOwner(Long userId, String authenticatedEmail);
+    UserDto getAuthenticatedUser(User principal);
 }
\ No newline at end of file
@@ -18,10 +18,16 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    /**
+     * Lecture volontairement hors read-only et hors cache de second niveau : elle est servie
+     * par la base primaire, afin qu'un compte suspendu ou un rôle modifié, y compris par une
+     * autre instance, soit pris en compte immédiatement, sans dépendre du retard d'un réplica
+     * ni de l'expiration d'un cache local.
+     */
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findPrincipalByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé avec l'email: " + email));
 
         return user;
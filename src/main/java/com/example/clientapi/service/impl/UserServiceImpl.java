@@ -1,40 +1,119 @@
 package com.example.clientapi.service.impl;
 
+import com.example.clientapi.config.RecentWriteTracker;
+import com.example.clientapi.dto.GeoStatsDto;
 import com.example.clientapi.dto.UserDto;
 import com.example.clientapi.dto.CreateUserDto;
 import com.example.clientapi.dto.UpdateUserDto;
+import com.example.clientapi.dto.UserFilterDto;
 import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserEventType;
 import com.example.clientapi.entity.UserStatus;
+import com.example.clientapi.entity.UserTombstone;
 import com.example.clientapi.entity.UserRole;
 import com.example.clientapi.exception.UserNotFoundException;
 import com.example.clientapi.exception.EmailAlreadyExistsException;
+import com.example.clientapi.monitoring.QueryInstrumentation;
+import com.example.clientapi.outbox.UserEventOutbox;
+import com.example.clientapi.readmodel.UserReadModel;
+import com.example.clientapi.repository.UserGeoCount;
 import com.example.clientapi.repository.UserRepository;
+import com.example.clientapi.repository.UserTombstoneRepository;
+import com.example.clientapi.repository.UserSpecifications;
+import com.example.clientapi.service.UserRegistrationStatsService;
 import com.example.clientapi.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
 /**
  * Implémentation du service de gestion des utilisateurs avec sécurité.
  */
 @Service
-@Transactional
+// Écritures bornées en durée : le flux de modifications ne publie une ligne qu'une fois ce délai écoulé
+@Transactional(timeoutString = "${app.users.write-timeout-seconds:3}")
 public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
+    // Attributs modifiables par merge patch, et ceux qui ne peuvent pas être effacés
+    private static final Set<String> PATCHABLE_ATTRIBUTES = Set.of(
+            "firstName", "lastName", "email", "password", "phone", "address", "city",
+            "postalCode", "country", "status", "role", "companyName");
+    private static final Set<String> REQUIRED_ATTRIBUTES = Set.of(
+            "firstName", "lastName", "email", "password", "status", "role");
+
+    // Clé des utilisateurs sans pays, ville ou code postal dans la répartition géographique
+    private static final String UNKNOWN_GEO_KEY = "non renseigné";
+
     private final UserRepository userRepository;
+    private final UserTombstoneRepository userTombstoneRepository;
+    private final UserEventOutbox userEventOutbox;
+    private final UserRegistrationStatsService registrationStatsService;
+    private final ObjectProvider<UserReadModel> readModelProvider;
+    private final RecentWriteTracker recentWriteTracker;
     private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final QueryInstrumentation queryInstrumentation;
+
+    // Colonnes écrites et requêtes SQL réellement émises par mise à jour (lecture comprise),
+    // pour comparer PUT et PATCH
+    private final DistributionSummary putColumns;
+    private final DistributionSummary putStatements;
+    private final DistributionSummary patchColumns;
+    private final DistributionSummary patchStatements;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, UserTombstoneRepository userTombstoneRepository,
+                           UserEventOutbox userEventOutbox, UserRegistrationStatsService registrationStatsService,
+                           ObjectProvider<UserReadModel> readModelProvider, RecentWriteTracker recentWriteTracker,
+                           PasswordEncoder passwordEncoder, ObjectMapper objectMapper, Validator validator,
+                           QueryInstrumentation queryInstrumentation, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.userTombstoneRepository = userTombstoneRepository;
+        this.userEventOutbox = userEventOutbox;
+        this.registrationStatsService = registrationStatsService;
+        this.readModelProvider = readModelProvider;
+        this.recentWriteTracker = recentWriteTracker;
         this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.queryInstrumentation = queryInstrumentation;
+        this.putColumns = updateSummary(meterRegistry, "users.update.columns", "put");
+        this.putStatements = updateSummary(meterRegistry, "users.update.statements", "put");
+        this.patchColumns = updateSummary(meterRegistry, "users.update.columns", "patch");
+        this.patchStatements = updateSummary(meterRegistry, "users.update.statements", "patch");
     }
 
     @Override
@@ -58,8 +137,12 @@ public class UserServiceImpl implements UserService {
         logger.info("Utilisateur créé avec succès. ID: {}, Email: {}, Rôle: {}",
                 savedUser.getId(), savedUser.getEmail(), savedUser.getRole());
 
+        registrationStatsService.recordRegistration(savedUser);
+
         // Conversion entité vers DTO de réponse (sans mot de passe)
-        return convertEntityToDto(savedUser);
+        UserDto created = convertEntityToDto(savedUser);
+        userEventOutbox.record(UserEventType.USER_CREATED, created.getId(), created);
+        return created;
     }
 
     @Override
@@ -93,44 +176,47 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<UserDto> getAllUsers(Pageable pageable) {
         logger.debug("Récupération de tous les utilisateurs. Page: {}, Taille: {}",
                 pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<User> usersPage = userRepository.findAll(pageable);
+        Page<UserDto> usersPage = findUsers(null, pageable, () -> userRepository.findAll(pageable));
         logger.debug("Nombre d'utilisateurs trouvés: {}", usersPage.getTotalElements());
 
-        return usersPage.map(this::convertEntityToDto);
+        return usersPage;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<UserDto> getAllClients(Pageable pageable) {
         logger.debug("Récupération de tous les clients. Page: {}, Taille: {}",
                 pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<User> clientsPage = userRepository.findAllClients(pageable);
+        Page<UserDto> clientsPage = findUsers(roleFilter(UserRole.CLIENT), pageable,
+                () -> userRepository.findAllClients(pageable));
         logger.debug("Nombre de clients trouvés: {}", clientsPage.getTotalElements());
 
-        return clientsPage.map(this::convertEntityToDto);
+        return clientsPage;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<UserDto> getAllAdmins(Pageable pageable) {
         logger.debug("Récupération de tous les administrateurs. Page: {}, Taille: {}",
                 pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<User> adminsPage = userRepository.findAllAdmins(pageable);
+        Page<UserDto> adminsPage = findUsers(roleFilter(UserRole.ADMIN), pageable,
+                () -> userRepository.findAllAdmins(pageable));
         logger.debug("Nombre d'administrateurs trouvés: {}", adminsPage.getTotalElements());
 
-        return adminsPage.map(this::convertEntityToDto);
+        return adminsPage;
     }
 
     @Override
     public UserDto updateUser(Long id, UpdateUserDto updateUserDto) {
         logger.info("Mise à jour de l'utilisateur avec l'ID: {}", id);
+        long statementsBefore = queryInstrumentation.executedStatements();
 
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> {
@@ -138,59 +224,136 @@ public class UserServiceImpl implements UserService {
                     return new UserNotFoundException("Utilisateur non trouvé avec l'ID: " + id);
                 });
 
-        // Vérification de l'unicité de l'email si modifié
-        if (updateUserDto.getEmail() != null &&
-                !updateUserDto.getEmail().equals(existingUser.getEmail())) {
-            if (userRepository.existsByEmailAndIdNot(updateUserDto.getEmail(), id)) {
-                logger.warn("Tentative de mise à jour avec un email existant: {}", updateUserDto.getEmail());
-                throw new EmailAlreadyExistsException("Un utilisateur avec cet email existe déjà: " +
-                        updateUserDto.getEmail());
-            }
+        // Mise à jour des champs : seules les colonnes modifiées seront écrites (@DynamicUpdate)
+        int changedColumns = updateEntityFromDto(existingUser, updateUserDto);
+
+        // Sauvegarde : l'unicité de l'email est garantie par la contrainte unique, sans requête préalable
+        User updatedUser;
+        try {
+            updatedUser = userRepository.saveAndFlush(existingUser);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateIntegrityViolation(ex, updateUserDto.getEmail());
         }
+        putColumns.record(changedColumns);
+        putStatements.record(queryInstrumentation.executedStatements() - statementsBefore);
+        logger.info("Utilisateur mis à jour avec succès. ID: {}", updatedUser.getId());
 
-        // Mise à jour des champs
-        updateEntityFromDto(existingUser, updateUserDto);
+        UserDto updated = convertEntityToDto(updatedUser);
+        if (changedColumns > 0) {
+            userEventOutbox.record(UserEventType.USER_UPDATED, id, updated);
+        }
+        return updated;
+    }
 
-        // Sauvegarde
-        User updatedUser = userRepository.save(existingUser);
-        logger.info("Utilisateur mis à jour avec succès. ID: {}", updatedUser.getId());
+    @Override
+    public void patchUser(Long id, JsonNode mergePatch) {
+        logger.info("Application d'un merge patch à l'utilisateur avec l'ID: {}", id);
+
+        Map<String, Object> attributes = toPatchAttributes(mergePatch);
+
+        if (attributes.isEmpty()) {
+            // Patch vide : aucune écriture, seule l'existence est vérifiée
+            if (!userRepository.existsById(id)) {
+                throw new UserNotFoundException("Utilisateur non trouvé avec l'ID: " + id);
+            }
+            return;
+        }
 
-        return convertEntityToDto(updatedUser);
+        long statementsBefore = queryInstrumentation.executedStatements();
+        int updated;
+        try {
+            updated = userRepository.updateAttributes(id, attributes);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateIntegrityViolation(ex, (String) attributes.get("email"));
+        }
+
+        if (updated == 0) {
+            logger.warn("Utilisateur non trouvé pour merge patch avec l'ID: {}", id);
+            throw new UserNotFoundException("Utilisateur non trouvé avec l'ID: " + id);
+        }
+        patchStatements.record(queryInstrumentation.executedStatements() - statementsBefore);
+        userEventOutbox.record(UserEventType.USER_UPDATED, id, toEventChanges(id, attributes));
+        patchColumns.record(attributes.size());
+        logger.info("Merge patch appliqué avec succès. ID: {}, Attributs: {}", id, attributes.keySet());
     }
 
     @Override
     public void deleteUser(Long id) {
         logger.info("Suppression de l'utilisateur avec l'ID: {}", id);
 
-        if (!userRepository.existsById(id)) {
+        // Une seule requête DELETE : le nombre de lignes supprimées indique si l'utilisateur existait
+        if (userRepository.deleteUserById(id) == 0) {
             logger.warn("Tentative de suppression d'un utilisateur inexistant avec l'ID: {}", id);
             throw new UserNotFoundException("Utilisateur non trouvé avec l'ID: " + id);
         }
+        // Publiée dans le flux de modifications, dans la même transaction que la suppression
+        userTombstoneRepository.save(new UserTombstone(id, LocalDateTime.now()));
+        userEventOutbox.record(UserEventType.USER_DELETED, id, Map.of("id", id));
 
-        userRepository.deleteById(id);
         logger.info("Utilisateur supprimé avec succès. ID: {}", id);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public GeoStatsDto getGeoStats(UserStatus status, UserRole role) {
+        logger.debug("Calcul de la répartition géographique. Statut: {}, Rôle: {}", status, role);
+
+        UserReadModel readModel = readyReadModel();
+        List<UserGeoCount> counts;
+        if (readModel != null) {
+            UserFilterDto filter = statusFilter(status);
+            filter.setRole(role);
+            counts = readModel.countByGeography(filter);
+        } else {
+            counts = userRepository.countByGeography(status, role);
+        }
+
+        long total = counts.stream().mapToLong(UserGeoCount::count).sum();
+        return new GeoStatsDto(total,
+                sumBy(counts, UserGeoCount::country),
+                sumBy(counts, UserGeoCount::city),
+                sumBy(counts, UserGeoCount::postalCodePrefix));
+    }
+
+    /**
+     * Cumule les nombres par clé (valeur absente regroupée sous {@link #UNKNOWN_GEO_KEY}),
+     * triés par nombre décroissant.
+     */
+    private static Map<String, Long> sumBy(List<UserGeoCount> counts, Function<UserGeoCount, String> key) {
+        Map<String, Long> sums = new HashMap<>();
+        for (UserGeoCount count : counts) {
+            String value = key.apply(count);
+            sums.merge(value == null || value.isBlank() ? UNKNOWN_GEO_KEY : value, count.count(), Long::sum);
+        }
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        sums.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<UserDto> getUsersByStatus(UserStatus status, Pageable pageable) {
         logger.debug("Recherche des utilisateurs avec le statut: {}", status);
 
-        Page<User> usersPage = userRepository.findByStatus(status, pageable);
+        Page<UserDto> usersPage = findUsers(statusFilter(status), pageable,
+                () -> userRepository.findByStatus(status, pageable));
         logger.debug("Nombre d'utilisateurs trouvés avec le statut {}: {}", status, usersPage.getTotalElements());
 
-        return usersPage.map(this::convertEntityToDto);
+        return usersPage;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<UserDto> getUsersByRole(UserRole role, Pageable pageable) {
         logger.debug("Recherche des utilisateurs avec le rôle: {}", role);
 
-        Page<User> usersPage = userRepository.findByRole(role, pageable);
+        Page<UserDto> usersPage = findUsers(roleFilter(role), pageable,
+                () -> userRepository.findByRole(role, pageable));
         logger.debug("Nombre d'utilisateurs trouvés avec le rôle {}: {}", role, usersPage.getTotalElements());
 
-        return usersPage.map(this::convertEntityToDto);
+        return usersPage;
     }
 
     @Override
@@ -204,48 +367,49 @@ public class UserServiceImpl implements UserService {
         return usersPage.map(this::convertEntityToDto);
     }
 
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Page<UserDto> filterUsers(UserFilterDto filter, Pageable pageable) {
+        logger.debug("Filtrage des utilisateurs");
+
+        Page<UserDto> usersPage = findUsers(filter, pageable,
+                () -> userRepository.findAll(UserSpecifications.fromFilter(filter), pageable));
+        logger.debug("Nombre d'utilisateurs trouvés par le filtre: {}", usersPage.getTotalElements());
+
+        return usersPage;
+    }
+
     @Override
     public UserDto activateUser(Long id) {
         logger.info("Activation de l'utilisateur avec l'ID: {}", id);
 
-        User user = userRepository.findById(id)
+        User user = userRepository.updateStatusReturning(id, UserStatus.ACTIVE)
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé avec l'ID: " + id));
 
-        user.setStatus(UserStatus.ACTIVE);
-        User updatedUser = userRepository.save(user);
-
         logger.info("Utilisateur activé avec succès. ID: {}", id);
-        return convertEntityToDto(updatedUser);
+        return recordAndConvert(UserEventType.USER_STATUS_CHANGED, user);
     }
 
     @Override
     public UserDto deactivateUser(Long id) {
         logger.info("Désactivation de l'utilisateur avec l'ID: {}", id);
 
-        User user = userRepository.findById(id)
+        User user = userRepository.updateStatusReturning(id, UserStatus.INACTIVE)
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé avec l'ID: " + id));
 
-        user.setStatus(UserStatus.INACTIVE);
-        User updatedUser = userRepository.save(user);
-
         logger.info("Utilisateur désactivé avec succès. ID: {}", id);
-        return convertEntityToDto(updatedUser);
+        return recordAndConvert(UserEventType.USER_STATUS_CHANGED, user);
     }
 
     @Override
     public UserDto changeUserRole(Long id, UserRole newRole) {
         logger.info("Changement de rôle pour l'utilisateur avec l'ID: {} vers: {}", id, newRole);
 
-        User user = userRepository.findById(id)
+        User user = userRepository.updateRoleReturning(id, newRole)
                 .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé avec l'ID: " + id));
 
-        UserRole oldRole = user.getRole();
-        user.setRole(newRole);
-        User updatedUser = userRepository.save(user);
-
-        logger.info("Rôle changé avec succès pour l'utilisateur ID: {} de {} vers {}",
-                id, oldRole, newRole);
-        return convertEntityToDto(updatedUser);
+        logger.info("Rôle changé avec succès pour l'utilisateur ID: {} vers {}", id, newRole);
+        return recordAndConvert(UserEventType.USER_ROLE_CHANGED, user);
     }
 
     @Override
@@ -255,32 +419,72 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public long countUsers() {
-        return userRepository.count();
+        return countUsers(null, () -> userRepository.count());
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public long countUsersByStatus(UserStatus status) {
-        return userRepository.countByStatus(status);
+        return countUsers(statusFilter(status), () -> userRepository.countByStatus(status));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public long countUsersByRole(UserRole role) {
-        return userRepository.countByRole(role);
+        return countUsers(roleFilter(role), () -> userRepository.countByRole(role));
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public UserDto getAuthenticatedUser(User principal) {
+        logger.debug("Conversion de l'utilisateur authentifié: {}", principal.getId());
+        return convertEntityToDto(principal);
+    }
+
+    // Lectures servies par le modèle de lecture en mémoire
+
     /**
-     * Vérifie si l'utilisateur connecté est propriétaire de l'ID donné.
+     * Modèle de lecture en mémoire s'il est activé, chargé et synchronisé, sinon {@code null}.
+     * Un utilisateur qui vient d'écrire lit en base, pour voir sa modification.
      */
-    @Override
-    @Transactional(readOnly = true)
-    public boolean isOwner(Long userId, String authenticatedEmail) {
-        return userRepository.findById(userId)
-                .map(user -> user.getEmail().equals(authenticatedEmail))
-                .orElse(false);
+    private UserReadModel readyReadModel() {
+        UserReadModel readModel = readModelProvider.getIfAvailable();
+        if (readModel == null || !readModel.isReady()
+                || recentWriteTracker.hasWrittenWithinReadModelLag(RecentWriteTracker.currentSubject())) {
+            return null;
+        }
+        return readModel;
+    }
+
+    /**
+     * Sert la page depuis le modèle de lecture s'il peut appliquer le tri demandé, sinon depuis la base.
+     * Sans transaction englobante : une page servie en mémoire n'emprunte pas de connexion.
+     */
+    private Page<UserDto> findUsers(UserFilterDto filter, Pageable pageable, Supplier<Page<User>> query) {
+        UserReadModel readModel = readyReadModel();
+        if (readModel != null && readModel.supports(pageable)) {
+            return readModel.find(filter, pageable);
+        }
+        return query.get().map(this::convertEntityToDto);
+    }
+
+    private long countUsers(UserFilterDto filter, LongSupplier query) {
+        UserReadModel readModel = readyReadModel();
+        return readModel != null ? readModel.count(filter) : query.getAsLong();
+    }
+
+    private static UserFilterDto statusFilter(UserStatus status) {
+        UserFilterDto filter = new UserFilterDto();
+        filter.setStatus(status);
+        return filter;
+    }
+
+    private static UserFilterDto roleFilter(UserRole role) {
+        UserFilterDto filter = new UserFilterDto();
+        filter.setRole(role);
+        return filter;
     }
 
     // Méthodes utilitaires de conversion
@@ -307,62 +511,144 @@ public class UserServiceImpl implements UserService {
         return user;
     }
 
-    private void updateEntityFromDto(User user, UpdateUserDto dto) {
-        if (dto.getFirstName() != null) {
-            user.setFirstName(dto.getFirstName());
-        }
-        if (dto.getLastName() != null) {
-            user.setLastName(dto.getLastName());
-        }
-        if (dto.getEmail() != null) {
-            user.setEmail(dto.getEmail());
-        }
+    /**
+     * Reporte les champs renseignés du DTO sur l'entité.
+     *
+     * @return le nombre de colonnes dont la valeur a changé
+     */
+    private int updateEntityFromDto(User user, UpdateUserDto dto) {
+        int changed = 0;
+        changed += applyIfChanged(dto.getFirstName(), user.getFirstName(), user::setFirstName);
+        changed += applyIfChanged(dto.getLastName(), user.getLastName(), user::setLastName);
+        changed += applyIfChanged(dto.getEmail(), user.getEmail(), user::setEmail);
         if (dto.getPassword() != null) {
             user.setPassword(passwordEncoder.encode(dto.getPassword()));
+            changed++;
         }
-        if (dto.getPhone() != null) {
-            user.setPhone(dto.getPhone());
-        }
-        if (dto.getAddress() != null) {
-            user.setAddress(dto.getAddress());
-        }
-        if (dto.getCity() != null) {
-            user.setCity(dto.getCity());
+        changed += applyIfChanged(dto.getPhone(), user.getPhone(), user::setPhone);
+        changed += applyIfChanged(dto.getAddress(), user.getAddress(), user::setAddress);
+        changed += applyIfChanged(dto.getCity(), user.getCity(), user::setCity);
+        changed += applyIfChanged(dto.getPostalCode(), user.getPostalCode(), user::setPostalCode);
+        changed += applyIfChanged(dto.getCountry(), user.getCountry(), user::setCountry);
+        changed += applyIfChanged(dto.getStatus(), user.getStatus(), user::setStatus);
+        changed += applyIfChanged(dto.getRole(), user.getRole(), user::setRole);
+        changed += applyIfChanged(dto.getCompanyName(), user.getCompanyName(), user::setCompanyName);
+        return changed;
+    }
+
+    private <T> int applyIfChanged(T newValue, T currentValue, Consumer<T> setter) {
+        if (newValue == null || Objects.equals(newValue, currentValue)) {
+            return 0;
         }
-        if (dto.getPostalCode() != null) {
-            user.setPostalCode(dto.getPostalCode());
+        setter.accept(newValue);
+        return 1;
+    }
+
+    /**
+     * Convertit un merge patch en attributs à écrire, après validation des valeurs.
+     */
+    private Map<String, Object> toPatchAttributes(JsonNode mergePatch) {
+        if (mergePatch == null || !mergePatch.isObject()) {
+            throw new IllegalArgumentException("Le merge patch doit être un objet JSON");
         }
-        if (dto.getCountry() != null) {
-            user.setCountry(dto.getCountry());
+
+        Iterator<String> fieldNames = mergePatch.fieldNames();
+        while (fieldNames.hasNext()) {
+            String field = fieldNames.next();
+            if (!PATCHABLE_ATTRIBUTES.contains(field)) {
+                throw new IllegalArgumentException("Attribut non modifiable: " + field);
+            }
+            if (mergePatch.get(field).isNull() && REQUIRED_ATTRIBUTES.contains(field)) {
+                throw new IllegalArgumentException("L'attribut " + field + " ne peut pas être effacé");
+            }
         }
-        if (dto.getStatus() != null) {
-            user.setStatus(dto.getStatus());
+
+        UpdateUserDto dto;
+        try {
+            dto = objectMapper.treeToValue(mergePatch, UpdateUserDto.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Merge patch invalide: " + ex.getOriginalMessage());
         }
-        if (dto.getRole() != null) {
-            user.setRole(dto.getRole());
+
+        Set<ConstraintViolation<UpdateUserDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
         }
-        if (dto.getCompanyName() != null) {
-            user.setCompanyName(dto.getCompanyName());
+
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        mergePatch.fieldNames().forEachRemaining(field -> {
+            Object value = switch (field) {
+                case "firstName" -> dto.getFirstName();
+                case "lastName" -> dto.getLastName();
+                case "email" -> dto.getEmail();
+                case "password" -> dto.getPassword();
+                case "phone" -> dto.getPhone();
+                case "address" -> dto.getAddress();
+                case "city" -> dto.getCity();
+                case "postalCode" -> dto.getPostalCode();
+                case "country" -> dto.getCountry();
+                case "status" -> dto.getStatus();
+                case "role" -> dto.getRole();
+                case "companyName" -> dto.getCompanyName();
+                default -> throw new IllegalArgumentException("Attribut non modifiable: " + field);
+            };
+            if (value instanceof String text && text.isBlank() && REQUIRED_ATTRIBUTES.contains(field)) {
+                throw new IllegalArgumentException("L'attribut " + field + " ne peut pas être vide");
+            }
+            if ("password".equals(field)) {
+                // Contrôlé avant hachage : le hash d'un mot de passe vide ne l'est pas
+                value = passwordEncoder.encode(dto.getPassword());
+            }
+            attributes.put(field, value);
+            if ("email".equals(field)) {
+                // Les requêtes UPDATE explicites ne passent pas par les callbacks de l'entité
+                attributes.put("emailNormalized", User.normalizeEmail(dto.getEmail()));
+            }
+        });
+        return attributes;
+    }
+
+    /**
+     * Traduit une violation de contrainte : un doublon d'email devient une EmailAlreadyExistsException.
+     */
+    private RuntimeException translateIntegrityViolation(DataIntegrityViolationException ex, String email) {
+        String message = ex.getMostSpecificCause().getMessage();
+        String normalized = message != null ? message.toLowerCase(Locale.ROOT) : "";
+        if (normalized.contains(User.EMAIL_UNIQUE_CONSTRAINT) || normalized.contains("(email")) {
+            logger.warn("Tentative de mise à jour avec un email existant: {}", email);
+            return new EmailAlreadyExistsException("Un utilisateur avec cet email existe déjà: " + email, ex);
         }
+        return ex;
     }
 
-    private UserDto convertEntityToDto(User user) {
-        UserDto dto = new UserDto();
-        dto.setId(user.getId());
-        dto.setFirstName(user.getFirstName());
-        dto.setLastName(user.getLastName());
-        dto.setEmail(user.getEmail());
-        // Ne pas exposer le mot de passe dans le DTO
-        dto.setPhone(user.getPhone());
-        dto.setAddress(user.getAddress());
-        dto.setCity(user.getCity());
-        dto.setPostalCode(user.getPostalCode());
-        dto.setCountry(user.getCountry());
-        dto.setStatus(user.getStatus());
-        dto.setRole(user.getRole());
-        dto.setCompanyName(user.getCompanyName());
-        dto.setCreatedAt(user.getCreatedAt());
-        dto.setUpdatedAt(user.getUpdatedAt());
+    private static DistributionSummary updateSummary(MeterRegistry meterRegistry, String name, String method) {
+        return DistributionSummary.builder(name)
+                .description("Mise à jour d'un utilisateur")
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    private UserDto recordAndConvert(UserEventType type, User user) {
+        UserDto dto = convertEntityToDto(user);
+        userEventOutbox.record(type, user.getId(), dto);
         return dto;
     }
+
+    /**
+     * Attributs modifiés par un merge patch tels que publiés dans l'outbox : ni mot de passe
+     * ni colonne dérivée.
+     */
+    private static Map<String, Object> toEventChanges(Long id, Map<String, Object> attributes) {
+        Map<String, Object> changes = new LinkedHashMap<>(attributes);
+        changes.remove("password");
+        changes.remove("emailNormalized");
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", id);
+        event.put("changes", changes);
+        return event;
+    }
+
+    private UserDto convertEntityToDto(User user) {
+        return UserDto.from(user);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.example.clientapi.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure la latence des requêtes HTTP juste après l'ouverture au trafic, pour évaluer l'effet
+ * du préchauffage : la première minute (phase {@code first_minute}) est comparée à la suite
+ * de la fenêtre d'observation (phase {@code after_first_minute}). Au-delà, rien n'est enregistré.
+ */
+@Component
+// Après HealthProbeFilter : les sondes des répartiteurs de charge ne sont pas mesurées
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class StartupLatencyFilter extends OncePerRequestFilter {
+
+    private static final long FIRST_MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Timer firstMinute;
+    private final Timer afterFirstMinute;
+    private final long windowNanos;
+
+    // Instant (System.nanoTime) de l'ouverture au trafic, 0 tant que l'instance n'est pas prête
+    private volatile long readySince;
+
+    @Autowired
+    public StartupLatencyFilter(MeterRegistry meterRegistry,
+                                @Value("${app.warmup.latency-window:10m}") Duration window) {
+        this.firstMinute = latencyTimer(meterRegistry, "first_minute");
+        this.afterFirstMinute = latencyTimer(meterRegistry, "after_first_minute");
+        this.windowNanos = window.toNanos();
+    }
+
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && readySince == 0) {
+            readySince = System.nanoTime();
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        long sinceReady = start - readySince;
+        if (readySince == 0 || sinceReady > windowNanos) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Timer timer = sinceReady < FIRST_MINUTE_NANOS ? firstMinute : afterFirstMinute;
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer latencyTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("http.server.requests.startup")
+                .description("Latence des requêtes HTTP après l'ouverture au trafic")
+                .tag("phase", phase)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.clientapi.warmup;
+
+import com.example.clientapi.dto.UserDto;
+import com.example.clientapi.dto.UserFilterDto;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import com.example.clientapi.security.JwtUtils;
+import com.example.clientapi.service.UserService;
+import com.example.clientapi.service.impl.UserDetailsServiceImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Préchauffage exécuté avant que l'instance ne se déclare prête.
+ *
+ * Les ApplicationRunner s'exécutent avant la publication de {@code ReadinessState.ACCEPTING_TRAFFIC} :
+ * tant que le préchauffage n'est pas terminé, la sonde de disponibilité et {@code /api/v1/users/health}
+ * répondent 503. Le trafic synthétique, uniquement en lecture, fait compiler par le JIT les chemins
+ * chauds (JWT, BCrypt, conversion et sérialisation des {@link UserDto}, requêtes et plans Hibernate),
+ * remplit le pool de connexions et les caches de second niveau et de requêtes.
+ *
+ * La durée totale est bornée : une étape interrompue par l'échéance n'empêche pas le démarrage,
+ * pas plus qu'une erreur, journalisée puis ignorée.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    // Sujet des tokens synthétiques ; ne correspond à aucun compte
+    private static final String WARMUP_SUBJECT = "warmup@payetonkawa.invalid";
+    private static final int SAMPLE_SIZE = 20;
+
+    private final UserService userService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final JwtUtils jwtUtils;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final Duration maxDuration;
+    private final int iterations;
+    private final int queryIterations;
+    private final int bcryptIterations;
+    private final int connections;
+
+    @Autowired
+    public WarmUpRunner(UserService userService, UserDetailsServiceImpl userDetailsService, JwtUtils jwtUtils,
+                        PasswordEncoder passwordEncoder, ObjectMapper objectMapper, DataSource dataSource,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.warmup.max-duration:30s}") Duration maxDuration,
+                        @Value("${app.warmup.iterations:5000}") int iterations,
+                        @Value("${app.warmup.query-iterations:200}") int queryIterations,
+                        @Value("${app.warmup.bcrypt-iterations:5}") int bcryptIterations,
+                        @Value("${app.warmup.connections:10}") int connections) {
+        this.userService = userService;
+        this.userDetailsService = userDetailsService;
+        this.jwtUtils = jwtUtils;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.maxDuration = maxDuration;
+        this.iterations = iterations;
+        this.queryIterations = queryIterations;
+        this.bcryptIterations = bcryptIterations;
+        this.connections = connections;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        logger.info("Préchauffage avant l'ouverture au trafic (durée maximale: {})", maxDuration);
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        step("connexions", 1, deadline, this::primeConnectionPool);
+
+        List<UserDto> sample = loadSample();
+        String token = jwtUtils.generateTokenFromUsername(WARMUP_SUBJECT);
+        String hash = passwordEncoder.encode("warm-up");
+
+        step("jwt", iterations, deadline, () -> {
+            jwtUtils.generateTokenFromUsername(WARMUP_SUBJECT);
+            if (jwtUtils.validateJwtToken(token)) {
+                jwtUtils.getUserNameFromJwtToken(token);
+            }
+        });
+        step("bcrypt", bcryptIterations, deadline, () -> passwordEncoder.matches("warm-up", hash));
+        step("serialisation", iterations, deadline, () -> serialize(sample));
+        step("requetes", queryIterations, deadline, () -> runQueries(sample));
+        // Agrégat sur toute la table : une exécution suffit à remplir sa région de cache
+        step("repartition-geo", 1, deadline, () -> userService.getGeoStats(null, null));
+
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("warmup.duration")
+                .description("Durée du préchauffage avant l'ouverture au trafic")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Préchauffage terminé en {} ms{}", TimeUnit.NANOSECONDS.toMillis(elapsed),
+                System.nanoTime() > deadline ? " (interrompu par la durée maximale)" : "");
+    }
+
+    /**
+     * Exécute une étape au plus {@code count} fois avant l'échéance, et journalise la durée
+     * de la première et de la dernière exécution pour mesurer le gain du préchauffage.
+     */
+    private void step(String name, int count, long deadline, Runnable action) {
+        Timer timer = Timer.builder("warmup.step.duration")
+                .description("Durée d'une itération d'une étape du préchauffage")
+                .tag("step", name)
+                .register(meterRegistry);
+        long first = 0;
+        long last = 0;
+        int executed = 0;
+        try {
+            while (executed < count && System.nanoTime() < deadline) {
+                long iterationStart = System.nanoTime();
+                action.run();
+                last = System.nanoTime() - iterationStart;
+                timer.record(last, TimeUnit.NANOSECONDS);
+                if (executed++ == 0) {
+                    first = last;
+                }
+            }
+            logger.info("Préchauffage {}: {} itérations, première {} µs, dernière {} µs", name, executed,
+                    TimeUnit.NANOSECONDS.toMicros(first), TimeUnit.NANOSECONDS.toMicros(last));
+        } catch (RuntimeException ex) {
+            logger.warn("Échec de l'étape de préchauffage {} après {} itérations, étape ignorée",
+                    name, executed, ex);
+        }
+    }
+
+    /**
+     * Ouvre simultanément jusqu'à {@code connections} connexions vers la base primaire puis les rend :
+     * le pool les conserve jusqu'à leur délai d'inactivité.
+     */
+    private void primeConnectionPool() {
+        List<Connection> opened = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Ouverture des connexions impossible", ex);
+        } finally {
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (SQLException ex) {
+                    logger.debug("Fermeture d'une connexion de préchauffage en échec", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Échantillon d'utilisateurs existants pour les requêtes et la sérialisation ;
+     * un utilisateur fictif si la base est vide.
+     */
+    private List<UserDto> loadSample() {
+        try {
+            List<UserDto> sample = userService.getAllUsers(PageRequest.of(0, SAMPLE_SIZE, Sort.by("id"))).getContent();
+            if (!sample.isEmpty()) {
+                return sample;
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Lecture de l'échantillon de préchauffage impossible", ex);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return List.of(new UserDto(0L, "Prénom", "Nom", WARMUP_SUBJECT, "0102030405", "1 rue du Café",
+                "Paris", "75001", "France", UserStatus.ACTIVE, UserRole.CLIENT, "PayeTonKawa", now, now));
+    }
+
+    private void serialize(List<UserDto> sample) {
+        try {
+            objectMapper.writeValueAsBytes(sample);
+            objectMapper.writeValueAsBytes(sample.get(0));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Requêtes représentatives des endpoints de lecture, dont celles servies par les caches
+     * (entité par identifiant naturel, comptages en cache de requêtes). La répartition géographique,
+     * qui parcourt toute la table, fait l'objet d'une étape distincte exécutée une fois.
+     */
+    private void runQueries(List<UserDto> sample) {
+        Pageable byLastName = PageRequest.of(0, SAMPLE_SIZE, Sort.by("lastName"));
+        userService.getAllUsers(byLastName);
+        userService.getAllClients(byLastName);
+        userService.getUsersByStatus(UserStatus.ACTIVE, byLastName);
+
+        UserDto reference = sample.get(0);
+        UserFilterDto filter = new UserFilterDto();
+        filter.setCity(reference.getCity());
+        filter.setRole(reference.getRole());
+        userService.filterUsers(filter, byLastName);
+
+        for (UserStatus status : UserStatus.values()) {
+            userService.countUsersByStatus(status);
+        }
+        for (UserRole role : UserRole.values()) {
+            userService.countUsersByRole(role);
+        }
+        userService.countUsers();
+
+        if (reference.getId() != 0L) {
+            userService.getUserByEmail(reference.getEmail());
+            userDetailsService.loadUserByUsername(reference.getEmail());
+        }
+    }
+}
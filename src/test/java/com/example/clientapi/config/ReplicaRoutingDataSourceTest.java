@@ -0,0 +1,121 @@
+package com.example.clientapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie le routage lecture/écriture avec deux bases H2 en mémoire jouant la primaire et le réplica.
+ *
+ * Chaque base contient une table {@code routing_node} portant son nom, ce qui permet de savoir
+ * quelle base a servi une requête passée par la DataSource routée.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.read-your-writes-window=1m",
+        "app.datasource.replica.health-check-interval=1h"
+})
+class ReplicaRoutingDataSourceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaHealthProbe replicaHealthProbe;
+
+    @BeforeEach
+    void createNodes() {
+        createNode("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1", "primary");
+        createNode("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "replica");
+        replicaHealthProbe.probe();
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionIsServedByReplica() {
+        assertThat(currentNode(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionIsServedByPrimary() {
+        assertThat(currentNode(false)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsFollowOwnWritesToPrimary() {
+        authenticate("alice@payetonkawa.fr");
+        write();
+        assertThat(currentNode(true)).isEqualTo("primary");
+
+        authenticate("bob@payetonkawa.fr");
+        assertThat(currentNode(true)).isEqualTo("replica");
+    }
+
+    @Test
+    @DirtiesContext
+    void readsFallBackToPrimaryWhenReplicaIsDown() throws Exception {
+        // Le pool est enveloppé par le suivi des connexions
+        replicaDataSource.unwrap(HikariDataSource.class).close();
+        replicaHealthProbe.probe();
+
+        assertThat(replicaHealthProbe.isHealthy()).isFalse();
+        assertThat(currentNode(true)).isEqualTo("primary");
+    }
+
+    private String currentNode(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM routing_node", String.class));
+    }
+
+    private void write() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                new JdbcTemplate(dataSource).update("UPDATE routing_node SET name = name"));
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, AuthorityUtils.createAuthorityList("ROLE_CLIENT")));
+    }
+
+    private static void createNode(String url, String name) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS routing_node (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM routing_node");
+        jdbcTemplate.update("INSERT INTO routing_node (name) VALUES (?)", name);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.clientapi.controller;
+
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.monitoring.ConnectionLifecycleMonitor;
+import com.example.clientapi.readmodel.UserSegmentIndex;
+import com.example.clientapi.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie, pour chaque endpoint de {@link UserController}, que la connexion JDBC est rendue au pool
+ * avant la sérialisation de la réponse (open-in-view désactivé).
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.open-in-view=false",
+        "app.users.segments.enabled=true"
+})
+@AutoConfigureMockMvc
+class UserControllerConnectionReleaseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConnectionLifecycleMonitor connectionLifecycleMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserSegmentIndex segmentIndex;
+
+    private User admin;
+    private User client;
+    private User removable;
+
+    @BeforeEach
+    void awaitSegmentIndex() throws InterruptedException {
+        // L'index des segments est chargé en arrière-plan après le démarrage
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (!segmentIndex.isReady()) {
+            assertThat(System.nanoTime()).as("index des segments non chargé").isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    @BeforeEach
+    void createUsers() {
+        admin = userRepository.save(new User("Alice", "Admin", uniqueEmail("admin"), "secret", UserRole.ADMIN));
+        client = userRepository.save(new User("Bob", "Client", uniqueEmail("client"), "secret", UserRole.CLIENT));
+        removable = userRepository.save(new User("Carl", "Client", uniqueEmail("removable"), "secret", UserRole.CLIENT));
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.findAllById(List.of(admin.getId(), client.getId(), removable.getId()))
+                .forEach(userRepository::delete);
+    }
+
+    static Stream<Arguments> endpoints() {
+        return Stream.of(
+                endpoint("POST /", true, t -> post("/api/v1/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Dan\",\"lastName\":\"New\",\"email\":\"" + uniqueEmail("created")
+                                + "\",\"password\":\"secret\",\"role\":\"CLIENT\"}")),
+                endpoint("GET /{id}", true, t -> get("/api/v1/users/{id}", t.client.getId())),
+                endpoint("GET /email/{email}", true, t -> get("/api/v1/users/email/{email}", t.client.getEmail())),
+                endpoint("POST /batch-get", true, t -> post("/api/v1/users/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + t.client.getId() + "],\"emails\":[\"" + t.admin.getEmail() + "\"]}")),
+                endpoint("GET /", true, t -> get("/api/v1/users")),
+                endpoint("GET /clients", true, t -> get("/api/v1/users/clients")),
+                endpoint("GET /admins", true, t -> get("/api/v1/users/admins")),
+                // Corps écrit en asynchrone par le service d'export, hors de la sérialisation MVC
+                endpoint("GET /export", false, t -> get("/api/v1/users/export").param("city", "Paris")),
+                endpoint("GET /changes", true, t -> get("/api/v1/users/changes").param("limit", "10")),
+                endpoint("PUT /{id}", true, t -> put("/api/v1/users/{id}", t.client.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Robert\"}")),
+                endpoint("PATCH /{id}", true, t -> patch("/api/v1/users/{id}", t.client.getId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"city\":\"Lyon\"}")),
+                // Réponse 204 sans corps
+                endpoint("DELETE /{id}", false, t -> delete("/api/v1/users/{id}", t.removable.getId())),
+                endpoint("GET /status/{status}", true, t -> get("/api/v1/users/status/{status}", "ACTIVE")),
+                endpoint("GET /role/{role}", true, t -> get("/api/v1/users/role/{role}", "CLIENT")),
+                endpoint("GET /search", true, t -> get("/api/v1/users/search").param("q", "Bob")),
+                endpoint("GET /filter", true, t -> get("/api/v1/users/filter").param("role", "CLIENT")),
+                endpoint("PATCH /{id}/activate", true, t -> patch("/api/v1/users/{id}/activate", t.client.getId())),
+                endpoint("PATCH /{id}/deactivate", true, t -> patch("/api/v1/users/{id}/deactivate", t.client.getId())),
+                endpoint("PATCH /{id}/role/{role}", true,
+                        t -> patch("/api/v1/users/{id}/role/{role}", t.client.getId(), "CLIENT")),
+                endpoint("PATCH /bulk/status/{status}", true, t -> patch("/api/v1/users/bulk/status/{status}", "ACTIVE")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + t.client.getId() + "]}")),
+                endpoint("PATCH /bulk/role/{role}", true, t -> patch("/api/v1/users/bulk/role/{role}", "CLIENT")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + t.client.getId() + "]}")),
+                endpoint("GET /stats", true, t -> get("/api/v1/users/stats")),
+                endpoint("GET /stats/geo", true, t -> get("/api/v1/users/stats/geo").param("role", "CLIENT")),
+                endpoint("GET /stats/registrations", true, t -> get("/api/v1/users/stats/registrations")
+                        .param("from", "2024-01-01").param("to", "2024-12-31").param("granularity", "MONTH")),
+                endpoint("POST /stats/registrations/rebuild", true,
+                        t -> post("/api/v1/users/stats/registrations/rebuild")),
+                endpoint("POST /segments/query", true, t -> post("/api/v1/users/segments/query")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expression\":{\"dimension\":\"ROLE\",\"values\":[\"CLIENT\"]},"
+                                + "\"includeIds\":true}")),
+                endpoint("GET /profile", true, t -> get("/api/v1/users/profile"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void connectionIsReleasedBeforeSerialization(String name, boolean writesBody,
+                                                 Function<UserControllerConnectionReleaseTest, MockHttpServletRequestBuilder> request)
+            throws Exception {
+        double releasedBefore = serializationCount("released");
+        double heldBefore = serializationCount("held");
+
+        mockMvc.perform(request.apply(this).with(user(admin)))
+                .andExpect(status().is2xxSuccessful());
+
+        assertThat(serializationCount("held")).isEqualTo(heldBefore);
+        if (writesBody) {
+            assertThat(serializationCount("released")).isGreaterThan(releasedBefore);
+        }
+        assertThat(connectionLifecycleMonitor.heldByCurrentThread()).isZero();
+    }
+
+    private double serializationCount(String outcome) {
+        return meterRegistry.find("db.connection.serialization").tag("outcome", outcome).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private static Arguments endpoint(String name, boolean writesBody,
+                                      Function<UserControllerConnectionReleaseTest, MockHttpServletRequestBuilder> request) {
+        return Arguments.of(name, writesBody, request);
+    }
+
+    private static String uniqueEmail(String prefix) {
+        return prefix + "-" + UUID.randomUUID() + "@payetonkawa.fr";
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.clientapi.controller;
+
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import com.example.clientapi.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie l'export en flux continu : contenu NDJSON et CSV (guillemets RFC 4180), filtres
+ * partagés avec la recherche par critères, compression gzip et restriction aux admins.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String city = "Ville-" + UUID.randomUUID();
+    private final List<Long> createdIds = new ArrayList<>();
+
+    private User admin;
+    private User activeClient;
+    private User inactiveClient;
+    private User activeAdmin;
+
+    @BeforeEach
+    void createUsers() {
+        admin = save(new User("Alice", "Admin", uniqueEmail("admin"), "secret", UserRole.ADMIN), null,
+                UserStatus.ACTIVE);
+        User bob = new User("Bob", "Client", uniqueEmail("active"), "secret", UserRole.CLIENT);
+        bob.setAddress("12, rue \"Kawa\"\nBât. B");
+        bob.setCompanyName("Torréfaction Dupont");
+        activeClient = save(bob, city, UserStatus.ACTIVE);
+        inactiveClient = save(new User("Carl", "Client", uniqueEmail("inactive"), "secret", UserRole.CLIENT), city,
+                UserStatus.INACTIVE);
+        activeAdmin = save(new User("Dora", "Admin", uniqueEmail("city-admin"), "secret", UserRole.ADMIN), city,
+                UserStatus.ACTIVE);
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.deleteAllById(createdIds);
+    }
+
+    @Test
+    void ndjsonExportWritesOneObjectPerLineInIdOrder() throws Exception {
+        MockHttpServletResponse response = export(get("/api/v1/users/export").param("city", city));
+
+        assertThat(response.getContentType()).isEqualTo("application/x-ndjson");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION))
+                .isEqualTo("attachment; filename=\"users-export.ndjson\"");
+
+        String body = response.getContentAsString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+
+        assertThat(lines).extracting(line -> line.get("id").asLong())
+                .containsExactly(activeClient.getId(), inactiveClient.getId(), activeAdmin.getId());
+        JsonNode first = lines.get(0);
+        assertThat(first.get("email").asText()).isEqualTo(activeClient.getEmail());
+        assertThat(first.get("address").asText()).isEqualTo("12, rue \"Kawa\"\nBât. B");
+        assertThat(first.get("companyName").asText()).isEqualTo("Torréfaction Dupont");
+        assertThat(first.get("status").asText()).isEqualTo("ACTIVE");
+        assertThat(first.get("role").asText()).isEqualTo("CLIENT");
+        assertThat(first.get("phone").isNull()).isTrue();
+        assertThat(first.has("password")).isFalse();
+    }
+
+    @Test
+    void csvExportQuotesFieldsPerRfc4180() throws Exception {
+        MockHttpServletResponse response = export(get("/api/v1/users/export")
+                .param("format", "CSV").param("city", city).param("status", "ACTIVE"));
+
+        assertThat(response.getContentType()).startsWith("text/csv");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION))
+                .isEqualTo("attachment; filename=\"users-export.csv\"");
+
+        String body = response.getContentAsString(StandardCharsets.UTF_8);
+        assertThat(body).startsWith("id,firstName,lastName,email,phone,address,city,postalCode,"
+                + "country,status,role,companyName,createdAt,updatedAt\r\n");
+        // Virgule, guillemets doublés et saut de ligne conservés dans un champ entre guillemets
+        assertThat(body).contains(activeClient.getId() + ",Bob,Client," + activeClient.getEmail()
+                + ",,\"12, rue \"\"Kawa\"\"\nBât. B\"," + city + ",,,ACTIVE,CLIENT,Torréfaction Dupont,");
+        assertThat(body).contains("\r\n" + activeAdmin.getId() + ",Dora,Admin,");
+        assertThat(body).doesNotContain(inactiveClient.getEmail());
+        assertThat(body).endsWith("\r\n");
+    }
+
+    @Test
+    void filtersMatchTheCriteriaSearch() throws Exception {
+        MockHttpServletResponse response = export(get("/api/v1/users/export")
+                .param("city", city.toUpperCase()).param("status", "ACTIVE").param("role", "CLIENT"));
+
+        assertThat(ids(response.getContentAsString(StandardCharsets.UTF_8))).containsExactly(activeClient.getId());
+
+        MockHttpServletResponse inactive = export(get("/api/v1/users/export")
+                .param("city", city).param("status", "INACTIVE"));
+        assertThat(ids(inactive.getContentAsString(StandardCharsets.UTF_8))).containsExactly(inactiveClient.getId());
+    }
+
+    @Test
+    void gzipExportIsCompressedAndMatchesThePlainExport() throws Exception {
+        String plain = export(get("/api/v1/users/export").param("format", "CSV").param("city", city))
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        MockHttpServletResponse compressed = export(get("/api/v1/users/export")
+                .param("format", "CSV").param("city", city).param("gzip", "true"));
+
+        assertThat(compressed.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gunzip(compressed.getContentAsByteArray())).isEqualTo(plain);
+    }
+
+    @Test
+    void exportIsReservedToAdmins() throws Exception {
+        mockMvc.perform(get("/api/v1/users/export").param("city", city).with(user(activeClient)))
+                .andExpect(status().isForbidden());
+    }
+
+    private MockHttpServletResponse export(MockHttpServletRequestBuilder request) throws Exception {
+        // Le corps est écrit en asynchrone : la réponse n'est complète qu'après le dispatch
+        MvcResult started = mockMvc.perform(request.with(user(admin)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+    }
+
+    private List<Long> ids(String ndjson) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            if (!line.isEmpty()) {
+                ids.add(objectMapper.readTree(line).get("id").asLong());
+            }
+        }
+        return ids;
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private User save(User user, String userCity, UserStatus userStatus) {
+        user.setCity(userCity);
+        user.setStatus(userStatus);
+        User saved = userRepository.save(user);
+        createdIds.add(saved.getId());
+        return saved;
+    }
+
+    private static String uniqueEmail(String prefix) {
+        return prefix + "-" + UUID.randomUUID() + "@payetonkawa.fr";
+    }
+}
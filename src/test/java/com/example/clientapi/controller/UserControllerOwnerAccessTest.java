@@ -0,0 +1,132 @@
+package com.example.clientapi.controller;
+
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import com.example.clientapi.monitoring.QueryInstrumentation;
+import com.example.clientapi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie l'accès d'un client à sa propre fiche via {@code @userSecurity.isOwner} :
+ * lecture et modification autorisées, fiche d'un autre refusée, rôle et statut réservés aux admins.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerOwnerAccessTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QueryInstrumentation queryInstrumentation;
+
+    private User client;
+    private User other;
+
+    @BeforeEach
+    void createUsers() {
+        client = userRepository.save(new User("Bob", "Client", uniqueEmail("client"), "secret", UserRole.CLIENT));
+        other = userRepository.save(new User("Carl", "Client", uniqueEmail("other"), "secret", UserRole.CLIENT));
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.findAllById(List.of(client.getId(), other.getId())).forEach(userRepository::delete);
+    }
+
+    @Test
+    void clientCanReadUpdateAndPatchTheirOwnRecord() throws Exception {
+        mockMvc.perform(get("/api/v1/users/{id}", client.getId()).with(user(client)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(client.getEmail()));
+
+        mockMvc.perform(put("/api/v1/users/{id}", client.getId()).with(user(client))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Robert\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Robert"));
+
+        mockMvc.perform(patch("/api/v1/users/{id}", client.getId()).with(user(client))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"city\":\"Lyon\"}"))
+                .andExpect(status().isNoContent());
+
+        User reloaded = userRepository.findById(client.getId()).orElseThrow();
+        assertThat(reloaded.getFirstName()).isEqualTo("Robert");
+        assertThat(reloaded.getCity()).isEqualTo("Lyon");
+    }
+
+    @Test
+    void clientIsForbiddenOnAnotherUsersRecord() throws Exception {
+        mockMvc.perform(get("/api/v1/users/{id}", other.getId()).with(user(client)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(put("/api/v1/users/{id}", other.getId()).with(user(client))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Pirate\"}"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(patch("/api/v1/users/{id}", other.getId()).with(user(client))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"city\":\"Lyon\"}"))
+                .andExpect(status().isForbidden());
+
+        User untouched = userRepository.findById(other.getId()).orElseThrow();
+        assertThat(untouched.getFirstName()).isEqualTo("Carl");
+        assertThat(untouched.getCity()).isNull();
+    }
+
+    @Test
+    void clientCannotChangeTheirOwnRoleOrStatus() throws Exception {
+        mockMvc.perform(patch("/api/v1/users/{id}", client.getId()).with(user(client))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"role\":\"ADMIN\",\"status\":\"SUSPENDED\",\"city\":\"Nantes\"}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(put("/api/v1/users/{id}", client.getId()).with(user(client))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"role\":\"ADMIN\"}"))
+                .andExpect(status().isOk());
+
+        User reloaded = userRepository.findById(client.getId()).orElseThrow();
+        assertThat(reloaded.getRole()).isEqualTo(UserRole.CLIENT);
+        assertThat(reloaded.getStatus()).isEqualTo(UserStatus.ACTIVE);
+        assertThat(reloaded.getCity()).isEqualTo("Nantes");
+    }
+
+    @Test
+    void ownerReadIsServedFromThePrincipalWithoutQuery() throws Exception {
+        long statementsBefore = queryInstrumentation.executedStatements();
+
+        mockMvc.perform(get("/api/v1/users/{id}", client.getId()).with(user(client)))
+                .andExpect(status().isOk());
+
+        assertThat(queryInstrumentation.executedStatements() - statementsBefore).isZero();
+    }
+
+    private static String uniqueEmail(String prefix) {
+        return prefix + "-" + UUID.randomUUID() + "@payetonkawa.fr";
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.clientapi.health;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie que la sonde est servie depuis l'instantané, sans atteindre la suite de la chaîne,
+ * et qu'une instance non prête ou un instantané périmé répondent 503.
+ */
+class HealthProbeFilterTest {
+
+    private final HealthSnapshotProber prober = mock(HealthSnapshotProber.class);
+    private HealthProbeFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        filter = new HealthProbeFilter(prober, new ObjectMapper(), Duration.ofSeconds(5));
+        filter.onReadinessChange(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+    }
+
+    @Test
+    void servesPreSerializedSnapshotWithoutCallingTheChain() throws Exception {
+        byte[] body = "{\"status\":\"DEGRADED\"}".getBytes(StandardCharsets.UTF_8);
+        when(prober.snapshot()).thenReturn(new HealthSnapshot("DEGRADED", 200, body, System.nanoTime(), Map.of()));
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = probe("GET", chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(body);
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-store");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void answersUnavailableWhileNotAcceptingTraffic() throws Exception {
+        when(prober.snapshot()).thenReturn(new HealthSnapshot("UP", 200, new byte[0], System.nanoTime(), Map.of()));
+        filter.onReadinessChange(new AvailabilityChangeEvent<>(this, ReadinessState.REFUSING_TRAFFIC));
+
+        MockHttpServletResponse response = probe("GET", new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getContentAsString()).contains("OUT_OF_SERVICE");
+    }
+
+    @Test
+    void staleSnapshotIsReportedDown() throws Exception {
+        long tenSecondsAgo = System.nanoTime() - Duration.ofSeconds(10).toNanos();
+        when(prober.snapshot()).thenReturn(new HealthSnapshot("UP", 200, new byte[0], tenSecondsAgo, Map.of()));
+
+        MockHttpServletResponse response = probe("HEAD", new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getContentLength()).isPositive();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void otherRequestsContinueThroughTheChain() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/profile");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    private MockHttpServletResponse probe(String method, MockFilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, HealthProbeFilter.HEALTH_PATH), response, chain);
+        return response;
+    }
+}
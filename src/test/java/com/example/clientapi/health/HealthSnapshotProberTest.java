@@ -0,0 +1,153 @@
+package com.example.clientapi.health;
+
+import com.example.clientapi.service.TokenBlacklistService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie l'agrégation des états des composants, le passage à DOWN après plusieurs sondages
+ * avec pool épuisé et le traitement d'une base injoignable, sans fuite de détail dans la réponse publique.
+ */
+class HealthSnapshotProberTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final HikariDataSource pool = mock(HikariDataSource.class);
+    private final HikariPoolMXBean mxBean = mock(HikariPoolMXBean.class);
+    private final TokenBlacklistService tokenBlacklistService = mock(TokenBlacklistService.class);
+    private HealthSnapshotProber prober;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        when(dataSource.unwrap(HikariDataSource.class)).thenReturn(pool);
+        when(pool.getHikariPoolMXBean()).thenReturn(mxBean);
+        when(pool.getMaximumPoolSize()).thenReturn(10);
+
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        when(pool.getConnection()).thenReturn(connection);
+
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(mock(Statistics.class));
+
+        prober = new HealthSnapshotProber(dataSource, tokenBlacklistService, entityManagerFactory,
+                mock(ObjectProvider.class), mock(ObjectProvider.class),
+                new ObjectMapper(), new SimpleMeterRegistry(),
+                Duration.ofHours(1), Duration.ofSeconds(10), Duration.ofSeconds(2), 3, 100);
+        // Sondage initial ; le suivant n'arrive qu'au bout d'une heure
+        prober.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        prober.shutdown();
+    }
+
+    @Test
+    void worstStatusWins() {
+        assertThat(HealthSnapshotProber.worst("UP", "UP")).isEqualTo("UP");
+        assertThat(HealthSnapshotProber.worst("UP", "DEGRADED")).isEqualTo("DEGRADED");
+        assertThat(HealthSnapshotProber.worst("DEGRADED", "UP")).isEqualTo("DEGRADED");
+        assertThat(HealthSnapshotProber.worst("DEGRADED", "DOWN")).isEqualTo("DOWN");
+        assertThat(HealthSnapshotProber.worst("DOWN", "UP")).isEqualTo("DOWN");
+    }
+
+    @Test
+    void healthyComponentsAreUp() {
+        HealthSnapshot snapshot = prober.snapshot();
+
+        assertThat(snapshot.status()).isEqualTo("UP");
+        assertThat(snapshot.httpStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void oversizedBlacklistDegradesWithoutFailingTheProbe() {
+        when(tokenBlacklistService.getBlacklistedTokensCount()).thenReturn(101);
+
+        prober.probe();
+
+        assertThat(prober.snapshot().status()).isEqualTo("DEGRADED");
+        assertThat(prober.snapshot().httpStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void exhaustedPoolIsDownOnlyAfterConsecutiveProbes() {
+        when(mxBean.getActiveConnections()).thenReturn(10);
+        when(mxBean.getThreadsAwaitingConnection()).thenReturn(4);
+
+        prober.probe();
+        prober.probe();
+        assertThat(prober.snapshot().status()).isEqualTo("DEGRADED");
+        assertThat(prober.snapshot().components().get("pool")).containsEntry("awaiting", 4);
+
+        prober.probe();
+        assertThat(prober.snapshot().status()).isEqualTo("DOWN");
+        assertThat(prober.snapshot().httpStatus()).isEqualTo(503);
+
+        // Un sondage sans attente remet le compteur à zéro
+        when(mxBean.getThreadsAwaitingConnection()).thenReturn(0);
+        prober.probe();
+        assertThat(prober.snapshot().status()).isEqualTo("UP");
+    }
+
+    @Test
+    void unreachableDatabaseIsDownWithoutLeakingTheDriverMessage() throws Exception {
+        when(pool.getConnection()).thenThrow(
+                new SQLException("Connection to db-primary.internal:5432 refused", "08001"));
+
+        prober.probe();
+
+        HealthSnapshot snapshot = prober.snapshot();
+        assertThat(snapshot.status()).isEqualTo("DOWN");
+        assertThat(snapshot.httpStatus()).isEqualTo(503);
+        assertThat(snapshot.components().get("db"))
+                .containsEntry("error", "SQLException")
+                .containsEntry("sqlState", "08001");
+        assertThat(snapshot.components().toString()).doesNotContain("db-primary.internal");
+
+        String body = new String(snapshot.body(), StandardCharsets.UTF_8);
+        assertThat(body).contains("\"status\":\"DOWN\"").doesNotContain("components", "db-primary", "pool");
+    }
+
+    @Test
+    void publicBodyCarriesOnlyTheOverallStatus() throws Exception {
+        when(tokenBlacklistService.getBlacklistedTokensCount()).thenReturn(42);
+        when(mxBean.getActiveConnections()).thenReturn(3);
+
+        prober.probe();
+
+        String body = new String(prober.snapshot().body(), StandardCharsets.UTF_8);
+        assertThat(new ObjectMapper().readTree(body).fieldNames()).toIterable()
+                .containsExactly("status", "service", "version", "checkedAt");
+        assertThat(prober.snapshot().components()).containsKeys("pool", "db", "blacklist", "cache");
+    }
+
+    @Test
+    void readModelStatesAreReportedWhenAbsent() {
+        assertThat(prober.snapshot().components().get("cache"))
+                .containsEntry("readModel", "disabled")
+                .containsEntry("segmentIndex", "disabled");
+    }
+}
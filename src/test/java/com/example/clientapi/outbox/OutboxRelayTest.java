@@ -0,0 +1,142 @@
+package com.example.clientapi.outbox;
+
+import com.example.clientapi.entity.OutboxEvent;
+import com.example.clientapi.entity.UserEventType;
+import com.example.clientapi.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie la sélection en base des événements publiables, l'attente après un échec,
+ * l'ordre par utilisateur et le suivi de la livraison par puits.
+ */
+@SpringBootTest(properties = "app.outbox.relay.enabled=false")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void failedEventsAreDeferredWithoutBlockingOtherUsers() {
+        RecordingSink sink = new RecordingSink("webhook", 1);
+        OutboxRelay relay = relay(Duration.ofHours(1), sink);
+        OutboxEvent first = write(1L);
+        OutboxEvent second = write(2L);
+
+        relay.run();
+
+        OutboxEvent failed = outboxEventRepository.findById(first.getId()).orElseThrow();
+        assertThat(failed.getPublishedAt()).isNull();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getNextAttemptAt()).isAfter(LocalDateTime.now().plusMinutes(59));
+        assertThat(failed.getLastError()).startsWith("webhook: ");
+        assertThat(outboxEventRepository.findById(second.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+
+        // Le puits est rétabli : un nouvel utilisateur passe, la suite de l'utilisateur 1 attend
+        OutboxEvent otherUser = write(3L);
+        OutboxEvent laterForFirstUser = write(1L);
+
+        relay.run();
+
+        assertThat(sink.received).containsExactly(otherUser.getId());
+        assertThat(outboxEventRepository.findById(otherUser.getId()).orElseThrow().getPublishedAt()).isNotNull();
+        assertThat(outboxEventRepository.findById(laterForFirstUser.getId()).orElseThrow().getPublishedAt()).isNull();
+    }
+
+    @Test
+    void retryIsOnlyDeliveredToTheSinksThatFailed() {
+        RecordingSink healthy = new RecordingSink("in-process", 0);
+        RecordingSink flaky = new RecordingSink("webhook", 1);
+        OutboxRelay relay = relay(Duration.ZERO, healthy, flaky);
+        OutboxEvent event = write(1L);
+
+        relay.run();
+
+        OutboxEvent pending = outboxEventRepository.findById(event.getId()).orElseThrow();
+        assertThat(pending.getPublishedAt()).isNull();
+        assertThat(pending.isDeliveredTo("in-process")).isTrue();
+        assertThat(pending.isDeliveredTo("webhook")).isFalse();
+
+        relay.run();
+
+        assertThat(healthy.received).containsExactly(event.getId());
+        assertThat(flaky.received).containsExactly(event.getId());
+        assertThat(outboxEventRepository.findById(event.getId()).orElseThrow().getPublishedAt()).isNotNull();
+    }
+
+    @Test
+    void claimedEventsAreNotSelectedAgainBeforeTheClaimExpires() {
+        OutboxRelay relay = relay(Duration.ZERO);
+        write(1L);
+
+        List<OutboxEvent> claimed = new TransactionTemplate(transactionManager).execute(status -> relay.claimBatch());
+
+        assertThat(claimed).hasSize(1);
+        assertThat(outboxEventRepository.findPublishable(LocalDateTime.now(), PageRequest.of(0, 10))).isEmpty();
+    }
+
+    private OutboxRelay relay(Duration retryBaseDelay, OutboxSink... sinks) {
+        return new OutboxRelay(outboxEventRepository, List.of(sinks), transactionManager, entityManagerFactory,
+                new SimpleMeterRegistry(), 100, 10, retryBaseDelay, Duration.ofHours(1), Duration.ofDays(7),
+                Duration.ofMinutes(1));
+    }
+
+    private OutboxEvent write(Long userId) {
+        return outboxEventRepository.save(
+                new OutboxEvent(userId, UserEventType.USER_UPDATED, "{}", LocalDateTime.now()));
+    }
+
+    /**
+     * Puits qui échoue sur ses premiers appels puis retient les identifiants reçus.
+     */
+    private static final class RecordingSink implements OutboxSink {
+
+        private final String name;
+        private final List<Long> received = new ArrayList<>();
+        private int failuresLeft;
+
+        RecordingSink(String name, int failures) {
+            this.name = name;
+            this.failuresLeft = failures;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void publish(List<UserLifecycleEvent> events) {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("indisponible");
+            }
+            events.forEach(event -> received.add(event.eventId()));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.clientapi.readmodel;
+
+import com.example.clientapi.dto.UserDto;
+import com.example.clientapi.dto.UserFilterDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import com.example.clientapi.repository.UserGeoCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie que le stockage en colonnes applique filtres, tris et agrégats avec la sémantique
+ * des requêtes en base (UserSpecifications, countByGeography).
+ */
+class UserColumnsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0, 0, 123_456_000);
+
+    private UserColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        columns = new UserColumns(2);
+        columns.upsert(user(3L, "Chloé", "Paris", "75011", UserStatus.ACTIVE, UserRole.CLIENT, NOW));
+        columns.upsert(user(1L, "Alice", "paris", "75002", UserStatus.INACTIVE, UserRole.CLIENT, NOW.minusDays(10)));
+        columns.upsert(user(2L, "Bruno", "Lyon", "69003", UserStatus.ACTIVE, UserRole.ADMIN, NOW.minusDays(1)));
+        columns.upsert(user(4L, "Damien", null, null, UserStatus.ACTIVE, UserRole.CLIENT, null));
+    }
+
+    @Test
+    void rowsStayOrderedByIdAndRoundTripAllColumns() {
+        assertThat(ids(columns.matchingRows(null))).containsExactly(1L, 2L, 3L, 4L);
+
+        UserDto chloe = columns.toDto(columns.matchingRows(null)[2]);
+        assertThat(chloe.getFirstName()).isEqualTo("Chloé");
+        assertThat(chloe.getEmail()).isEqualTo("user3@payetonkawa.fr");
+        assertThat(chloe.getStatus()).isEqualTo(UserStatus.ACTIVE);
+        assertThat(chloe.getCreatedAt()).isEqualTo(NOW);
+        assertThat(columns.toDto(columns.matchingRows(null)[3]).getCreatedAt()).isNull();
+    }
+
+    @Test
+    void filterMatchesSpecificationSemantics() {
+        UserFilterDto filter = new UserFilterDto();
+        filter.setCity(" PARIS ");
+        assertThat(ids(columns.matchingRows(filter))).containsExactly(1L, 3L);
+
+        filter.setStatus(UserStatus.ACTIVE);
+        assertThat(ids(columns.matchingRows(filter))).containsExactly(3L);
+
+        UserFilterDto range = new UserFilterDto();
+        range.setCreatedFrom(NOW.minusDays(1));
+        range.setCreatedTo(NOW);
+        assertThat(ids(columns.matchingRows(range))).containsExactly(2L);
+
+        UserFilterDto prefix = new UserFilterDto();
+        prefix.setPostalCodePrefix("75");
+        assertThat(columns.count(prefix)).isEqualTo(2);
+
+        UserFilterDto unknownCountry = new UserFilterDto();
+        unknownCountry.setCountry("Belgique");
+        assertThat(columns.count(unknownCountry)).isZero();
+    }
+
+    @Test
+    void updatesAndRemovalsAreVisible() {
+        columns.upsert(user(2L, "Bruno", "Marseille", "13001", UserStatus.INACTIVE, UserRole.ADMIN, NOW));
+        columns.remove(1L);
+        columns.upsert(user(5L, "Emma", "Lyon", "69001", UserStatus.ACTIVE, UserRole.CLIENT, NOW));
+
+        UserFilterDto inactive = new UserFilterDto();
+        inactive.setStatus(UserStatus.INACTIVE);
+        assertThat(ids(columns.matchingRows(inactive))).containsExactly(2L);
+        assertThat(columns.liveRows()).isEqualTo(4);
+        assertThat(ids(columns.matchingRows(null))).containsExactly(2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void sortPlacesMissingValuesLastWhenAscendingAndFirstWhenDescending() {
+        int[] rows = columns.matchingRows(null);
+
+        assertThat(ids(columns.sort(rows, Sort.by("city", "firstName")))).containsExactly(2L, 3L, 1L, 4L);
+        assertThat(ids(columns.sort(rows, Sort.by(Sort.Direction.DESC, "createdAt")))).containsExactly(4L, 3L, 2L, 1L);
+        assertThat(ids(columns.sort(rows, Sort.by("role", "id")))).containsExactly(2L, 1L, 3L, 4L);
+    }
+
+    @Test
+    void geographyGroupsByLowerCaseCityAndTwoCharacterPrefix() {
+        assertThat(columns.countByGeography(null)).containsExactlyInAnyOrder(
+                new UserGeoCount("France", "paris", "75", 2),
+                new UserGeoCount("France", "lyon", "69", 1),
+                new UserGeoCount("France", null, null, 1));
+    }
+
+    private long[] ids(int[] rows) {
+        return IntStream.of(rows).mapToLong(row -> columns.toDto(row).getId()).toArray();
+    }
+
+    private static User user(Long id, String firstName, String city, String postalCode, UserStatus status,
+                             UserRole role, LocalDateTime createdAt) {
+        User user = new User(firstName, "Martin", "user" + id + "@payetonkawa.fr", "secret", role);
+        user.setId(id);
+        user.setCity(city);
+        user.setPostalCode(postalCode);
+        user.setCountry("France");
+        user.setStatus(status);
+        user.setCreatedAt(createdAt);
+        return user;
+    }
+}
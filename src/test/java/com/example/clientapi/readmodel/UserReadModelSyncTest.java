@@ -0,0 +1,71 @@
+package com.example.clientapi.readmodel;
+
+import com.example.clientapi.dto.UserFilterDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie que le modèle de lecture applique les écritures faites hors de l'instance, directement
+ * en base, en suivant le flux de modifications.
+ */
+@SpringBootTest(properties = {
+        "app.users.read-model.enabled=true",
+        "app.users.read-model.sync-interval=200ms",
+        "app.users.read-model.read-your-writes-window=5s",
+        "app.users.changes.safety-lag=2s",
+        "app.users.write-timeout-seconds=1"
+})
+class UserReadModelSyncTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+
+    @Autowired
+    private UserReadModel readModel;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void writesMadeOutsideTheModelAreAppliedFromTheChangeFeed() throws InterruptedException {
+        awaitUntil(readModel::isReady);
+        String city = "Ville-" + UUID.randomUUID();
+        String movedTo = "Ville-" + UUID.randomUUID();
+
+        User user = new User("Eve", "Sync", UUID.randomUUID() + "@payetonkawa.fr", "secret", UserRole.CLIENT);
+        user.setCity(city);
+        user = userRepository.save(user);
+        awaitUntil(() -> readModel.count(cityFilter(city)) == 1);
+
+        user.setCity(movedTo);
+        userRepository.save(user);
+        awaitUntil(() -> readModel.count(cityFilter(movedTo)) == 1);
+
+        assertThat(readModel.count(cityFilter(city))).isZero();
+        assertThat(readModel.isReady()).isTrue();
+        userRepository.delete(user);
+    }
+
+    private static UserFilterDto cityFilter(String city) {
+        UserFilterDto filter = new UserFilterDto();
+        filter.setCity(city);
+        return filter;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition non atteinte en %s", TIMEOUT).isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+}
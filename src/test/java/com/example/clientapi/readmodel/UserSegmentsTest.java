@@ -0,0 +1,157 @@
+package com.example.clientapi.readmodel;
+
+import com.example.clientapi.dto.SegmentDimension;
+import com.example.clientapi.dto.SegmentExpressionDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Vérifie l'évaluation des expressions de segment sur les bitmaps et leur mise à jour incrémentale.
+ */
+class UserSegmentsTest {
+
+    private UserSegments segments;
+
+    @BeforeEach
+    void setUp() {
+        segments = new UserSegments(4);
+        segments.upsert(user(1L, UserStatus.ACTIVE, UserRole.CLIENT, "Lyon", "PayeTonKawa", 2024, 1));
+        segments.upsert(user(2L, UserStatus.ACTIVE, UserRole.CLIENT, "lyon", null, 2024, 6));
+        segments.upsert(user(3L, UserStatus.INACTIVE, UserRole.CLIENT, "Lyon", "Torréfaction", 2024, 3));
+        segments.upsert(user(4L, UserStatus.ACTIVE, UserRole.ADMIN, "Paris", "PayeTonKawa", 2023, 12));
+    }
+
+    @Test
+    void intersectsDimensionsAndMonthRange() {
+        SegmentExpressionDto audience = and(
+                leaf(SegmentDimension.STATUS, "active"),
+                leaf(SegmentDimension.ROLE, "CLIENT"),
+                leaf(SegmentDimension.CITY, " LYON "),
+                leaf(SegmentDimension.HAS_COMPANY, "true"),
+                months("2024-01", "2024-12"));
+
+        assertThat(ids(segments.evaluate(audience, 100))).containsExactly(1L);
+    }
+
+    @Test
+    void unionAndComplementAreRelativeToAllUsers() {
+        SegmentExpressionDto notLyon = new SegmentExpressionDto();
+        notLyon.setNot(leaf(SegmentDimension.CITY, "lyon"));
+        assertThat(ids(segments.evaluate(notLyon, 100))).containsExactly(4L);
+
+        SegmentExpressionDto either = new SegmentExpressionDto();
+        either.setOr(List.of(leaf(SegmentDimension.ROLE, "ADMIN"), leaf(SegmentDimension.STATUS, "INACTIVE")));
+        assertThat(ids(segments.evaluate(either, 100))).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void upsertMovesUserBetweenBitmapsAndRemoveClearsIt() {
+        segments.upsert(user(2L, UserStatus.INACTIVE, UserRole.CLIENT, "Paris", null, 2024, 6));
+        segments.remove(3L);
+
+        assertThat(ids(segments.evaluate(leaf(SegmentDimension.STATUS, "INACTIVE"), 100))).containsExactly(2L);
+        assertThat(ids(segments.evaluate(leaf(SegmentDimension.CITY, "Lyon"), 100))).containsExactly(1L);
+        assertThat(segments.userCount()).isEqualTo(3);
+    }
+
+    @Test
+    void removingTheLastUserOfAValueDropsItsBitmap() {
+        int before = segments.bitmapCount();
+
+        // Seul utilisateur de Paris, d'ADMIN et de décembre 2023
+        segments.remove(4L);
+        segments.remove(4L);
+
+        assertThat(segments.bitmapCount()).isEqualTo(before - 3);
+        assertThat(ids(segments.evaluate(leaf(SegmentDimension.CITY, "Paris"), 100))).isEmpty();
+        assertThat(ids(segments.evaluate(leaf(SegmentDimension.HAS_COMPANY, "true"), 100))).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void reinsertingAnUnknownLowerIdShiftsRowsAndKeepsValues() {
+        segments.remove(4L);
+        segments.upsert(user(0L, UserStatus.SUSPENDED, UserRole.ADMIN, "Nantes", null, 2022, 2));
+        segments.upsert(user(4L, UserStatus.ACTIVE, UserRole.ADMIN, "Paris", "PayeTonKawa", 2023, 12));
+
+        assertThat(ids(segments.evaluate(leaf(SegmentDimension.ROLE, "ADMIN"), 100))).containsExactly(0L, 4L);
+        assertThat(ids(segments.evaluate(leaf(SegmentDimension.CITY, "lyon"), 100))).containsExactly(1L, 2L, 3L);
+
+        segments.upsert(user(0L, UserStatus.ACTIVE, UserRole.ADMIN, "Nantes", null, 2022, 2));
+        assertThat(ids(segments.evaluate(leaf(SegmentDimension.STATUS, "SUSPENDED"), 100))).isEmpty();
+        assertThat(ids(segments.evaluate(leaf(SegmentDimension.CITY, "Nantes"), 100))).containsExactly(0L);
+        assertThat(segments.userCount()).isEqualTo(5);
+    }
+
+    @Test
+    void pagesIdsInAscendingOrder() {
+        Roaring64NavigableMap clients = segments.evaluate(leaf(SegmentDimension.ROLE, "CLIENT"), 100);
+
+        assertThat(UserSegments.page(clients, 0, 2)).containsExactly(1L, 2L);
+        assertThat(UserSegments.page(clients, 1, 2)).containsExactly(3L);
+        assertThat(UserSegments.page(clients, 5, 2)).isEmpty();
+    }
+
+    @Test
+    void rejectsMalformedOrOversizedExpressions() {
+        SegmentExpressionDto ambiguous = leaf(SegmentDimension.STATUS, "ACTIVE");
+        ambiguous.setNot(leaf(SegmentDimension.ROLE, "ADMIN"));
+        assertThatThrownBy(() -> segments.evaluate(ambiguous, 100)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThatThrownBy(() -> segments.evaluate(leaf(SegmentDimension.STATUS, "UNKNOWN"), 100))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        SegmentExpressionDto cityRange = months("2024-01", "2024-02");
+        cityRange.setDimension(SegmentDimension.CITY);
+        assertThatThrownBy(() -> segments.evaluate(cityRange, 100)).isInstanceOf(IllegalArgumentException.class);
+
+        SegmentExpressionDto large = and(leaf(SegmentDimension.STATUS, "ACTIVE"), leaf(SegmentDimension.ROLE, "ADMIN"));
+        assertThatThrownBy(() -> segments.evaluate(large, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Long> ids(Roaring64NavigableMap bitmap) {
+        return UserSegments.page(bitmap, 0, Integer.MAX_VALUE / 2);
+    }
+
+    private static SegmentExpressionDto and(SegmentExpressionDto... operands) {
+        SegmentExpressionDto expression = new SegmentExpressionDto();
+        expression.setAnd(List.of(operands));
+        return expression;
+    }
+
+    private static SegmentExpressionDto leaf(SegmentDimension dimension, String... values) {
+        SegmentExpressionDto expression = new SegmentExpressionDto();
+        expression.setDimension(dimension);
+        expression.setValues(List.of(values));
+        return expression;
+    }
+
+    private static SegmentExpressionDto months(String from, String to) {
+        SegmentExpressionDto expression = new SegmentExpressionDto();
+        expression.setDimension(SegmentDimension.CREATED_MONTH);
+        expression.setFrom(from);
+        expression.setTo(to);
+        return expression;
+    }
+
+    private static User user(Long id, UserStatus status, UserRole role, String city, String companyName,
+                             int year, int month) {
+        User user = new User("Prénom", "Nom", "user" + id + "@payetonkawa.fr", "secret", role);
+        user.setId(id);
+        user.setStatus(status);
+        user.setCity(city);
+        user.setCountry("France");
+        user.setCompanyName(companyName);
+        user.setCreatedAt(LocalDateTime.of(year, month, 15, 10, 0));
+        return user;
+    }
+}
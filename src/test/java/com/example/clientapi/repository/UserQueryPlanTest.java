@@ -0,0 +1,217 @@
+package com.example.clientapi.repository;
+
+import com.example.clientapi.dto.UserFilterDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie sur PostgreSQL, avec le schéma issu des migrations Liquibase, que chaque requête
+ * du repository et chaque critère du filtre produisent un plan servi par un index.
+ *
+ * Le SQL généré est capturé puis analysé avec EXPLAIN (GENERIC_PLAN), parcours séquentiels
+ * désactivés : le prédicat doit apparaître comme condition d'index (« Index Cond »).
+ */
+@SpringBootTest(properties = {
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        // Sans cache de second niveau, chaque appel émet sa requête SQL
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.clientapi.repository.SqlCaptureInspector"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class UserQueryPlanTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", POSTGRES::getDriverClassName);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clearCapturedStatements() {
+        SqlCaptureInspector.clear();
+    }
+
+    static Stream<Arguments> indexedCriteria() {
+        return Stream.of(
+                criterion("status", filter -> filter.setStatus(UserStatus.ACTIVE)),
+                criterion("role", filter -> filter.setRole(UserRole.ADMIN)),
+                criterion("city", filter -> filter.setCity("Paris")),
+                criterion("country", filter -> filter.setCountry("France")),
+                criterion("postalCodePrefix", filter -> filter.setPostalCodePrefix("75")),
+                criterion("companyName", filter -> filter.setCompanyName("PayeTonKawa")),
+                criterion("createdFrom", filter -> filter.setCreatedFrom(LocalDateTime.now().minusDays(7))),
+                criterion("createdRange", filter -> {
+                    filter.setCreatedFrom(LocalDateTime.now().minusDays(30));
+                    filter.setCreatedTo(LocalDateTime.now());
+                })
+        );
+    }
+
+    /**
+     * Requêtes du repository servies par un index.
+     * La recherche globale (LIKE '%terme%') n'est pas couverte : elle nécessiterait un index trigramme.
+     */
+    static Stream<Arguments> repositoryQueries() {
+        Pageable byLastName = PageRequest.of(0, 20, Sort.by("lastName"));
+        return Stream.of(
+                query("findById", repository -> repository.findById(1L)),
+                query("findByEmail", repository -> repository.findByEmail("client@payetonkawa.fr")),
+                query("findPrincipalByEmail", repository -> repository.findPrincipalByEmail("client@payetonkawa.fr")),
+                query("findCurrentByIdIn", repository -> repository.findCurrentByIdIn(List.of(1L, 2L))),
+                query("existsByEmail", repository -> repository.existsByEmail("client@payetonkawa.fr")),
+                query("findByStatus", repository -> repository.findByStatus(UserStatus.ACTIVE, byLastName)),
+                query("findByRole", repository -> repository.findByRole(UserRole.CLIENT, byLastName)),
+                query("findAllClients", repository -> repository.findAllClients(byLastName)),
+                query("findAllAdmins", repository -> repository.findAllAdmins(byLastName)),
+                query("findSliceByCreatedAtAfter", repository -> repository.findSliceByCreatedAtAfter(
+                        LocalDateTime.now(), PageRequest.of(0, 20))),
+                query("findSliceByCityIgnoreCase", repository -> repository.findSliceByCityIgnoreCase(
+                        "Paris", PageRequest.of(0, 20))),
+                query("streamByStatus", repository -> first(repository.streamByStatus(UserStatus.ACTIVE))),
+                query("streamByRole", repository -> first(repository.streamByRole(UserRole.ADMIN))),
+                query("streamByCreatedAtAfter", repository -> first(
+                        repository.streamByCreatedAtAfter(LocalDateTime.now()))),
+                query("streamByCityIgnoreCase", repository -> first(repository.streamByCityIgnoreCase("Paris"))),
+                query("countByStatus", repository -> repository.countByStatus(UserStatus.ACTIVE)),
+                query("countByRole", repository -> repository.countByRole(UserRole.ADMIN)),
+                query("countByGeography", repository -> repository.countByGeography(UserStatus.ACTIVE, UserRole.CLIENT)),
+                query("findDtosByEmailNormalizedIn", repository -> repository.findDtosByEmailNormalizedIn(
+                        List.of("client@payetonkawa.fr", "admin@payetonkawa.fr"))),
+                query("findDtosChangedAfter", repository -> repository.findDtosChangedAfter(
+                        LocalDateTime.now().minusDays(1), 1L, LocalDateTime.now(), PageRequest.of(0, 100)))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexedCriteria")
+    void filterPredicateIsIndexBacked(String criterion, Consumer<UserFilterDto> configurer) throws Exception {
+        UserFilterDto filter = new UserFilterDto();
+        configurer.accept(filter);
+
+        // Sans tri : un parcours complet de la clé primaire ne peut pas masquer l'absence d'index
+        userRepository.findAll(UserSpecifications.fromFilter(filter), PageRequest.of(0, 20));
+
+        assertIndexPlan(criterion);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQueryIsIndexBacked(String name, Consumer<UserRepository> query) throws Exception {
+        // Les requêtes stream* ne s'exécutent que dans une transaction
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> query.accept(userRepository));
+
+        assertIndexPlan(name);
+    }
+
+    private void assertIndexPlan(String name) throws Exception {
+        String sql = firstUsersQuery();
+        String plan = explainGenericPlan(sql);
+
+        assertThat(plan)
+                .as("Plan de la requête %s :%n%s%n%s", name, sql, plan)
+                .doesNotContain("Seq Scan")
+                .contains("Index Cond");
+    }
+
+    private String firstUsersQuery() {
+        return SqlCaptureInspector.statements().stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from users "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Aucune requête SELECT sur users capturée"));
+    }
+
+    private String explainGenericPlan(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            try (ResultSet rs = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + toNumberedParameters(sql))) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+                return plan.toString();
+            } finally {
+                statement.execute("RESET enable_seqscan");
+            }
+        }
+    }
+
+    /**
+     * Remplace les paramètres JDBC « ? » par des paramètres PostgreSQL numérotés ($1, $2, ...).
+     */
+    static String toNumberedParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int index = 0;
+        boolean inLiteral = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++index);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static Arguments criterion(String name, Consumer<UserFilterDto> configurer) {
+        return Arguments.of(name, configurer);
+    }
+
+    private static void first(Stream<User> users) {
+        try (users) {
+            users.findFirst();
+        }
+    }
+
+    private static Arguments query(String name, Consumer<UserRepository> query) {
+        return Arguments.of(name, query);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.clientapi.seed;
+
+import com.example.clientapi.entity.User;
+import com.example.clientapi.seed.SyntheticUserGenerator.SyntheticUser;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie que la génération est déterministe, respecte les contraintes de la table users
+ * et que les emails d'une plage de rangs sont contigus dans l'ordre de l'index.
+ */
+class SyntheticUserGeneratorTest {
+
+    private static final LocalDateTime REFERENCE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final SyntheticUserGenerator generator = new SyntheticUserGenerator(42, REFERENCE, 365);
+
+    @Test
+    void sameSeedAndIndexProduceSameUser() {
+        SyntheticUserGenerator other = new SyntheticUserGenerator(42, REFERENCE, 365);
+
+        assertThat(generator.generate(123_456)).isEqualTo(other.generate(123_456));
+        assertThat(new SyntheticUserGenerator(7, REFERENCE, 365).generate(123_456))
+                .isNotEqualTo(generator.generate(123_456));
+    }
+
+    @Test
+    void usersFitTableConstraintsWithUniqueAsciiEmails() {
+        Set<String> emails = new HashSet<>();
+        LongStream.range(0, 5_000).mapToObj(generator::generate).forEach(user -> {
+            assertThat(user.email()).hasSizeLessThanOrEqualTo(100).matches("[a-z0-9.@-]+");
+            assertThat(user.phone()).hasSizeLessThanOrEqualTo(20);
+            assertThat(user.companyName()).hasSizeLessThanOrEqualTo(100);
+            assertThat(user.postalCode()).hasSize(5);
+            assertThat(user.createdAt()).isBefore(REFERENCE).isAfterOrEqualTo(REFERENCE.minusDays(365));
+            assertThat(user.updatedAt()).isAfterOrEqualTo(user.createdAt()).isBefore(REFERENCE);
+            emails.add(User.normalizeEmail(user.email()));
+        });
+        assertThat(emails).hasSize(5_000);
+    }
+
+    @Test
+    void emailPrefixesBoundTheirRange() {
+        String lower = SyntheticUserGenerator.emailPrefix(1_000);
+        String upper = SyntheticUserGenerator.emailPrefix(2_000);
+
+        assertThat(LongStream.of(999, 1_000, 1_999, 2_000, 10_000)
+                .mapToObj(generator::generate)
+                .map(SyntheticUser::email)
+                .map(email -> email.compareTo(lower) >= 0 && email.compareTo(upper) < 0))
+                .containsExactly(false, true, true, false, false);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.clientapi.service;
+
+import com.example.clientapi.dto.BatchGetRequestDto;
+import com.example.clientapi.dto.BatchGetResponseDto;
+import com.example.clientapi.dto.UserDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie la limite du nombre de clés, le signalement des clés introuvables, la normalisation
+ * des emails et la restriction d'un non-admin à son propre compte avant toute requête.
+ */
+class UserBatchServiceTest {
+
+    private static final long REQUESTER_ID = 7L;
+    private static final String REQUESTER_EMAIL = "client@payetonkawa.fr";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserBatchService service = new UserBatchService(userRepository, 3, 2);
+
+    @Test
+    void requestWithTooManyKeysIsRejected() {
+        assertThatThrownBy(() -> service.batchGet(request(List.of(1L, 2L), List.of("a@x.fr", "b@x.fr")),
+                REQUESTER_ID, REQUESTER_EMAIL, true))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(userRepository, never()).findAllByIdUsingCache(anyList(), anyInt());
+    }
+
+    @Test
+    void missingKeysAreReportedAndEmailsAreMatchedWithoutCase() {
+        when(userRepository.findAllByIdUsingCache(List.of(1L, 404L), 2)).thenReturn(List.of(user(1L, "un@x.fr")));
+        when(userRepository.findDtosByEmailNormalizedIn(List.of("deux@x.fr")))
+                .thenReturn(List.of(UserDto.from(user(2L, "Deux@X.fr"))));
+
+        BatchGetResponseDto response = service.batchGet(
+                request(List.of(1L, 404L), List.of(" DEUX@x.fr", "absent@x.fr")), REQUESTER_ID, REQUESTER_EMAIL,
+                true);
+
+        assertThat(response.getUsers()).extracting(UserDto::getId).containsExactly(1L, 2L);
+        assertThat(response.getMissingIds()).containsExactly(404L);
+        assertThat(response.getMissingEmails()).containsExactly("absent@x.fr");
+    }
+
+    @Test
+    void nonAdminOnlyQueriesAndGetsTheirOwnRecord() {
+        when(userRepository.findAllByIdUsingCache(List.of(REQUESTER_ID), 2))
+                .thenReturn(List.of(user(REQUESTER_ID, REQUESTER_EMAIL)));
+        when(userRepository.findDtosByEmailNormalizedIn(List.of(REQUESTER_EMAIL)))
+                .thenReturn(List.of(UserDto.from(user(REQUESTER_ID, REQUESTER_EMAIL))));
+
+        BatchGetResponseDto response = service.batchGet(
+                request(List.of(REQUESTER_ID, 8L), List.of("Client@PayeTonKawa.fr")), REQUESTER_ID,
+                REQUESTER_EMAIL, false);
+
+        assertThat(response.getUsers()).extracting(UserDto::getId).containsExactly(REQUESTER_ID);
+        assertThat(response.getMissingIds()).containsExactly(8L);
+        assertThat(response.getMissingEmails()).isEmpty();
+        verify(userRepository).findAllByIdUsingCache(eq(List.of(REQUESTER_ID)), anyInt());
+    }
+
+    @Test
+    void nonAdminKeysForOtherUsersAreNotQueried() {
+        BatchGetResponseDto response = service.batchGet(request(List.of(8L), List.of("autre@payetonkawa.fr")),
+                REQUESTER_ID, REQUESTER_EMAIL, false);
+
+        assertThat(response.getUsers()).isEmpty();
+        assertThat(response.getMissingIds()).containsExactly(8L);
+        assertThat(response.getMissingEmails()).containsExactly("autre@payetonkawa.fr");
+        verify(userRepository, never()).findAllByIdUsingCache(anyList(), anyInt());
+        verify(userRepository, never()).findDtosByEmailNormalizedIn(anyCollection());
+    }
+
+    private static BatchGetRequestDto request(List<Long> ids, List<String> emails) {
+        BatchGetRequestDto request = new BatchGetRequestDto();
+        request.setIds(ids);
+        request.setEmails(emails);
+        return request;
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User("Prénom", "Nom", email, "secret", UserRole.CLIENT);
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.clientapi.service;
+
+import com.example.clientapi.config.RecentWriteTracker;
+import com.example.clientapi.dto.BulkUserFilterDto;
+import com.example.clientapi.entity.UserEventType;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserStatus;
+import com.example.clientapi.outbox.UserEventOutbox;
+import com.example.clientapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie le parcours par clé des sélections par critères, l'exclusion de l'auteur de la mise à jour
+ * et le refus d'un lot qui laisserait l'application sans administrateur actif.
+ */
+class UserBulkServiceTest {
+
+    private static final long REQUESTER_ID = 7L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserEventOutbox userEventOutbox = mock(UserEventOutbox.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private UserBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new UserBulkService(userRepository, userEventOutbox, transactionManager,
+                mock(RecentWriteTracker.class), 2, 3);
+        when(userRepository.countByRoleAndStatus(UserRole.ADMIN, UserStatus.ACTIVE)).thenReturn(1L);
+    }
+
+    @Test
+    void criteriaSelectionIsWalkedByKeyAfterTheLastProcessedId() {
+        when(userRepository.findIdsForStatusUpdate(eq(UserStatus.SUSPENDED), any(), any(), eq("Paris"),
+                eq(REQUESTER_ID), eq(0L), eq(2))).thenReturn(List.of(3L, 900L));
+        when(userRepository.findIdsForStatusUpdate(eq(UserStatus.SUSPENDED), any(), any(), eq("Paris"),
+                eq(REQUESTER_ID), eq(900L), eq(2))).thenReturn(List.of(50_000L));
+        when(userRepository.updateStatusByIds(eq(List.of(3L, 900L)), eq(UserStatus.SUSPENDED), any()))
+                .thenReturn(List.of(3L, 900L));
+        when(userRepository.updateStatusByIds(eq(List.of(50_000L)), eq(UserStatus.SUSPENDED), any()))
+                .thenReturn(List.of(50_000L));
+
+        Map<String, Object> result = service.updateStatus(criteria("Paris"), UserStatus.SUSPENDED, REQUESTER_ID);
+
+        assertThat(result).containsEntry("affected", 3L).containsEntry("chunks", 2);
+    }
+
+    @Test
+    void requesterIsRemovedFromAnIdSelection() {
+        BulkUserFilterDto filter = new BulkUserFilterDto();
+        filter.setIds(List.of(REQUESTER_ID));
+
+        Map<String, Object> result = service.updateRole(filter, UserRole.CLIENT, REQUESTER_ID);
+
+        assertThat(result).containsEntry("affected", 0L).containsEntry("chunks", 0);
+        verify(userRepository, never()).updateRoleByIds(anyList(), any(), any());
+    }
+
+    @Test
+    void chunkLeavingNoActiveAdminIsRejected() {
+        BulkUserFilterDto filter = new BulkUserFilterDto();
+        filter.setIds(List.of(1L, 2L));
+        when(userRepository.updateRoleByIds(eq(List.of(1L, 2L)), eq(UserRole.CLIENT), any()))
+                .thenReturn(List.of(1L, 2L));
+        when(userRepository.countByRoleAndStatus(UserRole.ADMIN, UserStatus.ACTIVE)).thenReturn(0L);
+
+        assertThatThrownBy(() -> service.updateRole(filter, UserRole.CLIENT, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("administrateur actif");
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void promotionDoesNotCheckRemainingAdmins() {
+        BulkUserFilterDto filter = new BulkUserFilterDto();
+        filter.setIds(List.of(1L));
+        when(userRepository.updateRoleByIds(eq(List.of(1L)), eq(UserRole.ADMIN), any())).thenReturn(List.of(1L));
+
+        service.updateRole(filter, UserRole.ADMIN, REQUESTER_ID);
+
+        verify(userRepository, never()).countByRoleAndStatus(any(), any());
+    }
+
+    @Test
+    void eachUpdatedUserIsRecordedInTheOutbox() {
+        BulkUserFilterDto filter = new BulkUserFilterDto();
+        filter.setIds(List.of(1L, 2L));
+        // L'utilisateur 2 a déjà ce statut : il n'est ni modifié ni publié
+        when(userRepository.updateStatusByIds(eq(List.of(1L, 2L)), eq(UserStatus.SUSPENDED), any()))
+                .thenReturn(List.of(1L));
+
+        Map<String, Object> result = service.updateStatus(filter, UserStatus.SUSPENDED, REQUESTER_ID);
+
+        assertThat(result).containsEntry("affected", 1L);
+        verify(userEventOutbox).record(UserEventType.USER_STATUS_CHANGED, 1L,
+                Map.of("id", 1L, "changes", Map.of("status", UserStatus.SUSPENDED)));
+        verify(userEventOutbox, never()).record(any(), eq(2L), any());
+    }
+
+    private static BulkUserFilterDto criteria(String city) {
+        BulkUserFilterDto filter = new BulkUserFilterDto();
+        filter.setCity(city);
+        return filter;
+    }
+}
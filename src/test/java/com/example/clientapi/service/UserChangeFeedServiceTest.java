@@ -0,0 +1,132 @@
+package com.example.clientapi.service;
+
+import com.example.clientapi.dto.UserChangeDto;
+import com.example.clientapi.dto.UserChangeDto.ChangeType;
+import com.example.clientapi.dto.UserChangesDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.entity.UserTombstone;
+import com.example.clientapi.repository.UserRepository;
+import com.example.clientapi.repository.UserTombstoneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie le parcours du flux de modifications : pagination sur des horodatages égaux,
+ * entrelacement des créations et des suppressions, curseur invalide et délai de sécurité.
+ */
+@SpringBootTest(properties = "app.users.changes.safety-lag=5s")
+@AutoConfigureMockMvc
+class UserChangeFeedServiceTest {
+
+    // Horodatage commun, antérieur à toutes les autres lignes de la base
+    private static final LocalDateTime CHANGED_AT = LocalDateTime.of(2001, 1, 1, 0, 0);
+
+    @Autowired
+    private UserChangeFeedService userChangeFeedService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTombstoneRepository userTombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void deleteRows() {
+        userRepository.deleteAllById(userRepository.findAllById(createdIds).stream().map(User::getId).toList());
+        userTombstoneRepository.deleteAllById(
+                userTombstoneRepository.findAllById(createdIds).stream().map(UserTombstone::getUserId).toList());
+    }
+
+    @Test
+    void pagesWalkEqualTimestampsAndInterleaveDeletesById() {
+        User first = save("first");
+        User deleted = save("deleted");
+        User last = save("last");
+        userRepository.delete(deleted);
+        userTombstoneRepository.save(new UserTombstone(deleted.getId(), CHANGED_AT));
+        setUpdatedAt(CHANGED_AT, first.getId(), last.getId());
+
+        String cursor = userChangeFeedService.cursorBefore(
+                CHANGED_AT.plus(userChangeFeedService.getSafetyLag()));
+        List<UserChangeDto> walked = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            UserChangesDto changes = userChangeFeedService.getChanges(cursor, 1);
+            assertThat(changes.getChanges()).hasSize(1);
+            walked.addAll(changes.getChanges());
+            cursor = changes.getNextCursor();
+        }
+
+        assertThat(walked).extracting(UserChangeDto::getId)
+                .containsExactly(first.getId(), deleted.getId(), last.getId());
+        assertThat(walked).extracting(UserChangeDto::getType)
+                .containsExactly(ChangeType.UPSERT, ChangeType.DELETE, ChangeType.UPSERT);
+        assertThat(walked).extracting(UserChangeDto::getChangedAt).containsOnly(CHANGED_AT);
+
+        // La page suivante repart après la dernière ligne lue, sans la répéter
+        assertThat(userChangeFeedService.getChanges(cursor, 1).getChanges())
+                .extracting(UserChangeDto::getId)
+                .doesNotContain(first.getId(), deleted.getId(), last.getId());
+    }
+
+    @Test
+    void changesInsideTheSafetyLagAreWithheld() {
+        User recent = save("recent");
+        User settled = save("settled");
+        setUpdatedAt(LocalDateTime.now().minusMinutes(1), settled.getId());
+
+        String cursor = userChangeFeedService.cursorBefore(LocalDateTime.now().minusMinutes(2));
+        UserChangesDto changes = userChangeFeedService.getChanges(cursor, 1000);
+
+        assertThat(changes.getChanges()).extracting(UserChangeDto::getId)
+                .contains(settled.getId())
+                .doesNotContain(recent.getId());
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        assertThatThrownBy(() -> userChangeFeedService.getChanges("pas-un-curseur", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        mockMvc.perform(get("/api/v1/users/changes").param("since", "pas-un-curseur")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private User save(String prefix) {
+        User user = userRepository.save(new User("Feed", "Client",
+                prefix + "-" + UUID.randomUUID() + "@payetonkawa.fr", "secret", UserRole.CLIENT));
+        createdIds.add(user.getId());
+        return user;
+    }
+
+    private void setUpdatedAt(LocalDateTime updatedAt, Long... ids) {
+        for (Long id : ids) {
+            jdbcTemplate.update("UPDATE users SET updated_at = ? WHERE id = ?", updatedAt, id);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.clientapi.service;
+
+import com.example.clientapi.dto.UserDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Vérifie le découpage en lots et le vidage du contexte de persistance entre deux lots.
+ */
+@SpringBootTest(properties = "app.users.chunk.max-size=10")
+class UserChunkServiceTest {
+
+    @Autowired
+    private UserChunkService userChunkService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final String city = "Ville-" + UUID.randomUUID();
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @BeforeEach
+    void createUsers() {
+        for (int i = 0; i < 5; i++) {
+            User user = new User("Chunk", "Client" + i, UUID.randomUUID() + "@payetonkawa.fr", "secret",
+                    UserRole.CLIENT);
+            user.setCity(city);
+            createdIds.add(userRepository.save(user).getId());
+        }
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.deleteAllById(createdIds);
+    }
+
+    @Test
+    void usersAreDeliveredInChunksOfTheRequestedSize() {
+        List<List<Long>> chunks = new ArrayList<>();
+
+        long count = userChunkService.forEachChunkByCity(city.toUpperCase(), 2,
+                chunk -> chunks.add(chunk.stream().map(UserDto::getId).toList()));
+
+        assertThat(count).isEqualTo(5);
+        assertThat(chunks).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(chunks.stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(createdIds);
+    }
+
+    @Test
+    void persistenceContextIsClearedBetweenChunks() {
+        List<Integer> managedEntities = new ArrayList<>();
+
+        userChunkService.forEachChunkByCity(city, 2, chunk -> managedEntities.add(
+                entityManager.unwrap(Session.class).getStatistics().getEntityCount()));
+
+        // Seules les entités du lot en cours sont gérées lorsqu'il est transmis
+        assertThat(managedEntities).hasSize(3).allMatch(count -> count <= 2);
+    }
+
+    @Test
+    void chunkSizeOutsideTheAllowedRangeIsRejected() {
+        assertThatThrownBy(() -> userChunkService.forEachChunkByCity(city, 0, chunk -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> userChunkService.forEachChunkByCity(city, 11, chunk -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
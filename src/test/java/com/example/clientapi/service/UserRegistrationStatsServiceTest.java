@@ -0,0 +1,116 @@
+package com.example.clientapi.service;
+
+import com.example.clientapi.dto.CreateUserDto;
+import com.example.clientapi.dto.RegistrationBucketDto;
+import com.example.clientapi.dto.RegistrationGranularity;
+import com.example.clientapi.dto.RegistrationStatsDto;
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Vérifie la reconstruction des compteurs quotidiens et leurs cumuls par jour, semaine et mois.
+ */
+@SpringBootTest
+class UserRegistrationStatsServiceTest {
+
+    @Autowired
+    private UserRegistrationStatsService registrationStatsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.deleteAllById(createdIds);
+        registrationStatsService.rebuild();
+    }
+
+    @Test
+    void rebuiltCountersRollUpByDayWeekAndMonth() {
+        // Le 7 janvier 2002 est un lundi
+        register(UserRole.CLIENT, LocalDate.of(2002, 1, 7));
+        register(UserRole.CLIENT, LocalDate.of(2002, 1, 9));
+        register(UserRole.ADMIN, LocalDate.of(2002, 1, 9));
+        register(UserRole.CLIENT, LocalDate.of(2002, 1, 14));
+        register(UserRole.CLIENT, LocalDate.of(2002, 2, 1));
+
+        registrationStatsService.rebuild();
+
+        RegistrationStatsDto days = registrations(LocalDate.of(2002, 1, 7), LocalDate.of(2002, 1, 9),
+                RegistrationGranularity.DAY, null);
+        assertThat(days.getTotal()).isEqualTo(3);
+        assertThat(days.getBuckets())
+                .extracting(RegistrationBucketDto::getPeriodStart, RegistrationBucketDto::getRegistrations)
+                .containsExactly(tuple(LocalDate.of(2002, 1, 7), 1L), tuple(LocalDate.of(2002, 1, 8), 0L),
+                        tuple(LocalDate.of(2002, 1, 9), 2L));
+
+        RegistrationStatsDto weeks = registrations(LocalDate.of(2002, 1, 8), LocalDate.of(2002, 1, 20),
+                RegistrationGranularity.WEEK, null);
+        assertThat(weeks.getBuckets())
+                .extracting(RegistrationBucketDto::getPeriodStart, RegistrationBucketDto::getRegistrations)
+                .containsExactly(tuple(LocalDate.of(2002, 1, 7), 2L), tuple(LocalDate.of(2002, 1, 14), 1L));
+
+        RegistrationStatsDto clientMonths = registrations(LocalDate.of(2002, 1, 1), LocalDate.of(2002, 3, 31),
+                RegistrationGranularity.MONTH, UserRole.CLIENT);
+        assertThat(clientMonths.getTotal()).isEqualTo(4);
+        assertThat(clientMonths.getBuckets())
+                .extracting(RegistrationBucketDto::getPeriodStart, RegistrationBucketDto::getRegistrations)
+                .containsExactly(tuple(LocalDate.of(2002, 1, 1), 3L), tuple(LocalDate.of(2002, 2, 1), 1L),
+                        tuple(LocalDate.of(2002, 3, 1), 0L));
+    }
+
+    @Test
+    void creationIncrementsTheCounterOfItsDayAndRebuildKeepsIt() {
+        LocalDate today = LocalDate.now();
+        // Point de départ cohérent avec les utilisateurs insérés directement par d'autres tests
+        registrationStatsService.rebuild();
+        long before = registrations(today, today, RegistrationGranularity.DAY, null).getTotal();
+
+        CreateUserDto created = new CreateUserDto();
+        created.setFirstName("Stats");
+        created.setLastName("Client");
+        created.setEmail("stats-" + UUID.randomUUID() + "@payetonkawa.fr");
+        created.setPassword("secret");
+        created.setRole(UserRole.CLIENT);
+        createdIds.add(userService.createUser(created).getId());
+
+        assertThat(registrations(today, today, RegistrationGranularity.DAY, null).getTotal()).isEqualTo(before + 1);
+
+        registrationStatsService.rebuild();
+        assertThat(registrations(today, today, RegistrationGranularity.DAY, null).getTotal()).isEqualTo(before + 1);
+    }
+
+    private void register(UserRole role, LocalDate day) {
+        User user = userRepository.save(new User("Stats", "Client", "stats-" + UUID.randomUUID() + "@payetonkawa.fr",
+                "secret", role));
+        createdIds.add(user.getId());
+        jdbcTemplate.update("UPDATE users SET created_at = ? WHERE id = ?", day.atTime(10, 0), user.getId());
+    }
+
+    private RegistrationStatsDto registrations(LocalDate from, LocalDate to, RegistrationGranularity granularity,
+                                               UserRole role) {
+        return registrationStatsService.getRegistrations(from, to, granularity, role, null);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.clientapi.service.impl;
+
+import com.example.clientapi.entity.User;
+import com.example.clientapi.entity.UserRole;
+import com.example.clientapi.exception.EmailAlreadyExistsException;
+import com.example.clientapi.repository.UserRepository;
+import com.example.clientapi.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Vérifie l'application d'un JSON Merge Patch : effacement des attributs facultatifs,
+ * attributs obligatoires et inconnus refusés, email normalisé et mot de passe haché.
+ */
+@SpringBootTest
+class UserServicePatchTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+    private User other;
+
+    @BeforeEach
+    void createUsers() {
+        User created = new User("Bob", "Client", uniqueEmail("patch"), "secret", UserRole.CLIENT);
+        created.setCity("Lyon");
+        created.setPhone("0600000000");
+        user = userRepository.save(created);
+        other = userRepository.save(new User("Carl", "Client", uniqueEmail("other"), "secret", UserRole.CLIENT));
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.findAllById(List.of(user.getId(), other.getId())).forEach(userRepository::delete);
+    }
+
+    @Test
+    void nullClearsOptionalAttributesAndLeavesTheOthers() throws Exception {
+        userService.patchUser(user.getId(), objectMapper.readTree("{\"city\":null,\"phone\":null}"));
+
+        User patched = reload();
+        assertThat(patched.getCity()).isNull();
+        assertThat(patched.getPhone()).isNull();
+        assertThat(patched.getFirstName()).isEqualTo("Bob");
+    }
+
+    @Test
+    void requiredAttributesCannotBeClearedOrBlanked() {
+        assertRejected("{\"firstName\":null}");
+        assertRejected("{\"email\":null}");
+        assertRejected("{\"lastName\":\"  \"}");
+        assertRejected("{\"password\":\"        \"}");
+
+        assertThat(reload().getFirstName()).isEqualTo("Bob");
+    }
+
+    @Test
+    void unknownOrReadOnlyAttributesAreRejected() {
+        assertRejected("{\"nickname\":\"bobby\"}");
+        assertRejected("{\"id\":42}");
+        assertRejected("{\"emailNormalized\":\"x@y.fr\"}");
+        assertRejected("[\"city\"]");
+    }
+
+    @Test
+    void emailNormalizedFollowsThePatchedEmail() throws Exception {
+        String email = "Bob.Patch-" + UUID.randomUUID() + "@PayeTonKawa.fr";
+
+        userService.patchUser(user.getId(), objectMapper.readTree("{\"email\":\"" + email + "\"}"));
+
+        User patched = reload();
+        assertThat(patched.getEmail()).isEqualTo(email);
+        assertThat(patched.getEmailNormalized()).isEqualTo(User.normalizeEmail(email));
+    }
+
+    @Test
+    void duplicateEmailIsReportedAsEmailAlreadyExists() {
+        assertThatThrownBy(() -> userService.patchUser(user.getId(),
+                objectMapper.readTree("{\"email\":\"" + other.getEmail() + "\"}")))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+    }
+
+    @Test
+    void passwordIsStoredHashed() throws Exception {
+        userService.patchUser(user.getId(), objectMapper.readTree("{\"password\":\"nouveau-secret\"}"));
+
+        String stored = reload().getPassword();
+        assertThat(stored).isNotEqualTo("nouveau-secret");
+        assertThat(passwordEncoder.matches("nouveau-secret", stored)).isTrue();
+    }
+
+    private void assertRejected(String patch) {
+        assertThatThrownBy(() -> userService.patchUser(user.getId(), objectMapper.readTree(patch)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private User reload() {
+        return userRepository.findById(user.getId()).orElseThrow();
+    }
+
+    private static String uniqueEmail(String prefix) {
+        return prefix + "-" + UUID.randomUUID() + "@payetonkawa.fr";
+    }
+}